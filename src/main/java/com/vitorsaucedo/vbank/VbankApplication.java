@@ -2,8 +2,10 @@ package com.vitorsaucedo.vbank;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class VbankApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,30 @@
+package com.vitorsaucedo.vbank.commands;
+
+import com.vitorsaucedo.vbank.services.LedgerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reconstrói o saldo projetado das contas a partir de {@code tb_ledger_entries}.
+ *
+ * Uso: {@code java -jar vbank.jar --vbank.ledger.rebuild=true}
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "vbank.ledger.rebuild", havingValue = "true")
+public class LedgerRebuildCommand implements ApplicationRunner {
+
+    private final LedgerService ledgerService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Reconstruindo saldos a partir do livro razão...");
+        ledgerService.rebuildBalances();
+        log.info("Saldos reconstruídos.");
+    }
+}
@@ -0,0 +1,45 @@
+package com.vitorsaucedo.vbank.commands;
+
+import com.vitorsaucedo.vbank.services.OnboardingImportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Importa clientes de um arquivo CSV ou NDJSON, com as regras do cadastro.
+ *
+ * Uso: {@code java -jar vbank.jar --vbank.onboarding.import.file=clientes.csv}
+ *
+ * As linhas recusadas vão para {@code vbank.onboarding.import.report}, por padrão
+ * o próprio arquivo com o sufixo {@code .rejected.ndjson}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "vbank.onboarding.import.file")
+public class OnboardingImportCommand implements ApplicationRunner {
+
+    private final OnboardingImportService onboardingImportService;
+    private final Path file;
+    private final Path report;
+
+    public OnboardingImportCommand(
+            OnboardingImportService onboardingImportService,
+            @Value("${vbank.onboarding.import.file}") Path file,
+            @Value("${vbank.onboarding.import.report:}") String report) {
+        this.onboardingImportService = onboardingImportService;
+        this.file = file;
+        this.report = report.isBlank() ? file.resolveSibling(file.getFileName() + ".rejected.ndjson") : Path.of(report);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        log.info("Importando clientes de {}...", file);
+        onboardingImportService.importFile(file, report);
+    }
+}
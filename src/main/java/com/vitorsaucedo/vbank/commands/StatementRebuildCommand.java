@@ -0,0 +1,30 @@
+package com.vitorsaucedo.vbank.commands;
+
+import com.vitorsaucedo.vbank.services.StatementProjection;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Regenera o extrato desnormalizado ({@code tb_statement_entries}) a partir de {@code tb_transactions}.
+ *
+ * Uso: {@code java -jar vbank.jar --vbank.statement.rebuild=true}
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "vbank.statement.rebuild", havingValue = "true")
+public class StatementRebuildCommand implements ApplicationRunner {
+
+    private final StatementProjection statementProjection;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Reconstruindo o extrato a partir das transações...");
+        long rows = statementProjection.rebuild();
+        log.info("Extrato reconstruído: {} linha(s).", rows);
+    }
+}
@@ -3,9 +3,11 @@ package com.vitorsaucedo.vbank.config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.vitorsaucedo.vbank.money.MoneyJson;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import tools.jackson.databind.JacksonModule;
 
 @Configuration
 public class JacksonConfig {
@@ -15,7 +17,14 @@ public class JacksonConfig {
     public ObjectMapper objectMapper() {
         ObjectMapper mapper = new ObjectMapper();
         mapper.registerModule(new JavaTimeModule());
+        mapper.registerModule(MoneyJson.legacyModule());
         mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
         return mapper;
     }
+
+    // Registrado pelo Spring Boot no JsonMapper (Jackson 3) das requisições e respostas HTTP
+    @Bean
+    public JacksonModule moneyModule() {
+        return MoneyJson.module();
+    }
 }
@@ -0,0 +1,57 @@
+package com.vitorsaucedo.vbank.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Ajustes para execução com threads virtuais ({@code spring.threads.virtual.enabled=true}).
+ *
+ * Com a propriedade ligada o Spring Boot atende as requisições MVC, os métodos
+ * {@code @Async} e as tarefas agendadas em threads virtuais. Esta configuração
+ * acrescenta o bulkhead de conexões ({@link BulkheadDataSource}) dimensionado pelo
+ * pool do Hikari e o monitor de pinning ({@link VirtualThreadPinningMonitor}).
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    // Estático para não antecipar a criação desta configuração junto dos BeanPostProcessors
+    @Bean
+    @ConditionalOnProperty(name = "vbank.datasource.bulkhead.enabled", havingValue = "true", matchIfMissing = true)
+    static BeanPostProcessor dataSourceBulkheadPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof BulkheadDataSource) {
+                    return bean;
+                }
+                int permits = environment.getProperty("vbank.datasource.bulkhead.permits", Integer.class, 0);
+                if (permits <= 0) {
+                    permits = dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+                }
+                Duration acquireTimeout = environment.getProperty(
+                        "vbank.datasource.bulkhead.acquire-timeout", Duration.class, Duration.ofSeconds(30));
+                return new BulkheadDataSource(dataSource, permits, acquireTimeout);
+            }
+        };
+    }
+
+    @Bean
+    MeterBinder dataSourceBulkheadMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof BulkheadDataSource bulkhead) {
+                bulkhead.bindTo(registry);
+            }
+        };
+    }
+}
@@ -2,7 +2,9 @@ package com.vitorsaucedo.vbank.controllers;
 
 import com.vitorsaucedo.vbank.config.GlobalExceptionHandler;
 import com.vitorsaucedo.vbank.dtos.AccountDashboardResponse;
-import com.vitorsaucedo.vbank.entities.User;
+import com.vitorsaucedo.vbank.dtos.BalanceAtResponse;
+import com.vitorsaucedo.vbank.entities.enums.AccountStatus;
+import com.vitorsaucedo.vbank.security.AuthenticatedUser;
 import com.vitorsaucedo.vbank.services.AccountService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -14,12 +16,17 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
+
 @RestController
 @RequestMapping("/accounts")
 @RequiredArgsConstructor
@@ -94,8 +101,76 @@ public class AccountController {
     })
     @SecurityRequirement(name = "bearerAuth")
     public ResponseEntity<AccountDashboardResponse> getDashboard(
-            @Parameter(hidden = true) @AuthenticationPrincipal User user) {
-        AccountDashboardResponse response = accountService.getDashboardData(user.getId());
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser user) {
+        AccountDashboardResponse response = accountService.getDashboardData(user.accountId());
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/balance")
+    @Operation(
+            summary = "Consultar saldo em uma data",
+            description = "Retorna o saldo da conta ao final do dia informado (padrão: hoje). " +
+                    "A resposta parte do ponto de saldo registrado mais próximo e soma apenas as transações posteriores a ele, " +
+                    "então o custo não depende da idade da conta."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Saldo retornado com sucesso",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = BalanceAtResponse.class),
+                            examples = @ExampleObject(
+                                    name = "Saldo no fim do mês",
+                                    value = """
+                                    {
+                                        "date": "2025-03-31",
+                                        "balance": 1250.75
+                                    }
+                                    """
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Data futura ou inválida (InvalidDataException)",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class)
+                    )
+            )
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<BalanceAtResponse> getBalanceAt(
+            @Parameter(description = "Dia consultado; o saldo é o do final do dia", example = "2025-03-31")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate at,
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser user) {
+        LocalDate date = at != null ? at : LocalDate.now();
+        return ResponseEntity.ok(accountService.getBalanceAt(user.accountId(), date));
+    }
+
+    @PostMapping("/block")
+    @Operation(
+            summary = "Bloquear a própria conta",
+            description = "Bloqueia a conta do usuário autenticado, por exemplo após a perda do aparelho. " +
+                    "Todos os tokens emitidos até aqui deixam de valer e novos logins são recusados; " +
+                    "o desbloqueio é feito pelo atendimento."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Conta bloqueada"),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Conta não encontrada (ResourceNotFoundException)",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class)
+                    )
+            )
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<Void> blockAccount(
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser user) {
+        accountService.changeStatus(user.accountId(), AccountStatus.BLOCKED);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -3,20 +3,26 @@ package com.vitorsaucedo.vbank.controllers;
 import com.vitorsaucedo.vbank.config.GlobalExceptionHandler;
 import com.vitorsaucedo.vbank.dtos.LoginRequest;
 import com.vitorsaucedo.vbank.dtos.LoginResponse;
+import com.vitorsaucedo.vbank.dtos.PinAuthorizationRequest;
+import com.vitorsaucedo.vbank.dtos.PinAuthorizationResponse;
 import com.vitorsaucedo.vbank.dtos.UserRegistrationRequest;
 import com.vitorsaucedo.vbank.dtos.UserResponse;
+import com.vitorsaucedo.vbank.security.AuthenticatedUser;
 import com.vitorsaucedo.vbank.services.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -210,4 +216,54 @@ public class AuthController {
         LoginResponse response = authService.login(request);
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    @PostMapping("/pin")
+    @Operation(
+            summary = "Autorizar transferências com o PIN",
+            description = "Confere o PIN de transação uma única vez e emite um token de curta duração que autoriza as próximas transferências PIX até o valor total e a quantidade de usos informados. O token é enviado em 'authorizationToken' no lugar do PIN"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Token de autorização emitido",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = PinAuthorizationResponse.class),
+                            examples = @ExampleObject(
+                                    name = "Autorização emitida",
+                                    value = """
+                    {
+                        "token": "NWY0ZGMxYjItYjE3Zi00...Q.f3k9a8Xl2...",
+                        "expiresIn": 300,
+                        "maxAmount": 500.00,
+                        "maxUses": 5
+                    }
+                    """
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Erro de validação ou valor acima do limite (InvalidDataException)",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Usuário não autenticado ou PIN inválido (InvalidPinException)",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class)
+                    )
+            )
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<PinAuthorizationResponse> authorizePin(
+            @RequestBody @Valid PinAuthorizationRequest request,
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser user) {
+        PinAuthorizationResponse response = authService.authorizePin(request, user.id());
+        return ResponseEntity.ok(response);
+    }
+}
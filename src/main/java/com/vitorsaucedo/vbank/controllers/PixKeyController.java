@@ -3,7 +3,7 @@ package com.vitorsaucedo.vbank.controllers;
 import com.vitorsaucedo.vbank.config.GlobalExceptionHandler;
 import com.vitorsaucedo.vbank.dtos.PixKeyRequest;
 import com.vitorsaucedo.vbank.dtos.PixKeyResponse;
-import com.vitorsaucedo.vbank.entities.User;
+import com.vitorsaucedo.vbank.security.AuthenticatedUser;
 import com.vitorsaucedo.vbank.services.PixKeyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -157,8 +157,8 @@ public class PixKeyController {
                     )
             )
             @RequestBody @Valid PixKeyRequest request,
-            @Parameter(hidden = true) @AuthenticationPrincipal User user) {
-        PixKeyResponse response = pixKeyService.createKey(request, user.getId());
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser user) {
+        PixKeyResponse response = pixKeyService.createKey(request, user.accountId());
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
@@ -220,8 +220,8 @@ public class PixKeyController {
     })
     @SecurityRequirement(name = "bearerAuth")
     public ResponseEntity<List<PixKeyResponse>> listMyKeys(
-            @Parameter(hidden = true) @AuthenticationPrincipal User user) {
-        List<PixKeyResponse> keys = pixKeyService.listKeysByUserId(user.getId());
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser user) {
+        List<PixKeyResponse> keys = pixKeyService.listKeys(user.accountId());
         return ResponseEntity.ok(keys);
     }
 
@@ -297,8 +297,8 @@ public class PixKeyController {
     public ResponseEntity<Void> deleteKey(
             @Parameter(description = "ID da chave PIX a ser excluída", required = true, example = "123e4567-e89b-12d3-a456-426614174000")
             @PathVariable UUID keyId,
-            @Parameter(hidden = true) @AuthenticationPrincipal User user) {
-        pixKeyService.deleteKey(keyId, user.getId());
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser user) {
+        pixKeyService.deleteKey(keyId, user.id(), user.accountId());
         return ResponseEntity.noContent().build();
     }
 }
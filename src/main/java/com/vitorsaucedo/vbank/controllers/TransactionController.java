@@ -1,12 +1,12 @@
 package com.vitorsaucedo.vbank.controllers;
 
 import com.vitorsaucedo.vbank.config.GlobalExceptionHandler;
-import com.vitorsaucedo.vbank.dtos.StatementItemResponse;
-import com.vitorsaucedo.vbank.entities.User;
+import com.vitorsaucedo.vbank.dtos.StatementPageResponse;
+import com.vitorsaucedo.vbank.security.AuthenticatedUser;
+import com.vitorsaucedo.vbank.services.StatementExportService;
 import com.vitorsaucedo.vbank.services.TransactionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
-import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -15,13 +15,21 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/transactions")
@@ -30,11 +38,13 @@ import java.util.List;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final StatementExportService statementExportService;
 
     @GetMapping("/statement")
     @Operation(
             summary = "Obter extrato bancário",
-            description = "Retorna o histórico completo de transações (enviadas e recebidas) do usuário autenticado, ordenado da mais recente para a mais antiga"
+            description = "Retorna uma página do histórico de transações (enviadas e recebidas) do usuário autenticado, " +
+                    "ordenado da mais recente para a mais antiga. Para a próxima página, envie o nextCursor recebido."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -42,11 +52,12 @@ public class TransactionController {
                     description = "Extrato retornado com sucesso",
                     content = @Content(
                             mediaType = "application/json",
-                            array = @ArraySchema(schema = @Schema(implementation = StatementItemResponse.class)),
+                            schema = @Schema(implementation = StatementPageResponse.class),
                             examples = @ExampleObject(
                                     name = "Extrato com transações",
                                     value = """
-                                    [
+                                    {
+                                      "items": [
                                         {
                                             "id": "123e4567-e89b-12d3-a456-426614174001",
                                             "amount": 150.50,
@@ -65,7 +76,28 @@ public class TransactionController {
                                             "type": "PIX",
                                             "direction": "INBOUND"
                                         }
-                                    ]
+                                      ],
+                                      "nextCursor": "MjAyNS0wMS0yOFQxNDozMDowMHwxMjNlNDU2Ny1lODliLTEyZDMtYTQ1Ni00MjY2MTQxNzQwMDI"
+                                    }
+                                    """
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Cursor ou tamanho de página inválido (InvalidDataException)",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class),
+                            examples = @ExampleObject(
+                                    name = "Cursor inválido",
+                                    value = """
+                                    {
+                                        "status": 400,
+                                        "message": "Dados inválidos no campo 'cursor': Cursor de paginação inválido.",
+                                        "timestamp": "2025-01-29T10:15:30",
+                                        "errors": null
+                                    }
                                     """
                             )
                     )
@@ -110,9 +142,77 @@ public class TransactionController {
             )
     })
     @SecurityRequirement(name = "bearerAuth")
-    public ResponseEntity<List<StatementItemResponse>> getStatement(
-            @Parameter(hidden = true) @AuthenticationPrincipal User user) {
-        List<StatementItemResponse> statement = transactionService.getStatement(user.getId());
+    public ResponseEntity<StatementPageResponse> getStatement(
+            @Parameter(description = "Quantidade de itens por página (padrão 50, máximo 200)", example = "50")
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Cursor devolvido em nextCursor pela página anterior")
+            @RequestParam(required = false) String cursor,
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser user) {
+        StatementPageResponse statement = transactionService.getStatement(user.accountId(), limit, cursor);
         return ResponseEntity.ok(statement);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/statement/export")
+    @Operation(
+            summary = "Exportar extrato completo",
+            description = "Transmite todas as transações do período em ordem cronológica, em CSV ou NDJSON (uma transação JSON por linha). " +
+                    "As linhas são enviadas à medida que são lidas do banco, sem montar o extrato em memória. " +
+                    "Com gzip=true o arquivo é entregue compactado (.gz)."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Extrato sendo transmitido",
+                    content = {
+                            @Content(mediaType = "text/csv", examples = @ExampleObject(
+                                    name = "CSV",
+                                    value = """
+                                    id,date,type,direction,amount,otherPartyName,description
+                                    123e4567-e89b-12d3-a456-426614174002,2025-01-28T14:30:00,PIX,INBOUND,500.00,Pedro Santos,Transferência recebida
+                                    123e4567-e89b-12d3-a456-426614174001,2025-01-29T10:15:30,PIX,OUTBOUND,150.50,Maria Souza,Pagamento de aluguel
+                                    """
+                            )),
+                            @Content(mediaType = "application/x-ndjson")
+                    }
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Formato ou período inválido (InvalidDataException)",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class)
+                    )
+            )
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<StreamingResponseBody> exportStatement(
+            @Parameter(description = "Formato do arquivo: csv ou ndjson", example = "csv")
+            @RequestParam(defaultValue = "csv") String format,
+            @Parameter(description = "Data inicial, inclusive (padrão: início do histórico)", example = "2024-01-01")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Data final, inclusive (padrão: hoje)", example = "2024-12-31")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "Compacta o arquivo com gzip")
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser user) {
+        StatementExportService.Format exportFormat = StatementExportService.Format.parse(format);
+        statementExportService.validatePeriod(from, to);
+
+        UUID accountId = user.accountId();
+        StreamingResponseBody body = output -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(output, 64 * 1024);
+                statementExportService.export(accountId, exportFormat, from, to, compressed);
+                compressed.finish();
+            } else {
+                statementExportService.export(accountId, exportFormat, from, to, output);
+            }
+        };
+
+        String filename = "extrato." + exportFormat.extension() + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : exportFormat.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+}
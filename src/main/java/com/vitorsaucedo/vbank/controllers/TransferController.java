@@ -1,10 +1,13 @@
 package com.vitorsaucedo.vbank.controllers;
 
 import com.vitorsaucedo.vbank.config.GlobalExceptionHandler;
+import com.vitorsaucedo.vbank.dtos.PixBatchTransferRequest;
+import com.vitorsaucedo.vbank.dtos.PixBatchTransferResponse;
 import com.vitorsaucedo.vbank.dtos.PixKeyDetailsResponse;
 import com.vitorsaucedo.vbank.dtos.PixTransferRequest;
 import com.vitorsaucedo.vbank.dtos.TransactionResponse; // Importando o DTO de resposta
-import com.vitorsaucedo.vbank.entities.User;
+import com.vitorsaucedo.vbank.entities.enums.TransactionStatus;
+import com.vitorsaucedo.vbank.security.AuthenticatedUser;
 import com.vitorsaucedo.vbank.services.TransferService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -22,6 +25,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+import java.util.UUID;
+
 @RestController
 @RequestMapping("/transfers")
 @RequiredArgsConstructor
@@ -33,9 +39,17 @@ public class TransferController {
     @PostMapping("/pix")
     @Operation(
             summary = "Realizar transferência PIX",
-            description = "Executa uma transferência PIX da conta do usuário autenticado para a chave PIX informada"
+            description = "Executa uma transferência PIX da conta do usuário autenticado para a chave PIX informada. Com o motor assíncrono habilitado a transferência é aceita com status PENDING e liquidada em segundo plano; o resultado pode ser consultado em GET /transfers/{id}"
     )
     @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Transferência PIX aceita para liquidação assíncrona. O cabeçalho Location aponta para a consulta de status",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = TransactionResponse.class)
+                    )
+            ),
             @ApiResponse(
                     responseCode = "201",
                     description = "Transferência PIX realizada com sucesso",
@@ -51,6 +65,7 @@ public class TransferController {
                         "timestamp": "2025-01-29T10:15:30",
                         "description": "Pagamento de aluguel",
                         "status": "COMPLETED",
+                        "failureReason": null,
                         "payer": {
                             "name": "João da Silva Santos",
                             "document": "12345678900",
@@ -163,14 +178,34 @@ public class TransferController {
                     )
             ),
             @ApiResponse(
-                    responseCode = "422",
-                    description = "Saldo insuficiente (InsufficientBalanceException)",
+                    responseCode = "409",
+                    description = "Chave de idempotência já utilizada por outra transação (DuplicateResourceException)",
                     content = @Content(
                             mediaType = "application/json",
                             schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class),
                             examples = @ExampleObject(
-                                    name = "Saldo insuficiente",
+                                    name = "Chave de idempotência em uso",
                                     value = """
+                    {
+                        "status": 409,
+                        "message": "Esta chave de idempotência já foi utilizada em outra transação.",
+                        "timestamp": "2025-01-29T10:15:30",
+                        "errors": null
+                    }
+                    """
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "422",
+                    description = "Saldo insuficiente (InsufficientBalanceException) ou chave de idempotência reenviada com outros dados (IdempotencyKeyMismatchException)",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class),
+                            examples = {
+                                    @ExampleObject(
+                                            name = "Saldo insuficiente",
+                                            value = """
                     {
                         "status": 422,
                         "message": "Saldo insuficiente. Disponível: R$ 100,00, Necessário: R$ 150,50",
@@ -178,7 +213,19 @@ public class TransferController {
                         "errors": null
                     }
                     """
-                            )
+                                    ),
+                                    @ExampleObject(
+                                            name = "Chave de idempotência com outros dados",
+                                            value = """
+                    {
+                        "status": 422,
+                        "message": "Esta chave de idempotência já foi utilizada com dados de transferência diferentes.",
+                        "timestamp": "2025-01-29T10:15:30",
+                        "errors": null
+                    }
+                    """
+                                    )
+                            }
                     )
             )
     })
@@ -204,11 +251,147 @@ public class TransferController {
                     )
             )
             @RequestBody @Valid PixTransferRequest request,
-            @Parameter(hidden = true) @AuthenticationPrincipal User user) {
-        TransactionResponse response = transferService.executePix(request, user.getId());
+            @Parameter(
+                    description = "Chave de idempotência gerada pelo cliente. Reenvios com a mesma chave devolvem o resultado original sem executar uma nova transferência",
+                    example = "123e4567-e89b-12d3-a456-426614174005"
+            )
+            @RequestHeader(value = "Idempotency-Key", required = false) UUID idempotencyKey,
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser user) {
+        TransactionResponse response = transferService.executePix(request, user.id(), user.accountId(), idempotencyKey);
+        if (response.status() == TransactionStatus.PENDING) {
+            return ResponseEntity.accepted()
+                    .location(URI.create("/transfers/" + response.transactionId()))
+                    .body(response);
+        }
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @GetMapping("/{id}")
+    @Operation(
+            summary = "Consultar transferência",
+            description = "Retorna a transação e seu status atual (PENDING, COMPLETED ou FAILED). Disponível apenas para o pagador e o recebedor"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Transação encontrada",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = TransactionResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Transação não encontrada ou de outro usuário (ResourceNotFoundException)",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class)
+                    )
+            )
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<TransactionResponse> getTransfer(
+            @Parameter(description = "Identificador da transação", required = true, example = "123e4567-e89b-12d3-a456-426614174000")
+            @PathVariable UUID id,
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(transferService.getTransfer(id, user.accountId()));
+    }
+
+    @PostMapping("/pix/batch")
+    @Operation(
+            summary = "Realizar pagamento PIX em lote",
+            description = "Executa várias transferências PIX da conta do usuário autenticado com uma única autorização por PIN e um único débito. Cada item é processado de forma independente: itens com chave inexistente, conta de destino inativa ou sem saldo restante falham sem impedir os demais"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Lote processado. O resultado de cada item está em 'items'",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = PixBatchTransferResponse.class),
+                            examples = @ExampleObject(
+                                    name = "Lote com falha parcial",
+                                    value = """
+                    {
+                        "succeeded": 1,
+                        "failed": 1,
+                        "totalDebited": 150.50,
+                        "items": [
+                            {
+                                "index": 0,
+                                "targetKey": "fornecedor@email.com",
+                                "amount": 150.50,
+                                "status": "COMPLETED",
+                                "transactionId": "123e4567-e89b-12d3-a456-426614174000",
+                                "error": null
+                            },
+                            {
+                                "index": 1,
+                                "targetKey": "inexistente@email.com",
+                                "amount": 80.00,
+                                "status": "FAILED",
+                                "transactionId": null,
+                                "error": "Chave Pix não encontrado(a) com identificador: inexistente@email.com"
+                            }
+                        ]
+                    }
+                    """
+                            )
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Lote vazio ou acima do limite de itens (InvalidDataException)",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Usuário não autenticado ou PIN inválido (InvalidPinException)",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Conta inativa (InactiveAccountException)",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = GlobalExceptionHandler.ErrorResponse.class)
+                    )
+            )
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<PixBatchTransferResponse> executePixBatch(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "PIN de transação e lista de transferências do lote",
+                    required = true,
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = PixBatchTransferRequest.class),
+                            examples = @ExampleObject(
+                                    name = "Pagamento de fornecedores",
+                                    value = """
+                        {
+                            "transactionPin": "1234",
+                            "items": [
+                                { "targetKey": "fornecedor@email.com", "amount": 150.50, "description": "NF 1234" },
+                                { "targetKey": "11987654321", "amount": 80.00, "description": "NF 1235" }
+                            ]
+                        }
+                        """
+                            )
+                    )
+            )
+            @RequestBody @Valid PixBatchTransferRequest request,
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser user) {
+        PixBatchTransferResponse response = transferService.executePixBatch(request, user.id(), user.accountId());
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/check-receiver/{key}")
     @Operation(
             summary = "Consultar dados do destinatário",
@@ -1,9 +1,8 @@
 package com.vitorsaucedo.vbank.dtos;
 
+import com.vitorsaucedo.vbank.money.Money;
 import io.swagger.v3.oas.annotations.media.Schema;
 
-import java.math.BigDecimal;
-
 @Schema(description = "Dados consolidados do dashboard da conta bancária")
 public record AccountDashboardResponse(
 
@@ -17,5 +16,8 @@ public record AccountDashboardResponse(
         String agency,
 
         @Schema(description = "Saldo atual da conta em reais", example = "1250.75")
-        BigDecimal balance
+        Money balance,
+
+        @Schema(description = "Entradas e saídas de hoje, dos últimos 7 dias e do mês corrente")
+        AccountStatsResponse stats
 ) {}
@@ -0,0 +1,16 @@
+package com.vitorsaucedo.vbank.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Estatísticas de movimentação da conta")
+public record AccountStatsResponse(
+
+        @Schema(description = "Hoje")
+        PeriodStatsResponse today,
+
+        @Schema(description = "Últimos 7 dias, incluindo hoje")
+        PeriodStatsResponse last7Days,
+
+        @Schema(description = "Mês corrente até hoje")
+        PeriodStatsResponse currentMonth
+) {}
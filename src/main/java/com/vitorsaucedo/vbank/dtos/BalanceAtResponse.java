@@ -0,0 +1,16 @@
+package com.vitorsaucedo.vbank.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Schema(description = "Saldo da conta ao final de um dia")
+public record BalanceAtResponse(
+
+        @Schema(description = "Dia consultado", example = "2025-03-31")
+        LocalDate date,
+
+        @Schema(description = "Saldo ao final do dia, considerando todas as transações concluídas até então", example = "1250.75")
+        BigDecimal balance
+) {}
@@ -0,0 +1,21 @@
+package com.vitorsaucedo.vbank.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+
+@Schema(description = "Totais de entrada e saída da conta em um período")
+public record PeriodStatsResponse(
+
+        @Schema(description = "Valor total recebido", example = "750.00")
+        BigDecimal inboundAmount,
+
+        @Schema(description = "Quantidade de transações recebidas", example = "3")
+        long inboundCount,
+
+        @Schema(description = "Valor total enviado", example = "150.50")
+        BigDecimal outboundAmount,
+
+        @Schema(description = "Quantidade de transações enviadas", example = "2")
+        long outboundCount
+) {}
@@ -0,0 +1,39 @@
+package com.vitorsaucedo.vbank.dtos;
+
+import com.vitorsaucedo.vbank.money.Money;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+@Schema(description = "Requisição para autorizar transferências com o PIN de transação (step-up)")
+public record PinAuthorizationRequest(
+
+        @Schema(description = "PIN de transação do usuário",
+                example = "1234",
+                required = true,
+                minLength = 4,
+                maxLength = 4,
+                accessMode = Schema.AccessMode.WRITE_ONLY)
+        @NotBlank(message = "O PIN de transação é obrigatório")
+        @Size(min = 4, max = 4)
+        String transactionPin,
+
+        @Schema(description = "Valor total que o token pode movimentar, somando todas as transferências",
+                example = "500.00",
+                required = true,
+                minimum = "0.01")
+        @NotNull(message = "O valor máximo é obrigatório")
+        Money maxAmount,
+
+        @Schema(description = "Quantidade de transferências que o token pode autorizar",
+                example = "5",
+                required = true,
+                minimum = "1")
+        @NotNull(message = "A quantidade de usos é obrigatória")
+        @Positive(message = "A quantidade de usos deve ser maior que zero")
+        @Max(value = 100, message = "A quantidade de usos pode ser no máximo 100")
+        Integer maxUses
+) {}
@@ -0,0 +1,21 @@
+package com.vitorsaucedo.vbank.dtos;
+
+import com.vitorsaucedo.vbank.money.Money;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Token de autorização de transação emitido após a conferência do PIN")
+public record PinAuthorizationResponse(
+
+        @Schema(description = "Token a ser enviado em 'authorizationToken' no lugar do PIN",
+                example = "NWY0ZGMxYjItYjE3Zi00...Q.f3k9a8Xl2...")
+        String token,
+
+        @Schema(description = "Tempo de validade do token em segundos", example = "300")
+        Long expiresIn,
+
+        @Schema(description = "Valor total autorizado", example = "500.00")
+        Money maxAmount,
+
+        @Schema(description = "Quantidade de transferências autorizadas", example = "5")
+        Integer maxUses
+) {}
@@ -0,0 +1,23 @@
+package com.vitorsaucedo.vbank.dtos;
+
+import com.vitorsaucedo.vbank.money.Money;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+@Schema(description = "Item de um pagamento PIX em lote")
+public record PixBatchTransferItem(
+
+        @Schema(description = "Chave PIX do destinatário", example = "fornecedor@email.com", required = true)
+        @NotBlank(message = "A chave Pix de destino é obrigatória")
+        String targetKey,
+
+        @Schema(description = "Valor da transferência em reais", example = "150.50", required = true, minimum = "0.01")
+        @NotNull(message = "O valor é obrigatório")
+        Money amount,
+
+        @Schema(description = "Descrição ou observação sobre a transferência", example = "NF 1234", maxLength = 255, nullable = true)
+        @Size(max = 255, message = "A descrição pode ter no máximo 255 caracteres")
+        String description
+) {}
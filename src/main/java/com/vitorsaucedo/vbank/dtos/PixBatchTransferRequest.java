@@ -0,0 +1,31 @@
+package com.vitorsaucedo.vbank.dtos;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+@Schema(description = "Requisição para pagamento PIX em lote (um pagador, vários recebedores)")
+public record PixBatchTransferRequest(
+
+        @Schema(description = "PIN de transação para autorizar o lote inteiro",
+                example = "1234",
+                required = true,
+                minLength = 4,
+                maxLength = 4,
+                accessMode = Schema.AccessMode.WRITE_ONLY)
+        @NotBlank(message = "O PIN de transação é necessário para autorizar")
+        @Size(min = 4, max = 4)
+        String transactionPin,
+
+        @ArraySchema(
+                schema = @Schema(implementation = PixBatchTransferItem.class),
+                arraySchema = @Schema(description = "Transferências do lote, processadas na ordem informada")
+        )
+        @NotEmpty(message = "O lote deve conter ao menos uma transferência")
+        List<@Valid PixBatchTransferItem> items
+) {}
@@ -0,0 +1,48 @@
+package com.vitorsaucedo.vbank.dtos;
+
+import com.vitorsaucedo.vbank.entities.enums.TransactionStatus;
+import com.vitorsaucedo.vbank.money.Money;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.UUID;
+
+@Schema(description = "Resultado de um pagamento PIX em lote, com o desfecho de cada item")
+public record PixBatchTransferResponse(
+
+        @Schema(description = "Quantidade de itens concluídos", example = "98")
+        int succeeded,
+
+        @Schema(description = "Quantidade de itens que falharam", example = "2")
+        int failed,
+
+        @Schema(description = "Valor total debitado da conta pagadora", example = "15250.00")
+        Money totalDebited,
+
+        @Schema(description = "Resultado de cada item, na mesma ordem da requisição")
+        List<ItemResult> items
+) {
+    @Schema(description = "Desfecho de um item do lote")
+    public record ItemResult(
+
+            @Schema(description = "Posição do item na requisição (iniciando em 0)", example = "0")
+            int index,
+
+            @Schema(description = "Chave PIX do destinatário", example = "fornecedor@email.com")
+            String targetKey,
+
+            @Schema(description = "Valor do item", example = "150.50")
+            Money amount,
+
+            @Schema(description = "COMPLETED quando a transferência foi realizada, FAILED caso contrário",
+                    example = "COMPLETED",
+                    implementation = TransactionStatus.class)
+            TransactionStatus status,
+
+            @Schema(description = "Identificador da transação criada", example = "123e4567-e89b-12d3-a456-426614174000", nullable = true)
+            UUID transactionId,
+
+            @Schema(description = "Motivo da falha", example = "Chave Pix não encontrado(a) com identificador: inexistente@email.com", nullable = true)
+            String error
+    ) {}
+}
@@ -1,11 +1,10 @@
 package com.vitorsaucedo.vbank.dtos;
 
+import com.vitorsaucedo.vbank.money.Money;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
-import java.math.BigDecimal;
 
 @Schema(description = "Requisição para realizar transferência PIX")
 public record PixTransferRequest(
@@ -21,19 +20,23 @@ public record PixTransferRequest(
                 required = true,
                 minimum = "0.01")
         @NotNull(message = "O valor é obrigatório")
-        @Positive(message = "O valor da transferência deve ser maior que zero")
-        BigDecimal amount,
+        Money amount,
 
-        @Schema(description = "PIN de transação para autorizar a operação",
+        @Schema(description = "PIN de transação para autorizar a operação. Obrigatório quando 'authorizationToken' não é informado",
                 example = "1234",
-                required = true,
                 minLength = 4,
                 maxLength = 4,
+                nullable = true,
                 accessMode = Schema.AccessMode.WRITE_ONLY)
-        @NotBlank(message = "O PIN de transação é necessário para autorizar")
         @Size(min = 4, max = 4)
         String transactionPin,
 
+        @Schema(description = "Token de autorização obtido em POST /auth/pin, usado no lugar do PIN",
+                example = "NWY0ZGMxYjItYjE3Zi00...Q.f3k9a8Xl2...",
+                nullable = true,
+                accessMode = Schema.AccessMode.WRITE_ONLY)
+        String authorizationToken,
+
         @Schema(description = "Descrição ou observação sobre a transferência",
                 example = "Pagamento de aluguel - Janeiro/2025",
                 maxLength = 255,
@@ -0,0 +1,17 @@
+package com.vitorsaucedo.vbank.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Página do extrato bancário, da transação mais recente para a mais antiga")
+public record StatementPageResponse(
+
+        @Schema(description = "Itens da página")
+        List<StatementItemResponse> items,
+
+        @Schema(description = "Cursor opaco para buscar a próxima página; nulo quando não há mais itens",
+                example = "MjAyNS0wMS0yOFQxNDozMDowMHwxMjNlNDU2Ny1lODliLTEyZDMtYTQ1Ni00MjY2MTQxNzQwMDI",
+                nullable = true)
+        String nextCursor
+) {}
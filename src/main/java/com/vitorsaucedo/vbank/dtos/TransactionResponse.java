@@ -1,20 +1,20 @@
 package com.vitorsaucedo.vbank.dtos;
 
 import com.vitorsaucedo.vbank.entities.enums.TransactionStatus;
+import com.vitorsaucedo.vbank.money.Money;
 import io.swagger.v3.oas.annotations.media.Schema;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
-@Schema(description = "Resposta detalhada de uma transação concluída")
+@Schema(description = "Resposta detalhada de uma transação")
 public record TransactionResponse(
 
         @Schema(description = "Identificador único da transação", example = "123e4567-e89b-12d3-a456-426614174000")
         UUID transactionId,
 
         @Schema(description = "Valor da transação em reais", example = "150.50", minimum = "0.01")
-        BigDecimal amount,
+        Money amount,
 
         @Schema(description = "Data e hora em que a transação foi processada", example = "2025-01-29T10:15:30")
         LocalDateTime timestamp,
@@ -29,6 +29,9 @@ public record TransactionResponse(
         )
         TransactionStatus status,
 
+        @Schema(description = "Motivo da falha, preenchido apenas quando o status é FAILED", example = "Saldo insuficiente. Disponível: R$ 100,00, Necessário: R$ 150,50", nullable = true)
+        String failureReason,
+
         @Schema(description = "Informações completas do pagador (quem enviou o dinheiro)")
         AccountInfo payer,
 
@@ -0,0 +1,65 @@
+package com.vitorsaucedo.vbank.entities;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Totais de entrada e saída de uma conta em um dia.
+ *
+ * Incrementados na mesma transação que liquida cada transferência, para que as estatísticas
+ * do dashboard sejam a soma de no máximo um mês de linhas em vez de uma agregação sobre as
+ * transações.
+ */
+@Entity
+@IdClass(AccountDailyStats.Key.class)
+@Table(name = "tb_account_daily_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = {"accountId", "day"})
+@Schema(description = "Totais diários de movimentação de uma conta")
+public class AccountDailyStats {
+
+    @Id
+    @Column(nullable = false, updatable = false)
+    @Schema(description = "Conta dos totais", example = "123e4567-e89b-12d3-a456-426614174002", required = true)
+    private UUID accountId;
+
+    @Id
+    @Column(name = "stats_day", nullable = false, updatable = false)
+    @Schema(description = "Dia das transações", example = "2025-01-29", required = true)
+    private LocalDate day;
+
+    @Column(nullable = false)
+    @Schema(description = "Quantidade de transações recebidas", example = "3", required = true)
+    private long inboundCount;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    @Schema(description = "Valor total recebido", example = "750.00", required = true)
+    private BigDecimal inboundAmount;
+
+    @Column(nullable = false)
+    @Schema(description = "Quantidade de transações enviadas", example = "2", required = true)
+    private long outboundCount;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    @Schema(description = "Valor total enviado", example = "150.50", required = true)
+    private BigDecimal outboundAmount;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private UUID accountId;
+        private LocalDate day;
+    }
+}
@@ -0,0 +1,74 @@
+package com.vitorsaucedo.vbank.entities;
+
+import com.vitorsaucedo.vbank.entities.enums.BalanceCheckpointPeriod;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Saldo de uma conta em uma virada de dia ou de mês: a soma de todas as linhas de extrato
+ * criadas antes de {@code asOf}.
+ *
+ * Gerado pelo {@code BalanceCheckpointService} apenas para os dias em que a conta teve
+ * movimentação, então o saldo em qualquer instante é o ponto mais próximo anterior somado
+ * às linhas de no máximo um dia (ou um mês, depois da compactação).
+ */
+@Entity
+@Immutable
+@IdClass(BalanceCheckpoint.Key.class)
+@Table(name = "tb_balance_checkpoints")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = {"accountId", "asOf"})
+@Schema(description = "Saldo registrado de uma conta em uma virada de dia ou de mês")
+public class BalanceCheckpoint implements Persistable<BalanceCheckpoint.Key> {
+
+    @Id
+    @Column(nullable = false, updatable = false)
+    @Schema(description = "Conta do saldo", example = "123e4567-e89b-12d3-a456-426614174002", required = true)
+    private UUID accountId;
+
+    @Id
+    @Column(nullable = false, updatable = false)
+    @Schema(description = "Instante da fronteira; o saldo considera tudo o que foi criado antes dele", example = "2025-02-01T00:00:00", required = true)
+    private LocalDateTime asOf;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    @Schema(description = "Tipo da fronteira", example = "DAY", required = true, implementation = BalanceCheckpointPeriod.class)
+    private BalanceCheckpointPeriod period;
+
+    @Column(nullable = false, updatable = false, precision = 19, scale = 2)
+    @Schema(description = "Saldo da conta no instante da fronteira", example = "1250.75", required = true)
+    private BigDecimal balance;
+
+    @Override
+    public Key getId() {
+        return new Key(accountId, asOf);
+    }
+
+    // Pontos só são inseridos; sem isto o save faria um SELECT por linha para decidir entre persist e merge
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private UUID accountId;
+        private LocalDateTime asOf;
+    }
+}
@@ -1,10 +1,12 @@
 package com.vitorsaucedo.vbank.entities;
 
 import com.vitorsaucedo.vbank.entities.enums.AccountStatus;
+import com.vitorsaucedo.vbank.exceptions.InsufficientBalanceException;
+import com.vitorsaucedo.vbank.money.Money;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import lombok.*;
-import java.math.BigDecimal;
+import org.hibernate.annotations.ColumnDefault;
 import java.util.UUID;
 
 @Entity
@@ -32,7 +34,7 @@ public class BankAccount {
 
     @Column(nullable = false)
     @Schema(description = "Saldo atual da conta", example = "1500.00", required = true, defaultValue = "0.00")
-    private BigDecimal balance = BigDecimal.ZERO;
+    private Money balance = Money.ZERO;
 
     @OneToOne
     @JoinColumn(name = "user_id", referencedColumnName = "id")
@@ -48,21 +50,39 @@ public class BankAccount {
     )
     private AccountStatus status = AccountStatus.ACTIVE;
 
+    @Version
+    @Schema(hidden = true)
+    private Long version;
+
+    // Incrementado a cada mudança de status; tokens emitidos com versão anterior deixam de valer
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    @Schema(hidden = true)
+    private Long statusVersion = 0L;
+
     // Métodos de domínio para garantir consistência
-    public void deposit(BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+    public void deposit(Money amount) {
+        if (!amount.isPositive()) {
             throw new IllegalArgumentException("O valor do depósito deve ser positivo.");
         }
-        this.balance = this.balance.add(amount);
+        this.balance = this.balance.plus(amount);
     }
 
-    public void withdraw(BigDecimal amount) {
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+    public void withdraw(Money amount) {
+        if (!amount.isPositive()) {
             throw new IllegalArgumentException("O valor do saque deve ser positivo.");
         }
-        if (this.balance.compareTo(amount) < 0) {
-            throw new RuntimeException("Saldo insuficiente.");
+        if (this.balance.isLessThan(amount)) {
+            throw new InsufficientBalanceException(this.balance, amount);
+        }
+        this.balance = this.balance.minus(amount);
+    }
+
+    public void changeStatus(AccountStatus newStatus) {
+        if (this.status == newStatus) {
+            return;
         }
-        this.balance = this.balance.subtract(amount);
+        this.status = newStatus;
+        this.statusVersion = this.statusVersion + 1;
     }
 }
@@ -0,0 +1,51 @@
+package com.vitorsaucedo.vbank.entities;
+
+import com.vitorsaucedo.vbank.entities.enums.LedgerEntryType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Immutable
+@Table(name = "tb_ledger_entries")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "id")
+@Schema(description = "Lançamento do livro razão (partidas dobradas). Cada transação gera um débito e um crédito e nenhum lançamento é alterado depois de gravado")
+public class LedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Schema(description = "Identificador único do lançamento", example = "123e4567-e89b-12d3-a456-426614174007")
+    private UUID id;
+
+    @Column(updatable = false)
+    @Schema(description = "Transação que originou o lançamento (nula no saldo de abertura)", example = "123e4567-e89b-12d3-a456-426614174004")
+    private UUID transactionId;
+
+    @Column(nullable = false, updatable = false)
+    @Schema(description = "Conta afetada pelo lançamento", example = "123e4567-e89b-12d3-a456-426614174002", required = true)
+    private UUID accountId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    @Schema(description = "Natureza do lançamento", example = "DEBIT", required = true, implementation = LedgerEntryType.class)
+    private LedgerEntryType entryType;
+
+    @Column(nullable = false, updatable = false, precision = 19, scale = 2)
+    @Schema(description = "Valor do lançamento (sempre positivo, exceto no saldo de abertura)", example = "250.50", required = true)
+    private BigDecimal amount;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    @Schema(description = "Data e hora do lançamento", example = "2025-01-29T10:15:30", accessMode = Schema.AccessMode.READ_ONLY)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,44 @@
+package com.vitorsaucedo.vbank.entities;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "tb_pending_credits")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "id")
+@Schema(description = "Crédito já lançado no livro razão e ainda não incorporado ao saldo projetado da conta")
+public class PendingCredit {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Schema(description = "Identificador único do crédito pendente", example = "123e4567-e89b-12d3-a456-426614174008")
+    private UUID id;
+
+    // Sem chave estrangeira de propósito: o crédito não pode disputar lock com a linha da conta
+    @Column(nullable = false)
+    @Schema(description = "Conta que receberá o crédito", example = "123e4567-e89b-12d3-a456-426614174002", required = true)
+    private UUID accountId;
+
+    @Column(nullable = false)
+    @Schema(description = "Transação que originou o crédito", example = "123e4567-e89b-12d3-a456-426614174004", required = true)
+    private UUID transactionId;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    @Schema(description = "Valor do crédito", example = "250.50", required = true)
+    private BigDecimal amount;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    @Schema(description = "Data e hora do crédito", example = "2025-01-29T10:15:30", accessMode = Schema.AccessMode.READ_ONLY)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,41 @@
+package com.vitorsaucedo.vbank.entities;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Immutable
+@Table(name = "tb_pix_key_deletions")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "id")
+@Schema(description = "Registro da exclusão de uma chave PIX, lido pelos índices de chaves das demais instâncias")
+public class PixKeyDeletion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Schema(description = "Identificador único do registro", example = "123e4567-e89b-12d3-a456-426614174009")
+    private UUID id;
+
+    @Column(nullable = false, updatable = false)
+    @Schema(description = "Valor da chave excluída", example = "usuario@email.com", required = true)
+    private String keyValue;
+
+    // Sem chave estrangeira: o registro sobrevive ao encerramento da conta
+    @Column(nullable = false, updatable = false)
+    @Schema(description = "Conta à qual a chave pertencia", example = "123e4567-e89b-12d3-a456-426614174002", required = true)
+    private UUID accountId;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    @Schema(description = "Data e hora da exclusão", example = "2025-01-29T10:15:30", accessMode = Schema.AccessMode.READ_ONLY)
+    private LocalDateTime deletedAt;
+}
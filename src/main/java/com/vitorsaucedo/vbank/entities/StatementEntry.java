@@ -0,0 +1,92 @@
+package com.vitorsaucedo.vbank.entities;
+
+import com.vitorsaucedo.vbank.entities.enums.TransactionDirection;
+import com.vitorsaucedo.vbank.entities.enums.TransactionType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Linha do extrato de uma conta, já com direção e nome da outra parte.
+ *
+ * Modelo de leitura derivado de {@code tb_transactions}: cada transação concluída gera uma
+ * linha para o pagador e outra para o recebedor, gravadas na mesma transação da liquidação.
+ * Pode ser regenerado a qualquer momento pelo {@code StatementRebuildCommand}.
+ */
+@Entity
+@Immutable
+@IdClass(StatementEntry.Key.class)
+@Table(name = "tb_statement_entries")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = {"accountId", "transactionId"})
+@Schema(description = "Item do extrato de uma conta (modelo de leitura derivado das transações)")
+public class StatementEntry implements Persistable<StatementEntry.Key> {
+
+    @Id
+    @Column(nullable = false, updatable = false)
+    @Schema(description = "Conta dona do extrato", example = "123e4567-e89b-12d3-a456-426614174002", required = true)
+    private UUID accountId;
+
+    @Id
+    @Column(nullable = false, updatable = false)
+    @Schema(description = "Transação de origem", example = "123e4567-e89b-12d3-a456-426614174004", required = true)
+    private UUID transactionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    @Schema(description = "Direção da transação em relação à conta", example = "OUTBOUND", required = true, implementation = TransactionDirection.class)
+    private TransactionDirection direction;
+
+    @Column(nullable = false, updatable = false)
+    @Schema(description = "Nome da outra parte da transação", example = "Maria Souza", required = true)
+    private String counterpartyName;
+
+    @Column(nullable = false, updatable = false, precision = 19, scale = 2)
+    @Schema(description = "Valor da transação", example = "150.50", required = true)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    @Schema(description = "Tipo da transação", example = "PIX", required = true, implementation = TransactionType.class)
+    private TransactionType type;
+
+    @Column(updatable = false)
+    @Schema(description = "Descrição da transação", example = "Pagamento de aluguel")
+    private String description;
+
+    // Mesmo instante da transação, para que a ordem e o cursor do extrato não mudem com a origem dos dados
+    @Column(nullable = false, updatable = false)
+    @Schema(description = "Data e hora da transação", example = "2025-01-29T10:15:30", required = true)
+    private LocalDateTime createdAt;
+
+    @Override
+    public Key getId() {
+        return new Key(accountId, transactionId);
+    }
+
+    // Linhas só são inseridas; sem isto o save faria um SELECT por linha para decidir entre persist e merge
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private UUID accountId;
+        private UUID transactionId;
+    }
+}
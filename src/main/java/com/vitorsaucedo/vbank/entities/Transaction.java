@@ -2,13 +2,13 @@ package com.vitorsaucedo.vbank.entities;
 
 import com.vitorsaucedo.vbank.entities.enums.TransactionStatus;
 import com.vitorsaucedo.vbank.entities.enums.TransactionType;
+import com.vitorsaucedo.vbank.money.Money;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -40,7 +40,7 @@ public class Transaction {
     @NotNull
     @Column(nullable = false, precision = 19, scale = 2)
     @Schema(description = "Valor da transação", example = "250.50", required = true)
-    private BigDecimal amount;
+    private Money amount;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
@@ -56,9 +56,16 @@ public class Transaction {
     @Schema(description = "Chave de idempotência para evitar transações duplicadas", example = "123e4567-e89b-12d3-a456-426614174005")
     private UUID idempotencyKey;
 
+    @Column(length = 64)
+    @Schema(description = "Hash SHA-256 dos dados da requisição, conferido nos reenvios com a mesma chave de idempotência", accessMode = Schema.AccessMode.READ_ONLY)
+    private String requestHash;
+
     @Schema(description = "Descrição ou observação da transação", example = "Pagamento de aluguel")
     private String description;
 
+    @Schema(description = "Motivo da falha quando a liquidação assíncrona não pôde ser concluída", example = "Saldo insuficiente. Disponível: R$ 100,00, Necessário: R$ 150,50")
+    private String failureReason;
+
     @CreationTimestamp
     @Schema(description = "Data e hora de criação da transação", example = "2025-01-29T10:15:30", accessMode = Schema.AccessMode.READ_ONLY)
     private LocalDateTime createdAt;
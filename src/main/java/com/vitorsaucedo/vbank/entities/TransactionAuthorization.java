@@ -0,0 +1,41 @@
+package com.vitorsaucedo.vbank.entities;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "tb_transaction_authorizations")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "id")
+@Schema(description = "Saldo de valor e de usos de um token de autorização de transação (step-up)")
+public class TransactionAuthorization {
+
+    // O id do token, gerado na emissão
+    @Id
+    @Schema(description = "Identificador do token", example = "123e4567-e89b-12d3-a456-426614174010")
+    private UUID id;
+
+    @Column(nullable = false, updatable = false)
+    @Schema(description = "Usuário que informou o PIN", example = "123e4567-e89b-12d3-a456-426614174001", required = true)
+    private UUID userId;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    @Schema(description = "Valor que ainda pode ser transferido com o token", example = "500.00", required = true)
+    private BigDecimal remaining;
+
+    @Column(nullable = false)
+    @Schema(description = "Transferências que ainda podem ser feitas com o token", example = "3", required = true)
+    private int uses;
+
+    @Column(nullable = false, updatable = false)
+    @Schema(description = "Data e hora em que o token expira", example = "2025-01-29T10:20:30", required = true)
+    private LocalDateTime expiresAt;
+}
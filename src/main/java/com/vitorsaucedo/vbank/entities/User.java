@@ -1,5 +1,6 @@
 package com.vitorsaucedo.vbank.entities;
 
+import com.vitorsaucedo.vbank.entities.enums.AccountStatus;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
@@ -87,7 +88,7 @@ public class User implements UserDetails {
     @Override
     @Schema(hidden = true)
     public boolean isAccountNonLocked() {
-        return true;
+        return account == null || account.getStatus() != AccountStatus.BLOCKED;
     }
 
     @Override
@@ -99,6 +100,6 @@ public class User implements UserDetails {
     @Override
     @Schema(hidden = true)
     public boolean isEnabled() {
-        return true;
+        return account == null || account.getStatus() != AccountStatus.CLOSED;
     }
 }
\ No newline at end of file
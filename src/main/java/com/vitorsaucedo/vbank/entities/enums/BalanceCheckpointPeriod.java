@@ -0,0 +1,13 @@
+package com.vitorsaucedo.vbank.entities.enums;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Fronteira em que o saldo de uma conta foi registrado")
+public enum BalanceCheckpointPeriod {
+
+    @Schema(description = "Virada de um dia em que a conta teve movimentação")
+    DAY,
+
+    @Schema(description = "Virada de mês; mantido depois que os pontos diários do mês são compactados")
+    MONTH
+}
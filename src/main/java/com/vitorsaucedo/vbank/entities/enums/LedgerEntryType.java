@@ -0,0 +1,16 @@
+package com.vitorsaucedo.vbank.entities.enums;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Natureza de um lançamento no livro razão")
+public enum LedgerEntryType {
+
+    @Schema(description = "Lançamento a débito - dinheiro saindo da conta")
+    DEBIT,
+
+    @Schema(description = "Lançamento a crédito - dinheiro entrando na conta")
+    CREDIT,
+
+    @Schema(description = "Saldo de abertura - saldo da conta anterior ao diário, sem transação associada")
+    OPENING
+}
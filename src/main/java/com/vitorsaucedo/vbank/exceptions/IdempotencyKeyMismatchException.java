@@ -0,0 +1,17 @@
+package com.vitorsaucedo.vbank.exceptions;
+
+import com.vitorsaucedo.vbank.config.GlobalExceptionHandler;
+
+/**
+ * Exceção lançada quando uma chave de idempotência é reenviada com dados de
+ * transferência diferentes dos da requisição original.
+ *
+ * @apiNote Retorna HTTP 422 (Unprocessable Entity)
+ * @see GlobalExceptionHandler#handleIdempotencyKeyMismatchException(IdempotencyKeyMismatchException)
+ */
+public class IdempotencyKeyMismatchException extends VbankException {
+
+    public IdempotencyKeyMismatchException() {
+        super("Esta chave de idempotência já foi utilizada com dados de transferência diferentes.");
+    }
+}
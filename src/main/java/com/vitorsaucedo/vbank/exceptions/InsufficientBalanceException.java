@@ -1,8 +1,7 @@
 package com.vitorsaucedo.vbank.exceptions;
 
 import com.vitorsaucedo.vbank.config.GlobalExceptionHandler;
-
-import java.math.BigDecimal;
+import com.vitorsaucedo.vbank.money.Money;
 
 /**
  * Exceção lançada quando não há saldo suficiente para realizar uma operação.
@@ -22,9 +21,8 @@ public class InsufficientBalanceException extends VbankException {
      * @param balance Saldo disponível na conta
      * @param required Saldo necessário para a operação
      */
-    public InsufficientBalanceException(BigDecimal balance, BigDecimal required) {
-        super(String.format("Saldo insuficiente. Disponível: R$ %.2f, Necessário: R$ %.2f",
-                balance, required));
+    public InsufficientBalanceException(Money balance, Money required) {
+        super("Saldo insuficiente. Disponível: R$ " + balance + ", Necessário: R$ " + required);
     }
 
     public InsufficientBalanceException(String message) {
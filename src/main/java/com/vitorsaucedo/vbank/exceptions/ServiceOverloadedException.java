@@ -0,0 +1,27 @@
+package com.vitorsaucedo.vbank.exceptions;
+
+import com.vitorsaucedo.vbank.config.GlobalExceptionHandler;
+
+/**
+ * Exceção lançada quando um recurso limitado do servidor está saturado e a
+ * requisição é recusada imediatamente em vez de esperar na fila.
+ *
+ * Exemplos:
+ * - Fila de verificação de senha/PIN cheia durante um pico de logins
+ *
+ * @apiNote Retorna HTTP 503 (Service Unavailable) com o cabeçalho Retry-After
+ * @see GlobalExceptionHandler#handleServiceOverloadedException(ServiceOverloadedException)
+ */
+public class ServiceOverloadedException extends VbankException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(long retryAfterSeconds) {
+        super("Serviço temporariamente sobrecarregado. Tente novamente em instantes.");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,25 @@
+package com.vitorsaucedo.vbank.exceptions;
+
+import com.vitorsaucedo.vbank.config.GlobalExceptionHandler;
+
+/**
+ * Exceção lançada quando uma transferência não consegue obter acesso exclusivo
+ * às contas envolvidas (disputa de concorrência não resolvida).
+ *
+ * Exemplos:
+ * - Tentativas de retry otimista esgotadas
+ * - Tempo de espera por lock esgotado
+ *
+ * @apiNote Retorna HTTP 409 (Conflict)
+ * @see GlobalExceptionHandler#handleTransferConflictException(TransferConflictException)
+ */
+public class TransferConflictException extends VbankException {
+
+    public TransferConflictException() {
+        super("A conta está processando outra operação no momento. Tente novamente em instantes.");
+    }
+
+    public TransferConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -16,6 +16,8 @@ import com.vitorsaucedo.vbank.config.GlobalExceptionHandler;
  * @see InvalidDataException
  * @see InvalidPinException
  * @see ResourceNotFoundException
+ * @see ServiceOverloadedException
+ * @see TransferConflictException
  */
 public abstract class VbankException extends RuntimeException {
 
@@ -1,18 +1,21 @@
 package com.vitorsaucedo.vbank.mappers;
 
 import com.vitorsaucedo.vbank.dtos.AccountDashboardResponse;
+import com.vitorsaucedo.vbank.dtos.AccountStatsResponse;
 import com.vitorsaucedo.vbank.entities.BankAccount;
+import com.vitorsaucedo.vbank.money.Money;
 import org.springframework.stereotype.Component;
 
 @Component
 public class BankAccountMapper {
 
-    public AccountDashboardResponse toDashboardResponse(BankAccount account) {
+    public AccountDashboardResponse toDashboardResponse(BankAccount account, Money availableBalance, AccountStatsResponse stats) {
         return new AccountDashboardResponse(
                 account.getUser().getFullName(),
                 account.getAccountNumber(),
                 account.getAgency(),
-                account.getBalance()
+                availableBalance,
+                stats
         );
     }
 }
@@ -2,8 +2,10 @@ package com.vitorsaucedo.vbank.mappers;
 
 import com.vitorsaucedo.vbank.dtos.PixKeyDetailsResponse;
 import com.vitorsaucedo.vbank.dtos.PixKeyResponse;
+import com.vitorsaucedo.vbank.entities.BankAccount;
 import com.vitorsaucedo.vbank.entities.PixKey;
 import com.vitorsaucedo.vbank.entities.User;
+import com.vitorsaucedo.vbank.pix.PixMasks;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -18,22 +20,24 @@ public class PixKeyMapper {
     }
 
     public PixKeyDetailsResponse toDetailsResponse(PixKey pixKey) {
-        User user = pixKey.getAccount().getUser();
+        return toDetailsResponse(pixKey.getAccount());
+    }
+
+    public PixKeyDetailsResponse toDetailsResponse(BankAccount account) {
+        User user = account.getUser();
+
+        // Um único buffer para os dois campos mascarados
+        StringBuilder buffer = new StringBuilder(Math.max(user.getFullName().length(), 24));
+        String maskedName = PixMasks.maskName(user.getFullName(), buffer).toString();
+        buffer.setLength(0);
+        String maskedDocument = PixMasks.maskDocument(user.getDocument(), buffer).toString();
 
         return new PixKeyDetailsResponse(
-                maskName(user.getFullName()),
-                maskDocument(user.getDocument()),
+                maskedName,
+                maskedDocument,
                 "Vbank",
-                pixKey.getAccount().getAccountNumber(),
-                pixKey.getAccount().getAgency()
+                account.getAccountNumber(),
+                account.getAgency()
         );
     }
-
-    private String maskName(String name) {
-        return name.replaceAll("(?<=.{2}).(?=.* )|(?<=.{2}).(?=.{2}$)", "*");
-    }
-
-    private String maskDocument(String doc) {
-        return doc.replaceAll("(\\d{3})\\d{5,8}(\\d{2})", "$1.***.***-$2");
-    }
 }
@@ -1,29 +1,56 @@
 package com.vitorsaucedo.vbank.mappers;
 
 import com.vitorsaucedo.vbank.dtos.PixTransferRequest;
-import com.vitorsaucedo.vbank.dtos.StatementItemResponse;
 import com.vitorsaucedo.vbank.dtos.TransactionResponse;
 import com.vitorsaucedo.vbank.entities.BankAccount;
 import com.vitorsaucedo.vbank.entities.Transaction;
-import com.vitorsaucedo.vbank.entities.enums.TransactionDirection;
 import com.vitorsaucedo.vbank.entities.enums.TransactionStatus;
 import com.vitorsaucedo.vbank.entities.enums.TransactionType;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.UUID;
+
 @Component
 public class TransactionMapper {
 
-    public Transaction toEntity(PixTransferRequest request, BankAccount payer, BankAccount payee) {
+    public Transaction toEntity(PixTransferRequest request, BankAccount payer, BankAccount payee, UUID idempotencyKey) {
         Transaction transaction = new Transaction();
         transaction.setPayer(payer);
         transaction.setPayee(payee);
         transaction.setAmount(request.amount());
         transaction.setDescription(request.description());
         transaction.setType(TransactionType.PIX);
+        transaction.setIdempotencyKey(idempotencyKey);
+        if (idempotencyKey != null) {
+            transaction.setRequestHash(requestHash(request));
+        }
         transaction.setStatus(TransactionStatus.COMPLETED); // Status inicial ao salvar
         return transaction;
     }
 
+    /**
+     * Hash SHA-256 (hexadecimal) dos dados que definem a transferência: chave de destino, valor
+     * e descrição. PIN e token de autorização ficam de fora, pois podem mudar entre reenvios.
+     */
+    public String requestHash(PixTransferRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(String.valueOf(request.targetKey()).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(String.valueOf(request.amount()).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(Objects.toString(request.description(), "").getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM", e);
+        }
+    }
+
     public TransactionResponse toResponse(Transaction t) {
         return new TransactionResponse(
                 t.getId(),
@@ -31,25 +58,12 @@ public class TransactionMapper {
                 t.getCreatedAt(),
                 t.getDescription(),
                 t.getStatus(),
+                t.getFailureReason(),
                 mapAccountInfo(t.getPayer()),
                 mapAccountInfo(t.getPayee())
         );
     }
 
-    public StatementItemResponse toStatementItem(Transaction t, BankAccount currentAccount) {
-        boolean isPayer = t.getPayer().getId().equals(currentAccount.getId());
-
-        return new StatementItemResponse(
-                t.getId(),
-                t.getAmount(),
-                t.getCreatedAt(),
-                t.getDescription(),
-                isPayer ? t.getPayee().getUser().getFullName() : t.getPayer().getUser().getFullName(),
-                t.getType(),
-                isPayer ? TransactionDirection.OUTBOUND : TransactionDirection.INBOUND
-        );
-    }
-
     private TransactionResponse.AccountInfo mapAccountInfo(BankAccount account) {
         return new TransactionResponse.AccountInfo(
                 account.getUser().getFullName(),
@@ -0,0 +1,165 @@
+package com.vitorsaucedo.vbank.money;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Valor monetário em reais guardado como quantidade inteira de centavos.
+ *
+ * Substitui {@link BigDecimal} no caminho das transferências: soma, subtração e comparação
+ * são operações sobre {@code long}, com estouro verificado ({@link ArithmeticException}).
+ * Valores com mais de duas casas decimais são recusados em vez de arredondados.
+ *
+ * No banco é gravado em colunas {@code NUMERIC} de duas casas pelo {@link MoneyConverter}; no JSON é um
+ * número decimal ({@code 150.50}), lido e escrito pelos módulos de {@link MoneyJson}.
+ */
+@Schema(type = "number", format = "decimal", example = "150.50")
+public record Money(long cents) implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    private static final long MAX_WHOLE = Long.MAX_VALUE / 100;
+
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /**
+     * @throws ArithmeticException Se o valor tiver mais de duas casas decimais ou não couber em centavos
+     */
+    public static Money of(BigDecimal value) {
+        return ofCents(value.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+    }
+
+    /**
+     * Conversão de texto usada pelo Spring em propriedades ({@code @Value}).
+     */
+    public static Money valueOf(String text) {
+        return parse(text);
+    }
+
+    public static Money parse(CharSequence text) {
+        int length = text.length();
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = text.charAt(i);
+        }
+        return parse(chars, 0, length);
+    }
+
+    /**
+     * Lê um decimal como {@code -1234.5} direto para centavos, sem passar por {@link BigDecimal}.
+     * Aceita sinal, parte inteira e até duas casas decimais; notação científica não é aceita.
+     *
+     * @throws NumberFormatException Se o texto não for um valor monetário válido
+     */
+    public static Money parse(char[] chars, int offset, int length) {
+        int i = offset;
+        int end = offset + length;
+        boolean negative = false;
+        if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+            negative = chars[i] == '-';
+            i++;
+        }
+
+        long whole = 0;
+        int wholeDigits = 0;
+        while (i < end && chars[i] >= '0' && chars[i] <= '9') {
+            if (whole > MAX_WHOLE / 10) {
+                throw invalid(chars, offset, length, "valor fora do limite");
+            }
+            whole = whole * 10 + (chars[i++] - '0');
+            wholeDigits++;
+        }
+
+        long fraction = 0;
+        int fractionDigits = 0;
+        if (i < end && chars[i] == '.') {
+            i++;
+            while (i < end && chars[i] >= '0' && chars[i] <= '9') {
+                if (fractionDigits == 2) {
+                    if (chars[i] != '0') {
+                        throw invalid(chars, offset, length, "mais de duas casas decimais");
+                    }
+                } else {
+                    fraction = fraction * 10 + (chars[i] - '0');
+                    fractionDigits++;
+                }
+                i++;
+            }
+        }
+        if (i != end || (wholeDigits == 0 && fractionDigits == 0)) {
+            throw invalid(chars, offset, length, "formato inválido");
+        }
+        if (fractionDigits == 1) {
+            fraction *= 10;
+        }
+
+        // Negativos acumulam para baixo: Long.MIN_VALUE centavos também é lido
+        try {
+            return ofCents(negative
+                    ? Math.subtractExact(Math.multiplyExact(-whole, 100), fraction)
+                    : Math.addExact(Math.multiplyExact(whole, 100), fraction));
+        } catch (ArithmeticException e) {
+            throw invalid(chars, offset, length, "valor fora do limite");
+        }
+    }
+
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    public boolean isPositive() {
+        return cents > 0;
+    }
+
+    public boolean isNegative() {
+        return cents < 0;
+    }
+
+    public boolean isGreaterThan(Money other) {
+        return cents > other.cents;
+    }
+
+    public boolean isLessThan(Money other) {
+        return cents < other.cents;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    /**
+     * Texto decimal com duas casas, como {@code 150.50} ou {@code -0.05}.
+     */
+    @Override
+    public String toString() {
+        // Divide antes de tirar o sinal, já que Math.abs(Long.MIN_VALUE) é negativo
+        String whole = Long.toString(Math.abs(cents / 100));
+        int fraction = Math.abs((int) (cents % 100));
+        StringBuilder text = new StringBuilder(whole.length() + 4);
+        if (cents < 0) {
+            text.append('-');
+        }
+        return text.append(whole)
+                .append('.')
+                .append((char) ('0' + fraction / 10))
+                .append((char) ('0' + fraction % 10))
+                .toString();
+    }
+
+    private static NumberFormatException invalid(char[] chars, int offset, int length, String reason) {
+        return new NumberFormatException("Valor monetário inválido (" + reason + "): " + new String(chars, offset, length));
+    }
+}
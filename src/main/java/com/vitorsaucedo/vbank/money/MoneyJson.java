@@ -0,0 +1,89 @@
+package com.vitorsaucedo.vbank.money;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.JacksonModule;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueDeserializer;
+import tools.jackson.databind.ValueSerializer;
+import tools.jackson.databind.module.SimpleModule;
+
+import java.io.IOException;
+
+/**
+ * (De)serialização de {@link Money} como número decimal, para o Jackson 3 das requisições
+ * HTTP e para o {@code ObjectMapper} (Jackson 2) usado nas exportações e na auditoria.
+ *
+ * A leitura usa os caracteres do número no buffer do parser, sem criar {@code BigDecimal}
+ * nem {@code String}. Também são aceitos valores entre aspas, como {@code "150.50"}.
+ */
+public final class MoneyJson {
+
+    private MoneyJson() {}
+
+    public static JacksonModule module() {
+        return new SimpleModule("vbank-money")
+                .addSerializer(Money.class, new Serializer())
+                .addDeserializer(Money.class, new Deserializer());
+    }
+
+    public static com.fasterxml.jackson.databind.Module legacyModule() {
+        return new com.fasterxml.jackson.databind.module.SimpleModule("vbank-money")
+                .addSerializer(Money.class, new LegacySerializer())
+                .addDeserializer(Money.class, new LegacyDeserializer());
+    }
+
+    private static final class Serializer extends ValueSerializer<Money> {
+
+        @Override
+        public void serialize(Money value, JsonGenerator gen, SerializationContext ctxt) {
+            gen.writeNumber(value.toString());
+        }
+    }
+
+    private static final class Deserializer extends ValueDeserializer<Money> {
+
+        @Override
+        public Money deserialize(JsonParser p, DeserializationContext ctxt) {
+            JsonToken token = p.currentToken();
+            if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT && token != JsonToken.VALUE_STRING) {
+                return (Money) ctxt.handleUnexpectedToken(Money.class, p);
+            }
+            try {
+                return Money.parse(p.getStringCharacters(), p.getStringOffset(), p.getStringLength());
+            } catch (NumberFormatException | ArithmeticException e) {
+                throw ctxt.weirdStringException(p.getString(), Money.class, e.getMessage());
+            }
+        }
+    }
+
+    private static final class LegacySerializer extends com.fasterxml.jackson.databind.JsonSerializer<Money> {
+
+        @Override
+        public void serialize(Money value, com.fasterxml.jackson.core.JsonGenerator gen,
+                              com.fasterxml.jackson.databind.SerializerProvider serializers) throws IOException {
+            gen.writeNumber(value.toString());
+        }
+    }
+
+    private static final class LegacyDeserializer extends com.fasterxml.jackson.databind.JsonDeserializer<Money> {
+
+        @Override
+        public Money deserialize(com.fasterxml.jackson.core.JsonParser p,
+                                 com.fasterxml.jackson.databind.DeserializationContext ctxt) throws IOException {
+            com.fasterxml.jackson.core.JsonToken token = p.currentToken();
+            if (token != com.fasterxml.jackson.core.JsonToken.VALUE_NUMBER_INT
+                    && token != com.fasterxml.jackson.core.JsonToken.VALUE_NUMBER_FLOAT
+                    && token != com.fasterxml.jackson.core.JsonToken.VALUE_STRING) {
+                return (Money) ctxt.handleUnexpectedToken(Money.class, p);
+            }
+            try {
+                return Money.parse(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+            } catch (NumberFormatException | ArithmeticException e) {
+                throw ctxt.weirdStringException(p.getText(), Money.class, e.getMessage());
+            }
+        }
+    }
+}
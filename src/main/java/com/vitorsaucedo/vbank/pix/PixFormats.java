@@ -0,0 +1,191 @@
+package com.vitorsaucedo.vbank.pix;
+
+/**
+ * Normalização e validação de documentos, telefones, e-mails e PINs por varredura de caracteres.
+ *
+ * Substitui as expressões regulares dos caminhos de cadastro e transferência: nenhum método
+ * compila padrão ou cria {@code Matcher}, e os que devolvem {@code String} devolvem a própria
+ * entrada quando ela já está normalizada.
+ */
+public final class PixFormats {
+
+    private static final int[] CNPJ_WEIGHTS = {6, 5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2};
+
+    private PixFormats() {}
+
+    /**
+     * Mantém apenas os dígitos ASCII, como {@code value.replaceAll("\\D", "")}.
+     */
+    public static String digits(String value) {
+        int length = value.length();
+        int first = 0;
+        while (first < length && isDigit(value.charAt(first))) {
+            first++;
+        }
+        if (first == length) {
+            return value;
+        }
+
+        char[] buffer = new char[length - 1];
+        value.getChars(0, first, buffer, 0);
+        int size = first;
+        for (int i = first + 1; i < length; i++) {
+            char c = value.charAt(i);
+            if (isDigit(c)) {
+                buffer[size++] = c;
+            }
+        }
+        return new String(buffer, 0, size);
+    }
+
+    /**
+     * Exatamente quatro dígitos, como {@code pin.matches("\\d{4}")}.
+     */
+    public static boolean isPin(CharSequence pin) {
+        return pin.length() == 4
+                && isDigit(pin.charAt(0)) && isDigit(pin.charAt(1))
+                && isDigit(pin.charAt(2)) && isDigit(pin.charAt(3));
+    }
+
+    /**
+     * Mesma regra de {@code email.matches("^[A-Za-z0-9+_.-]+@(.+)$")}: parte local com letras,
+     * dígitos e {@code + _ . -}, uma arroba e um domínio não vazio sem quebras de linha.
+     */
+    public static boolean isEmail(CharSequence email) {
+        int length = email.length();
+        int at = 0;
+        while (at < length && isLocalPartChar(email.charAt(at))) {
+            at++;
+        }
+        if (at == 0 || at >= length - 1 || email.charAt(at) != '@') {
+            return false;
+        }
+        for (int i = at + 1; i < length; i++) {
+            if (isLineTerminator(email.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Minúsculas e sem espaços nas pontas; devolve a entrada quando já está assim.
+     */
+    public static String normalizeEmail(String email) {
+        int start = 0;
+        int end = email.length();
+        while (start < end && email.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && email.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        // Percorre tudo: um caractere não ASCII depois de uma maiúscula também exige toLowerCase
+        boolean lower = true;
+        for (int i = start; i < end; i++) {
+            char c = email.charAt(i);
+            if (c >= 0x80) {
+                return email.toLowerCase().trim();
+            }
+            lower &= c < 'A' || c > 'Z';
+        }
+        if (lower) {
+            return start == 0 && end == email.length() ? email : email.substring(start, end);
+        }
+
+        char[] buffer = new char[end - start];
+        for (int i = start; i < end; i++) {
+            char c = email.charAt(i);
+            buffer[i - start] = c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return new String(buffer);
+    }
+
+    /**
+     * CPF (11 dígitos) ou CNPJ (14 dígitos) sem formatação, com dígitos verificadores corretos.
+     */
+    public static boolean isValidDocument(CharSequence digits) {
+        return switch (digits.length()) {
+            case 11 -> isValidCpf(digits);
+            case 14 -> isValidCnpj(digits);
+            default -> false;
+        };
+    }
+
+    /**
+     * CPF de 11 dígitos sem formatação. Sequências repetidas (000.000.000-00 etc.) passam
+     * no cálculo mas não são emitidas, e são recusadas.
+     */
+    public static boolean isValidCpf(CharSequence cpf) {
+        if (cpf.length() != 11 || !allDigits(cpf) || repeated(cpf)) {
+            return false;
+        }
+        int first = 0;
+        int second = 0;
+        for (int i = 0; i < 9; i++) {
+            int digit = cpf.charAt(i) - '0';
+            first += digit * (10 - i);
+            second += digit * (11 - i);
+        }
+        int firstCheck = checkDigit(first);
+        second += firstCheck * 2;
+        return cpf.charAt(9) - '0' == firstCheck && cpf.charAt(10) - '0' == checkDigit(second);
+    }
+
+    /**
+     * CNPJ numérico de 14 dígitos sem formatação.
+     */
+    public static boolean isValidCnpj(CharSequence cnpj) {
+        if (cnpj.length() != 14 || !allDigits(cnpj) || repeated(cnpj)) {
+            return false;
+        }
+        int first = 0;
+        int second = 0;
+        for (int i = 0; i < 12; i++) {
+            int digit = cnpj.charAt(i) - '0';
+            first += digit * CNPJ_WEIGHTS[i + 1];
+            second += digit * CNPJ_WEIGHTS[i];
+        }
+        int firstCheck = checkDigit(first);
+        second += firstCheck * CNPJ_WEIGHTS[12];
+        return cnpj.charAt(12) - '0' == firstCheck && cnpj.charAt(13) - '0' == checkDigit(second);
+    }
+
+    static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int checkDigit(int sum) {
+        int remainder = sum % 11;
+        return remainder < 2 ? 0 : 11 - remainder;
+    }
+
+    private static boolean allDigits(CharSequence value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (!isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean repeated(CharSequence value) {
+        for (int i = 1; i < value.length(); i++) {
+            if (value.charAt(i) != value.charAt(0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isLocalPartChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || isDigit(c)
+                || c == '+' || c == '_' || c == '.' || c == '-';
+    }
+
+    // Os caracteres que o "." de java.util.regex não aceita
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == 0x2028 || c == 0x2029;
+    }
+}
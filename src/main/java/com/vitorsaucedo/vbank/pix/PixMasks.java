@@ -0,0 +1,66 @@
+package com.vitorsaucedo.vbank.pix;
+
+/**
+ * Mascaramento de nome e documento exibidos na consulta de chave PIX.
+ *
+ * Os métodos escrevem no {@link StringBuilder} recebido, que pode ser reaproveitado entre
+ * chamadas, e produzem o mesmo texto das expressões regulares que substituem.
+ */
+public final class PixMasks {
+
+    private static final int DOCUMENT_MIN = 10;
+    private static final int DOCUMENT_MAX = 13;
+
+    private PixMasks() {}
+
+    /**
+     * Mantém os dois primeiros caracteres, o último sobrenome e os dois últimos caracteres;
+     * o antepenúltimo também é mascarado. Equivale a
+     * {@code name.replaceAll("(?<=.{2}).(?=.* )|(?<=.{2}).(?=.{2}$)", "*")} para nomes em uma linha.
+     */
+    public static StringBuilder maskName(CharSequence name, StringBuilder out) {
+        int length = name.length();
+        int lastSpace = -1;
+        for (int i = length - 1; i >= 0; i--) {
+            if (name.charAt(i) == ' ') {
+                lastSpace = i;
+                break;
+            }
+        }
+        for (int i = 0; i < length; i++) {
+            boolean masked = i >= 2 && (i < lastSpace || i == length - 3);
+            out.append(masked ? '*' : name.charAt(i));
+        }
+        return out;
+    }
+
+    /**
+     * Em cada sequência de 10 a 13 dígitos, mantém os três primeiros e os dois últimos no
+     * formato {@code 123.***.***-01}. Equivale a
+     * {@code doc.replaceAll("(\\d{3})\\d{5,8}(\\d{2})", "$1.***.***-$2")}.
+     */
+    public static StringBuilder maskDocument(CharSequence document, StringBuilder out) {
+        int length = document.length();
+        int i = 0;
+        while (i < length) {
+            if (!PixFormats.isDigit(document.charAt(i))) {
+                out.append(document.charAt(i++));
+                continue;
+            }
+            int end = i;
+            while (end < length && PixFormats.isDigit(document.charAt(end))) {
+                end++;
+            }
+            while (end - i >= DOCUMENT_MIN) {
+                int match = Math.min(end - i, DOCUMENT_MAX);
+                out.append(document, i, i + 3)
+                        .append(".***.***-")
+                        .append(document, i + match - 2, i + match);
+                i += match;
+            }
+            out.append(document, i, end);
+            i = end;
+        }
+        return out;
+    }
+}
@@ -0,0 +1,43 @@
+package com.vitorsaucedo.vbank.repositories;
+
+import com.vitorsaucedo.vbank.entities.AccountDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public interface AccountDailyStatsRepository extends JpaRepository<AccountDailyStats, AccountDailyStats.Key> {
+
+    /**
+     * Soma os valores aos totais do dia, criando a linha se ainda não existir.
+     * Traduzido para {@code INSERT ... ON CONFLICT} no PostgreSQL e {@code MERGE} no H2.
+     */
+    @Modifying
+    @Query("""
+            INSERT INTO AccountDailyStats (accountId, day, inboundCount, inboundAmount, outboundCount, outboundAmount)
+            VALUES (:accountId, :day, :inboundCount, :inboundAmount, :outboundCount, :outboundAmount)
+            ON CONFLICT (accountId, day) DO UPDATE SET
+                inboundCount = inboundCount + excluded.inboundCount,
+                inboundAmount = inboundAmount + excluded.inboundAmount,
+                outboundCount = outboundCount + excluded.outboundCount,
+                outboundAmount = outboundAmount + excluded.outboundAmount
+            """)
+    int increment(
+            @Param("accountId") UUID accountId,
+            @Param("day") LocalDate day,
+            @Param("inboundCount") long inboundCount,
+            @Param("inboundAmount") BigDecimal inboundAmount,
+            @Param("outboundCount") long outboundCount,
+            @Param("outboundAmount") BigDecimal outboundAmount);
+
+    List<AccountDailyStats> findAllByAccountIdAndDayGreaterThanEqual(UUID accountId, LocalDate from);
+
+    @Modifying
+    @Query("DELETE FROM AccountDailyStats s WHERE s.day < :before")
+    int deleteAllBefore(@Param("before") LocalDate before);
+}
@@ -0,0 +1,69 @@
+package com.vitorsaucedo.vbank.repositories;
+
+import com.vitorsaucedo.vbank.entities.BalanceCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface BalanceCheckpointRepository extends JpaRepository<BalanceCheckpoint, BalanceCheckpoint.Key> {
+
+    /**
+     * Ponto mais recente da conta até o instante informado: uma busca na chave primária.
+     */
+    Optional<BalanceCheckpoint> findFirstByAccountIdAndAsOfLessThanEqualOrderByAsOfDesc(UUID accountId, LocalDateTime asOf);
+
+    /**
+     * Ponto mais recente de cada conta até o instante informado, para várias contas de uma vez.
+     */
+    @Query("""
+            SELECT c FROM BalanceCheckpoint c
+            WHERE c.accountId IN :accountIds
+              AND c.asOf = (SELECT MAX(p.asOf) FROM BalanceCheckpoint p
+                            WHERE p.accountId = c.accountId AND p.asOf <= :asOf)
+            """)
+    List<BalanceCheckpoint> findLatestByAccountIds(
+            @Param("accountIds") Collection<UUID> accountIds,
+            @Param("asOf") LocalDateTime asOf);
+
+    /**
+     * Fronteira mais recente já registrada, de onde a geração incremental continua.
+     */
+    @Query("SELECT MAX(c.asOf) FROM BalanceCheckpoint c")
+    LocalDateTime findLatestAsOf();
+
+    @Query("""
+            SELECT MIN(c.asOf) FROM BalanceCheckpoint c
+            WHERE c.period = com.vitorsaucedo.vbank.entities.enums.BalanceCheckpointPeriod.DAY
+            """)
+    LocalDateTime findEarliestDayAsOf();
+
+    /**
+     * Último ponto diário de cada conta dentro do mês, para as contas que ainda não têm
+     * ponto na virada do mês.
+     */
+    @Query("""
+            SELECT c FROM BalanceCheckpoint c
+            WHERE c.period = com.vitorsaucedo.vbank.entities.enums.BalanceCheckpointPeriod.DAY
+              AND c.asOf > :monthStart AND c.asOf < :monthEnd
+              AND c.asOf = (SELECT MAX(p.asOf) FROM BalanceCheckpoint p
+                            WHERE p.accountId = c.accountId AND p.asOf > :monthStart AND p.asOf <= :monthEnd)
+            """)
+    List<BalanceCheckpoint> findLastDayOfMonth(
+            @Param("monthStart") LocalDateTime monthStart,
+            @Param("monthEnd") LocalDateTime monthEnd);
+
+    @Modifying
+    @Query("""
+            DELETE FROM BalanceCheckpoint c
+            WHERE c.period = com.vitorsaucedo.vbank.entities.enums.BalanceCheckpointPeriod.DAY
+              AND c.asOf > :monthStart AND c.asOf < :monthEnd
+            """)
+    int deleteDaysOfMonth(@Param("monthStart") LocalDateTime monthStart, @Param("monthEnd") LocalDateTime monthEnd);
+}
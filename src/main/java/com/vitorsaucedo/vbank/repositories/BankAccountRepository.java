@@ -1,7 +1,14 @@
 package com.vitorsaucedo.vbank.repositories;
 
 import com.vitorsaucedo.vbank.entities.BankAccount;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -9,4 +16,20 @@ public interface BankAccountRepository extends JpaRepository<BankAccount, UUID>
     Optional<BankAccount> findByAccountNumber(String accountNumber);
     Optional<BankAccount> findByUserEmail(String email);
     Optional<BankAccount> findByUserId(UUID userId);
+
+    @EntityGraph(attributePaths = "user")
+    Optional<BankAccount> findWithUserById(UUID id);
+
+    @EntityGraph(attributePaths = "user")
+    List<BankAccount> findWithUserByIdIn(Collection<UUID> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM BankAccount a WHERE a.id = :id")
+    Optional<BankAccount> findByIdForUpdate(@Param("id") UUID id);
+
+    @Query("SELECT a.statusVersion FROM BankAccount a WHERE a.id = :id")
+    Optional<Long> findStatusVersionById(@Param("id") UUID id);
+
+    @Query("SELECT a.id FROM BankAccount a")
+    List<UUID> findAllIds();
 }
@@ -0,0 +1,20 @@
+package com.vitorsaucedo.vbank.repositories;
+
+import com.vitorsaucedo.vbank.entities.LedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, UUID> {
+
+    @Query("""
+            SELECT COALESCE(SUM(CASE WHEN e.entryType = com.vitorsaucedo.vbank.entities.enums.LedgerEntryType.DEBIT
+                                     THEN -e.amount ELSE e.amount END), 0)
+            FROM LedgerEntry e
+            WHERE e.accountId = :accountId
+            """)
+    BigDecimal computeBalance(@Param("accountId") UUID accountId);
+}
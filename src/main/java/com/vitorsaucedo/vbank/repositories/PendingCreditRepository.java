@@ -0,0 +1,32 @@
+package com.vitorsaucedo.vbank.repositories;
+
+import com.vitorsaucedo.vbank.entities.PendingCredit;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+public interface PendingCreditRepository extends JpaRepository<PendingCredit, UUID> {
+
+    List<PendingCredit> findAllByAccountId(UUID accountId);
+
+    // Saldo projetado e créditos pendentes lidos no mesmo comando para não observar a projeção pela metade
+    @Query("""
+            SELECT a.balance + COALESCE((SELECT SUM(p.amount) FROM PendingCredit p WHERE p.accountId = a.id), 0)
+            FROM BankAccount a
+            WHERE a.id = :accountId
+            """)
+    BigDecimal availableBalance(@Param("accountId") UUID accountId);
+
+    @Query("SELECT DISTINCT p.accountId FROM PendingCredit p")
+    List<UUID> findAccountIdsWithPendingCredits(Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM PendingCredit p WHERE p.accountId = :accountId")
+    void deleteAllByAccountId(@Param("accountId") UUID accountId);
+}
@@ -0,0 +1,38 @@
+package com.vitorsaucedo.vbank.repositories;
+
+import com.vitorsaucedo.vbank.entities.PixKeyDeletion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public interface PixKeyDeletionRepository extends JpaRepository<PixKeyDeletion, UUID> {
+
+    /**
+     * Chaves excluídas a partir de {@code since}, lidas por cursor do banco.
+     * Deve ser consumido dentro de uma transação e fechado ao final.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("""
+            SELECT d.keyValue AS keyValue, d.accountId AS accountId
+            FROM PixKeyDeletion d
+            WHERE d.deletedAt >= :since
+            """)
+    Stream<DeletedPixKeyView> streamDeletedSince(@Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query("DELETE FROM PixKeyDeletion d WHERE d.deletedAt < :before")
+    int deleteAllBefore(@Param("before") LocalDateTime before);
+
+    interface DeletedPixKeyView {
+        String getKeyValue();
+        UUID getAccountId();
+    }
+}
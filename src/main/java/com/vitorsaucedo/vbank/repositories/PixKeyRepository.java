@@ -1,19 +1,73 @@
 package com.vitorsaucedo.vbank.repositories;
 
 import com.vitorsaucedo.vbank.entities.PixKey;
+import com.vitorsaucedo.vbank.entities.enums.PixKeyType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface PixKeyRepository extends JpaRepository<PixKey, UUID> {
 
     boolean existsByKeyValueAndAccountId(String keyValue, UUID accountId);
 
-    Optional<PixKey> findByKeyValue(String keyValue);
+    @EntityGraph(attributePaths = "account.user")
+    Optional<PixKey> findWithAccountByKeyValue(String keyValue);
+
+    @EntityGraph(attributePaths = "account.user")
+    List<PixKey> findWithAccountByKeyValueIn(Collection<String> keyValues);
 
     boolean existsByKeyValue(String keyValue);
 
-    List<PixKey> findAllByAccountUserId(UUID userId);
+    List<PixKey> findAllByAccountId(UUID accountId);
+
+    /**
+     * Todas as chaves cadastradas, lidas por cursor do banco.
+     * Deve ser consumido dentro de uma transação e fechado ao final.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("SELECT k.keyValue FROM PixKey k")
+    Stream<String> streamAllKeyValues();
+
+    /**
+     * Como {@link #streamAllKeyValues()}, apenas das chaves criadas a partir de {@code since}.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("SELECT k.keyValue FROM PixKey k WHERE k.createdAt >= :since")
+    Stream<String> streamKeyValuesCreatedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Chave, conta e tipo de todas as chaves cadastradas, lidos por cursor do banco.
+     * Deve ser consumido dentro de uma transação e fechado ao final.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("SELECT k.keyValue AS keyValue, k.account.id AS accountId, k.keyType AS keyType FROM PixKey k")
+    Stream<PixKeyLocationView> streamAllLocations();
+
+    /**
+     * Como {@link #streamAllLocations()}, apenas das chaves criadas a partir de {@code since}.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "10000"))
+    @Query("""
+            SELECT k.keyValue AS keyValue, k.account.id AS accountId, k.keyType AS keyType
+            FROM PixKey k
+            WHERE k.createdAt >= :since
+            """)
+    Stream<PixKeyLocationView> streamLocationsCreatedSince(@Param("since") LocalDateTime since);
+
+    interface PixKeyLocationView {
+        String getKeyValue();
+        UUID getAccountId();
+        PixKeyType getKeyType();
+    }
 }
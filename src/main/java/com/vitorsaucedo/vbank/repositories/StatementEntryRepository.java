@@ -0,0 +1,142 @@
+package com.vitorsaucedo.vbank.repositories;
+
+import com.vitorsaucedo.vbank.dtos.StatementItemResponse;
+import com.vitorsaucedo.vbank.entities.StatementEntry;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Consultas do extrato sobre {@code tb_statement_entries}: cada uma é uma única leitura
+ * do índice {@code (account_id, created_at, transaction_id)}, sem junções.
+ */
+public interface StatementEntryRepository extends JpaRepository<StatementEntry, StatementEntry.Key> {
+
+    String STATEMENT_SELECT = """
+            SELECT new com.vitorsaucedo.vbank.dtos.StatementItemResponse(
+                e.transactionId, e.amount, e.createdAt, e.description, e.counterpartyName, e.type, e.direction)
+            FROM StatementEntry e
+            WHERE e.accountId = :accountId
+            """;
+
+    /**
+     * Primeira página do extrato.
+     */
+    @Query(STATEMENT_SELECT + "ORDER BY e.createdAt DESC, e.transactionId DESC")
+    List<StatementItemResponse> findStatementPage(@Param("accountId") UUID accountId, Limit limit);
+
+    /**
+     * Páginas seguintes do extrato, por keyset em {@code (createdAt, transactionId)}: o custo
+     * não cresce com a profundidade da página, ao contrário de um {@code OFFSET}.
+     */
+    @Query(STATEMENT_SELECT + """
+              AND (e.createdAt < :createdAt OR (e.createdAt = :createdAt AND e.transactionId < :id))
+            ORDER BY e.createdAt DESC, e.transactionId DESC
+            """)
+    List<StatementItemResponse> findStatementPageAfter(
+            @Param("accountId") UUID accountId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") UUID id,
+            Limit limit);
+
+    /**
+     * Extrato completo de um período em ordem cronológica, lido por cursor do banco.
+     * Deve ser consumido dentro de uma transação e fechado ao final.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(STATEMENT_SELECT + """
+              AND e.createdAt >= :from AND e.createdAt < :to
+            ORDER BY e.createdAt, e.transactionId
+            """)
+    Stream<StatementItemResponse> streamStatement(
+            @Param("accountId") UUID accountId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    String SIGNED_AMOUNT = """
+            CASE WHEN e.direction = com.vitorsaucedo.vbank.entities.enums.TransactionDirection.INBOUND
+                 THEN e.amount ELSE -e.amount END
+            """;
+
+    /**
+     * Variação do saldo da conta no intervalo {@code [from, to)}.
+     */
+    @Query("SELECT COALESCE(SUM(" + SIGNED_AMOUNT + """
+            ), 0)
+            FROM StatementEntry e
+            WHERE e.accountId = :accountId AND e.createdAt >= :from AND e.createdAt < :to
+            """)
+    BigDecimal sumBalanceChange(
+            @Param("accountId") UUID accountId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+
+    /**
+     * Variação do saldo de cada conta que teve movimentação no intervalo {@code [from, to)}.
+     */
+    @Query("SELECT e.accountId AS accountId, SUM(" + SIGNED_AMOUNT + """
+            ) AS change
+            FROM StatementEntry e
+            WHERE e.createdAt >= :from AND e.createdAt < :to
+            GROUP BY e.accountId
+            """)
+    List<BalanceChangeView> sumBalanceChangeByAccount(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Instante da primeira linha de qualquer conta a partir de {@code from}, ou nulo se não houver.
+     */
+    @Query("SELECT MIN(e.createdAt) FROM StatementEntry e WHERE e.createdAt >= :from")
+    LocalDateTime findFirstCreatedAtFrom(@Param("from") LocalDateTime from);
+
+    @Modifying
+    @Query("DELETE FROM StatementEntry e WHERE e.accountId = :accountId")
+    int deleteAllByAccountId(@Param("accountId") UUID accountId);
+
+    /**
+     * Regenera as linhas de saída da conta a partir das transações concluídas.
+     */
+    @Modifying
+    @Query("""
+            INSERT INTO StatementEntry (accountId, transactionId, direction, counterpartyName, amount, type, description, createdAt)
+            SELECT t.payer.id, t.id, com.vitorsaucedo.vbank.entities.enums.TransactionDirection.OUTBOUND,
+                   counterpartyUser.fullName, t.amount, t.type, t.description, t.createdAt
+            FROM Transaction t
+            JOIN t.payee counterparty
+            JOIN counterparty.user counterpartyUser
+            WHERE t.payer.id = :accountId
+              AND t.status = com.vitorsaucedo.vbank.entities.enums.TransactionStatus.COMPLETED
+            """)
+    int insertOutboundFromTransactions(@Param("accountId") UUID accountId);
+
+    /**
+     * Regenera as linhas de entrada da conta a partir das transações concluídas.
+     */
+    @Modifying
+    @Query("""
+            INSERT INTO StatementEntry (accountId, transactionId, direction, counterpartyName, amount, type, description, createdAt)
+            SELECT t.payee.id, t.id, com.vitorsaucedo.vbank.entities.enums.TransactionDirection.INBOUND,
+                   counterpartyUser.fullName, t.amount, t.type, t.description, t.createdAt
+            FROM Transaction t
+            JOIN t.payer counterparty
+            JOIN counterparty.user counterpartyUser
+            WHERE t.payee.id = :accountId
+              AND t.status = com.vitorsaucedo.vbank.entities.enums.TransactionStatus.COMPLETED
+            """)
+    int insertInboundFromTransactions(@Param("accountId") UUID accountId);
+
+    interface BalanceChangeView {
+        UUID getAccountId();
+        BigDecimal getChange();
+    }
+}
@@ -0,0 +1,42 @@
+package com.vitorsaucedo.vbank.repositories;
+
+import com.vitorsaucedo.vbank.entities.TransactionAuthorization;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface TransactionAuthorizationRepository extends JpaRepository<TransactionAuthorization, UUID> {
+
+    /**
+     * Desconta o valor e um uso se o token ainda estiver válido e cobrir o valor.
+     * A condição no próprio {@code UPDATE} impede que duas instâncias gastem o mesmo saldo.
+     *
+     * @return 1 se descontou, 0 se o token não existe, expirou ou não cobre o valor
+     */
+    @Modifying
+    @Query("""
+            UPDATE TransactionAuthorization a
+            SET a.remaining = a.remaining - :amount, a.uses = a.uses - 1
+            WHERE a.id = :id AND a.userId = :userId AND a.expiresAt > :now
+              AND a.uses > 0 AND a.remaining >= :amount
+            """)
+    int consume(@Param("id") UUID id, @Param("userId") UUID userId,
+                @Param("amount") BigDecimal amount, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            UPDATE TransactionAuthorization a
+            SET a.remaining = a.remaining + :amount, a.uses = a.uses + 1
+            WHERE a.id = :id
+            """)
+    int restore(@Param("id") UUID id, @Param("amount") BigDecimal amount);
+
+    @Modifying
+    @Query("DELETE FROM TransactionAuthorization a WHERE a.expiresAt < :before")
+    int deleteAllExpiredBefore(@Param("before") LocalDateTime before);
+}
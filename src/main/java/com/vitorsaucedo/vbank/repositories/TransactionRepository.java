@@ -1,17 +1,47 @@
 package com.vitorsaucedo.vbank.repositories;
 
-import com.vitorsaucedo.vbank.entities.BankAccount;
 import com.vitorsaucedo.vbank.entities.Transaction;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface TransactionRepository extends JpaRepository<Transaction, UUID> {
+
     boolean existsByIdempotencyKey(UUID idempotencyKey);
 
-    @Query("SELECT t FROM Transaction t WHERE t.payer = :account OR t.payee = :account ORDER BY t.createdAt DESC")
-    List<Transaction> findAllByAccountOrderByCreatedAtDesc(@Param("account") BankAccount account);
+    @EntityGraph(attributePaths = {"payer.user", "payee.user"})
+    Optional<Transaction> findByIdempotencyKey(UUID idempotencyKey);
+
+    @EntityGraph(attributePaths = {"payer.user", "payee.user"})
+    Optional<Transaction> findWithAccountsById(UUID id);
+
+    @Query("""
+            SELECT t.id AS id, t.payer.id AS payerAccountId
+            FROM Transaction t
+            WHERE t.status = com.vitorsaucedo.vbank.entities.enums.TransactionStatus.PENDING
+              AND t.createdAt < :createdBefore
+            ORDER BY t.createdAt
+            """)
+    List<PendingTransactionView> findPendingCreatedBefore(@Param("createdBefore") LocalDateTime createdBefore, Limit limit);
+
+    @Modifying
+    @Query("""
+            UPDATE Transaction t
+            SET t.status = com.vitorsaucedo.vbank.entities.enums.TransactionStatus.FAILED, t.failureReason = :reason
+            WHERE t.id = :id AND t.status = com.vitorsaucedo.vbank.entities.enums.TransactionStatus.PENDING
+            """)
+    int markFailed(@Param("id") UUID id, @Param("reason") String reason);
+
+    interface PendingTransactionView {
+        UUID getId();
+        UUID getPayerAccountId();
+    }
 }
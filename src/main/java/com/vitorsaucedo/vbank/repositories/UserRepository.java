@@ -2,6 +2,11 @@ package com.vitorsaucedo.vbank.repositories;
 
 import com.vitorsaucedo.vbank.entities.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -10,4 +15,16 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     Optional<User> findByDocument(String document);
     boolean existsByEmail(String email);
     boolean existsByDocument(String document);
+
+    /**
+     * Versão em lote de {@link #existsByEmail}: os e-mails informados que já estão cadastrados.
+     */
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * Versão em lote de {@link #existsByDocument}: os documentos informados que já estão cadastrados.
+     */
+    @Query("SELECT u.document FROM User u WHERE u.document IN :documents")
+    List<String> findExistingDocuments(@Param("documents") Collection<String> documents);
 }
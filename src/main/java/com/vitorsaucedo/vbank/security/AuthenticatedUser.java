@@ -0,0 +1,11 @@
+package com.vitorsaucedo.vbank.security;
+
+import java.util.UUID;
+
+/**
+ * Principal leve e imutável das requisições autenticadas por JWT.
+ *
+ * Montado a partir das claims assinadas do token, sem consultar usuário ou conta:
+ * os serviços recebem diretamente o id da conta do usuário autenticado.
+ */
+public record AuthenticatedUser(UUID id, String email, UUID accountId) {}
@@ -0,0 +1,128 @@
+package com.vitorsaucedo.vbank.security;
+
+import com.vitorsaucedo.vbank.exceptions.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Executa o hashing de senhas e PINs (BCrypt) em pools dedicados e limitados.
+ *
+ * São duas filas independentes, para que um pico de logins não atrase a conferência
+ * de PIN das transferências:
+ * - {@link Lane#AUTHENTICATION}: login e cadastro
+ * - {@link Lane#TRANSACTION_PIN}: autorização de PIX
+ *
+ * Com a fila cheia a chamada falha na hora com {@link ServiceOverloadedException}
+ * (HTTP 503 com Retry-After), em vez de ocupar todos os núcleos com BCrypt.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    public enum Lane { AUTHENTICATION, TRANSACTION_PIN }
+
+    private final PasswordEncoder passwordEncoder;
+    private final Map<Lane, ThreadPoolExecutor> executors = new EnumMap<>(Lane.class);
+    private final Map<Lane, Timer> latency = new EnumMap<>(Lane.class);
+    private final Map<Lane, Counter> rejected = new EnumMap<>(Lane.class);
+    private final long retryAfterSeconds;
+
+    public PasswordHashingExecutor(
+            PasswordEncoder passwordEncoder,
+            MeterRegistry meterRegistry,
+            @Value("${vbank.security.hashing.auth.threads:0}") int authThreads,
+            @Value("${vbank.security.hashing.auth.queue-capacity:256}") int authQueueCapacity,
+            @Value("${vbank.security.hashing.pin.threads:0}") int pinThreads,
+            @Value("${vbank.security.hashing.pin.queue-capacity:256}") int pinQueueCapacity,
+            @Value("${vbank.security.hashing.retry-after-seconds:2}") long retryAfterSeconds) {
+        this.passwordEncoder = passwordEncoder;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        // Por padrão cada fila fica com metade dos núcleos, sobrando CPU para o restante da aplicação
+        int half = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        executors.put(Lane.AUTHENTICATION, newExecutor("hash-auth-", authThreads > 0 ? authThreads : half, authQueueCapacity));
+        executors.put(Lane.TRANSACTION_PIN, newExecutor("hash-pin-", pinThreads > 0 ? pinThreads : half, pinQueueCapacity));
+
+        executors.forEach((lane, executor) -> {
+            String tag = lane.name().toLowerCase();
+            Gauge.builder("vbank.security.hashing.queue.depth", executor, e -> e.getQueue().size())
+                    .description("Verificações de senha/PIN aguardando um núcleo")
+                    .tag("lane", tag)
+                    .register(meterRegistry);
+            latency.put(lane, Timer.builder("vbank.security.hashing.duration")
+                    .description("Tempo de execução do hashing, sem a espera na fila")
+                    .tag("lane", tag)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+            rejected.put(lane, Counter.builder("vbank.security.hashing.rejected")
+                    .description("Verificações recusadas por fila cheia")
+                    .tag("lane", tag)
+                    .register(meterRegistry));
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        executors.values().forEach(ThreadPoolExecutor::shutdownNow);
+    }
+
+    public boolean matches(Lane lane, CharSequence raw, String encoded) {
+        return execute(lane, () -> passwordEncoder.matches(raw, encoded));
+    }
+
+    public String encode(Lane lane, CharSequence raw) {
+        return execute(lane, () -> passwordEncoder.encode(raw));
+    }
+
+    /**
+     * Executa no pool da fila informada uma operação que faz hashing internamente
+     * (ex: {@code AuthenticationManager#authenticate}) e aguarda o resultado.
+     */
+    public <T> T execute(Lane lane, Supplier<T> task) {
+        Timer timer = latency.get(lane);
+        Future<T> future;
+        try {
+            future = executors.get(lane).submit(() -> timer.record(task));
+        } catch (RejectedExecutionException e) {
+            rejected.get(lane).increment();
+            throw new ServiceOverloadedException(retryAfterSeconds);
+        }
+
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceOverloadedException(retryAfterSeconds);
+        }
+    }
+
+    private static ThreadPoolExecutor newExecutor(String prefix, int threads, int queueCapacity) {
+        return new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name(prefix, 0).daemon().factory()
+        );
+    }
+}
@@ -0,0 +1,61 @@
+package com.vitorsaucedo.vbank.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vitorsaucedo.vbank.repositories.BankAccountRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Resolve o {@link AuthenticatedUser} a partir das claims de um token verificado.
+ *
+ * A única informação consultada é a versão de status da conta, mantida em cache por
+ * id de conta: tokens emitidos antes de um bloqueio ou encerramento carregam uma versão
+ * antiga e são recusados. Entradas são descartadas após o commit de cada
+ * {@link PrincipalChangedEvent}, mas só na instância que publicou o evento: nas demais,
+ * um token antigo continua aceito até a entrada expirar, após
+ * {@code vbank.security.principal-cache.ttl} (30 segundos por padrão). O ttl é o atraso
+ * máximo de um bloqueio entre instâncias, ao custo de uma consulta por conta ativa a cada ttl.
+ */
+@Component
+public class PrincipalCache {
+
+    private final BankAccountRepository accountRepository;
+    private final Cache<UUID, Long> statusVersions;
+
+    public PrincipalCache(
+            BankAccountRepository accountRepository,
+            @Value("${vbank.security.principal-cache.max-entries:100000}") long maxEntries,
+            @Value("${vbank.security.principal-cache.ttl:30s}") Duration ttl) {
+        this.accountRepository = accountRepository;
+        this.statusVersions = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public Optional<AuthenticatedUser> resolve(TokenClaims claims) {
+        // Contas inexistentes não são cacheadas: o loader devolve null
+        Long current = statusVersions.get(claims.accountId(),
+                id -> accountRepository.findStatusVersionById(id).orElse(null));
+
+        if (current == null || current != claims.statusVersion()) {
+            return Optional.empty();
+        }
+        return Optional.of(new AuthenticatedUser(claims.userId(), claims.subject(), claims.accountId()));
+    }
+
+    public void invalidate(UUID accountId) {
+        statusVersions.invalidate(accountId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPrincipalChanged(PrincipalChangedEvent event) {
+        invalidate(event.accountId());
+    }
+}
@@ -0,0 +1,9 @@
+package com.vitorsaucedo.vbank.security;
+
+import java.util.UUID;
+
+/**
+ * Publicado quando a versão de status de uma conta muda (bloqueio, encerramento,
+ * reativação), para descartar a versão em cache e recusar os tokens antigos.
+ */
+public record PrincipalChangedEvent(UUID accountId) {}
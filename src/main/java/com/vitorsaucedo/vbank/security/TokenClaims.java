@@ -0,0 +1,11 @@
+package com.vitorsaucedo.vbank.security;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Claims de um JWT de sessão já verificado.
+ *
+ * @param statusVersion Versão de status da conta no momento da emissão do token
+ */
+public record TokenClaims(String subject, UUID userId, UUID accountId, long statusVersion, Instant expiresAt) {}
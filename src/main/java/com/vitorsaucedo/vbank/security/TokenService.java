@@ -1,29 +1,65 @@
 package com.vitorsaucedo.vbank.security;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.vitorsaucedo.vbank.entities.User;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
 
 @Service
 public class TokenService {
 
-    @Value("${api.security.token.secret}")
-    private String secret;
+    private static final String ISSUER = "vbank-api";
+    private static final String CLAIM_USER_ID = "userId";
+    private static final String CLAIM_ACCOUNT_ID = "accountId";
+    private static final String CLAIM_STATUS_VERSION = "statusVersion";
+
+    private final Algorithm algorithm;
+    private final JWTVerifier verifier;
+
+    // Tokens já verificados, indexados pelo SHA-256 do token e válidos até o "exp" de cada um
+    private final Cache<String, TokenClaims> verified;
+
+    public TokenService(
+            @Value("${api.security.token.secret}") String secret,
+            @Value("${vbank.security.token-cache.max-entries:100000}") long maxCachedTokens) {
+        this.algorithm = Algorithm.HMAC256(secret);
+        this.verifier = JWT.require(algorithm)
+                .withIssuer(ISSUER)
+                .build();
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxCachedTokens)
+                .expireAfter(Expiry.<String, TokenClaims>creating(
+                        (digest, token) -> Duration.between(Instant.now(), token.expiresAt())))
+                .build();
+    }
 
     public String generateToken(User user) {
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
             return JWT.create()
-                    .withIssuer("vbank-api")
+                    .withIssuer(ISSUER)
                     .withSubject(user.getEmail()) // O "Subject" é o e-mail (login)
+                    .withClaim(CLAIM_USER_ID, user.getId().toString())
+                    .withClaim(CLAIM_ACCOUNT_ID, user.getAccount().getId().toString())
+                    .withClaim(CLAIM_STATUS_VERSION, user.getAccount().getStatusVersion())
                     .withExpiresAt(genExpirationDate())
                     .sign(algorithm);
         } catch (JWTCreationException exception) {
@@ -31,20 +67,50 @@ public class TokenService {
         }
     }
 
-    public String validateToken(String token) {
+    /**
+     * Verifica assinatura, emissor e expiração do token e devolve suas claims.
+     * Tokens sem as claims de identidade (emitidos por versões anteriores) são recusados.
+     */
+    public Optional<TokenClaims> validateToken(String token) {
+        String digest = digest(token);
+        TokenClaims cached = verified.getIfPresent(digest);
+        if (cached != null && cached.expiresAt().isAfter(Instant.now())) {
+            return Optional.of(cached);
+        }
+
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            return JWT.require(algorithm)
-                    .withIssuer("vbank-api")
-                    .build()
-                    .verify(token)
-                    .getSubject();
-        } catch (JWTVerificationException exception) {
-            return "";
+            DecodedJWT decoded = verifier.verify(token);
+            String userId = decoded.getClaim(CLAIM_USER_ID).asString();
+            String accountId = decoded.getClaim(CLAIM_ACCOUNT_ID).asString();
+            Long statusVersion = decoded.getClaim(CLAIM_STATUS_VERSION).asLong();
+            if (userId == null || accountId == null || statusVersion == null || decoded.getExpiresAtAsInstant() == null) {
+                return Optional.empty();
+            }
+
+            TokenClaims claims = new TokenClaims(
+                    decoded.getSubject(),
+                    UUID.fromString(userId),
+                    UUID.fromString(accountId),
+                    statusVersion,
+                    decoded.getExpiresAtAsInstant()
+            );
+            verified.put(digest, claims);
+            return Optional.of(claims);
+        } catch (JWTVerificationException | IllegalArgumentException exception) {
+            return Optional.empty();
         }
     }
 
     private Instant genExpirationDate() {
         return LocalDateTime.now().plusHours(2).toInstant(ZoneOffset.of("-03:00"));
     }
+
+    private static String digest(String token) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
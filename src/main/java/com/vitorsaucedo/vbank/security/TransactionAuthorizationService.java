@@ -0,0 +1,154 @@
+package com.vitorsaucedo.vbank.security;
+
+import com.vitorsaucedo.vbank.entities.TransactionAuthorization;
+import com.vitorsaucedo.vbank.exceptions.InvalidPinException;
+import com.vitorsaucedo.vbank.money.Money;
+import com.vitorsaucedo.vbank.repositories.TransactionAuthorizationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Emite e valida tokens de autorização de transação (step-up).
+ *
+ * O PIN é conferido com BCrypt uma única vez em {@code POST /auth/pin}; o token emitido
+ * autoriza transferências do mesmo usuário até um valor total e uma quantidade de usos,
+ * por um tempo curto. A validação é um HMAC-SHA256, muito mais barato que o BCrypt.
+ *
+ * O formato é {@code payload.assinatura} em Base64 URL, com o payload
+ * {@code tokenId:userId:expiraEm:valorMaximo:usos}. O saldo de valor e de usos de cada
+ * token fica em {@code tb_transaction_authorizations}, descontado por um {@code UPDATE}
+ * condicional: qualquer instância aceita o token, inclusive depois de um reinício, e duas
+ * transferências concorrentes nunca gastam o mesmo saldo.
+ */
+@Service
+public class TransactionAuthorizationService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> mac;
+    private final Duration ttl;
+    private final TransactionAuthorizationRepository authorizationRepository;
+
+    public TransactionAuthorizationService(
+            TransactionAuthorizationRepository authorizationRepository,
+            @Value("${api.security.token.secret}") String secret,
+            @Value("${vbank.security.step-up.ttl:5m}") Duration ttl) {
+        // Chave derivada para que um JWT de sessão nunca seja aceito como token de transação
+        this.key = new SecretKeySpec(("step-up:" + secret).getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.mac = ThreadLocal.withInitial(this::newMac);
+        this.ttl = ttl;
+        this.authorizationRepository = authorizationRepository;
+    }
+
+    public Duration ttl() {
+        return ttl;
+    }
+
+    /**
+     * Emite um token para o usuário, que já teve o PIN conferido.
+     */
+    @Transactional
+    public String issue(UUID userId, Money maxAmount, int maxUses) {
+        UUID tokenId = UUID.randomUUID();
+        Instant expiry = Instant.now().plus(ttl);
+        long expiresAt = expiry.getEpochSecond();
+        String payload = String.join(":",
+                tokenId.toString(),
+                userId.toString(),
+                Long.toString(expiresAt),
+                maxAmount.toString(),
+                Integer.toString(maxUses));
+
+        authorizationRepository.save(new TransactionAuthorization(tokenId, userId, maxAmount.toBigDecimal(), maxUses,
+                LocalDateTime.ofInstant(expiry, ZoneId.systemDefault())));
+
+        String encodedPayload = ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return encodedPayload + "." + ENCODER.encodeToString(sign(encodedPayload));
+    }
+
+    /**
+     * Valida o token e desconta o valor e um uso da autorização.
+     *
+     * @return Identificador do token, para devolver o valor com {@link #restore} se a transferência falhar
+     * @throws InvalidPinException Se o token for inválido, expirado, de outro usuário ou sem saldo
+     */
+    @Transactional
+    public UUID consume(String token, UUID userId, Money amount) {
+        int separator = token.indexOf('.');
+        if (separator <= 0) {
+            throw invalid();
+        }
+
+        String encodedPayload = token.substring(0, separator);
+        byte[] signature;
+        String[] fields;
+        try {
+            signature = DECODER.decode(token.substring(separator + 1));
+            fields = new String(DECODER.decode(encodedPayload), StandardCharsets.UTF_8).split(":");
+        } catch (IllegalArgumentException e) {
+            throw invalid();
+        }
+
+        if (!MessageDigest.isEqual(sign(encodedPayload), signature) || fields.length != 5) {
+            throw invalid();
+        }
+        if (!fields[1].equals(userId.toString()) || Long.parseLong(fields[2]) < Instant.now().getEpochSecond()) {
+            throw invalid();
+        }
+
+        UUID tokenId = UUID.fromString(fields[0]);
+        if (authorizationRepository.consume(tokenId, userId, amount.toBigDecimal(), LocalDateTime.now()) == 0) {
+            throw new InvalidPinException("A autorização de transação expirou ou não cobre este valor. Informe o PIN novamente.");
+        }
+        return tokenId;
+    }
+
+    /**
+     * Devolve ao token o valor e o uso de uma transferência que não foi concluída.
+     */
+    @Transactional
+    public void restore(UUID tokenId, Money amount) {
+        authorizationRepository.restore(tokenId, amount.toBigDecimal());
+    }
+
+    @Transactional
+    @Scheduled(cron = "${vbank.security.step-up.purge-cron:0 */10 * * * *}")
+    public void purgeExpired() {
+        authorizationRepository.deleteAllExpiredBefore(LocalDateTime.now());
+    }
+
+    private byte[] sign(String encodedPayload) {
+        return mac.get().doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance(ALGORITHM);
+            instance.init(key);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC indisponível para tokens de transação", e);
+        }
+    }
+
+    private static InvalidPinException invalid() {
+        return new InvalidPinException("Autorização de transação inválida ou expirada.");
+    }
+}
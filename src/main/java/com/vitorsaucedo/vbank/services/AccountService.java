@@ -1,14 +1,21 @@
 package com.vitorsaucedo.vbank.services;
 
 import com.vitorsaucedo.vbank.dtos.AccountDashboardResponse;
+import com.vitorsaucedo.vbank.dtos.AuditLogRequest;
+import com.vitorsaucedo.vbank.dtos.BalanceAtResponse;
 import com.vitorsaucedo.vbank.entities.BankAccount;
+import com.vitorsaucedo.vbank.entities.enums.AccountStatus;
+import com.vitorsaucedo.vbank.exceptions.InvalidDataException;
 import com.vitorsaucedo.vbank.exceptions.ResourceNotFoundException;
 import com.vitorsaucedo.vbank.mappers.BankAccountMapper;
 import com.vitorsaucedo.vbank.repositories.BankAccountRepository;
+import com.vitorsaucedo.vbank.security.PrincipalChangedEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.UUID;
 
 @Service
@@ -17,12 +24,50 @@ public class AccountService {
 
     private final BankAccountRepository accountRepository;
     private final BankAccountMapper bankAccountMapper; // Injeção do novo Mapper
+    private final LedgerService ledgerService;
+    private final BalanceCheckpointService balanceCheckpointService;
+    private final AccountStatsService accountStatsService;
+    private final AuditLogService auditLogService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
-    public AccountDashboardResponse getDashboardData(UUID userId) {
-        BankAccount account = accountRepository.findByUserId(userId)
+    public AccountDashboardResponse getDashboardData(UUID accountId) {
+        BankAccount account = accountRepository.findById(accountId)
                 .orElseThrow(() -> new ResourceNotFoundException("Conta bancária não encontrada para o usuário informado."));
 
-        return bankAccountMapper.toDashboardResponse(account);
+        return bankAccountMapper.toDashboardResponse(account, ledgerService.availableBalance(account), accountStatsService.statsFor(accountId));
+    }
+
+    /**
+     * Saldo da conta ao final do dia informado, a partir do ponto de saldo mais próximo.
+     */
+    public BalanceAtResponse getBalanceAt(UUID accountId, LocalDate date) {
+        if (date.isAfter(LocalDate.now())) {
+            throw new InvalidDataException("at", "A data não pode ser posterior a hoje.");
+        }
+        return new BalanceAtResponse(date, balanceCheckpointService.balanceAt(accountId, date.plusDays(1).atStartOfDay()));
+    }
+
+    /**
+     * Altera o status da conta. A versão de status é incrementada, o que invalida
+     * os tokens de sessão emitidos antes da mudança.
+     */
+    @Transactional
+    public void changeStatus(UUID accountId, AccountStatus status) {
+        BankAccount account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new ResourceNotFoundException("Conta bancária", accountId.toString()));
+
+        AccountStatus previous = account.getStatus();
+        account.changeStatus(status);
+        if (previous == status) {
+            return;
+        }
+
+        eventPublisher.publishEvent(new PrincipalChangedEvent(accountId));
+        auditLogService.log(new AuditLogRequest(
+                account.getUser().getId(),
+                "ACCOUNT_STATUS_CHANGED",
+                "Status da conta alterado de " + previous + " para " + status
+        ));
     }
 }
\ No newline at end of file
@@ -0,0 +1,151 @@
+package com.vitorsaucedo.vbank.services;
+
+import com.vitorsaucedo.vbank.dtos.AccountStatsResponse;
+import com.vitorsaucedo.vbank.dtos.PeriodStatsResponse;
+import com.vitorsaucedo.vbank.entities.AccountDailyStats;
+import com.vitorsaucedo.vbank.entities.PendingCredit;
+import com.vitorsaucedo.vbank.entities.Transaction;
+import com.vitorsaucedo.vbank.repositories.AccountDailyStatsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Estatísticas de movimentação das contas exibidas no dashboard.
+ *
+ * Cada transferência concluída soma seu valor aos totais do dia em {@code tb_account_daily_stats}:
+ * a saída do pagador na mesma transação que a liquida, sobre a conta que ela já protege, e a
+ * entrada do recebedor quando o {@link LedgerService} incorpora o crédito pendente, para que a
+ * liquidação não trave nenhuma linha do recebedor. As entradas aparecem com o mesmo atraso do saldo.
+ * A leitura junta no máximo as linhas do mês corrente e dos últimos 7 dias da conta,
+ * independentemente de quantas transações ela tem.
+ */
+@Service
+@RequiredArgsConstructor
+public class AccountStatsService {
+
+    private static final Comparator<AccountDailyStats.Key> LOCK_ORDER =
+            Comparator.comparing(AccountDailyStats.Key::getAccountId).thenComparing(AccountDailyStats.Key::getDay);
+
+    private final AccountDailyStatsRepository dailyStatsRepository;
+
+    @Value("${vbank.dashboard.stats.retention-days:40}")
+    private int retentionDays;
+
+    /**
+     * Soma as transações concluídas aos totais diários de saída do pagador.
+     * Deve participar da mesma transação que as liquidou.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Transaction transaction) {
+        recordAll(List.of(transaction));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(List<Transaction> transactions) {
+        // Agrupadas e gravadas sempre na mesma ordem, para que transações concorrentes que
+        // tocam as mesmas linhas esperem umas pelas outras em vez de entrar em deadlock
+        Map<AccountDailyStats.Key, AccountDailyStats> totals = new TreeMap<>(LOCK_ORDER);
+        for (Transaction transaction : transactions) {
+            LocalDate day = transaction.getCreatedAt() != null ? transaction.getCreatedAt().toLocalDate() : LocalDate.now();
+            BigDecimal amount = transaction.getAmount().toBigDecimal();
+
+            AccountDailyStats outbound = totals(totals, transaction.getPayer().getId(), day);
+            outbound.setOutboundCount(outbound.getOutboundCount() + 1);
+            outbound.setOutboundAmount(outbound.getOutboundAmount().add(amount));
+        }
+        increment(totals);
+    }
+
+    /**
+     * Soma os créditos incorporados ao saldo aos totais diários de entrada da conta, pelo dia
+     * em que cada crédito foi lançado. Deve participar da transação que os incorporou, com a
+     * conta protegida pela estratégia de concorrência.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordInbound(UUID accountId, List<PendingCredit> credits) {
+        Map<AccountDailyStats.Key, AccountDailyStats> totals = new TreeMap<>(LOCK_ORDER);
+        for (PendingCredit credit : credits) {
+            LocalDate day = credit.getCreatedAt() != null ? credit.getCreatedAt().toLocalDate() : LocalDate.now();
+            AccountDailyStats inbound = totals(totals, accountId, day);
+            inbound.setInboundCount(inbound.getInboundCount() + 1);
+            inbound.setInboundAmount(inbound.getInboundAmount().add(credit.getAmount()));
+        }
+        increment(totals);
+    }
+
+    private void increment(Map<AccountDailyStats.Key, AccountDailyStats> totals) {
+        for (AccountDailyStats day : totals.values()) {
+            dailyStatsRepository.increment(day.getAccountId(), day.getDay(),
+                    day.getInboundCount(), day.getInboundAmount(),
+                    day.getOutboundCount(), day.getOutboundAmount());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public AccountStatsResponse statsFor(UUID accountId) {
+        LocalDate today = LocalDate.now();
+        LocalDate weekStart = today.minusDays(6);
+        LocalDate monthStart = today.withDayOfMonth(1);
+        LocalDate from = weekStart.isBefore(monthStart) ? weekStart : monthStart;
+
+        Totals day = new Totals();
+        Totals week = new Totals();
+        Totals month = new Totals();
+        for (AccountDailyStats stats : dailyStatsRepository.findAllByAccountIdAndDayGreaterThanEqual(accountId, from)) {
+            if (stats.getDay().isAfter(today)) {
+                continue;
+            }
+            if (stats.getDay().equals(today)) {
+                day.add(stats);
+            }
+            if (!stats.getDay().isBefore(weekStart)) {
+                week.add(stats);
+            }
+            if (!stats.getDay().isBefore(monthStart)) {
+                month.add(stats);
+            }
+        }
+        return new AccountStatsResponse(day.toResponse(), week.toResponse(), month.toResponse());
+    }
+
+    @Transactional
+    @Scheduled(cron = "${vbank.dashboard.stats.purge-cron:0 30 3 * * *}")
+    public void purgeExpired() {
+        dailyStatsRepository.deleteAllBefore(LocalDate.now().minusDays(retentionDays));
+    }
+
+    private static AccountDailyStats totals(Map<AccountDailyStats.Key, AccountDailyStats> totals, UUID accountId, LocalDate day) {
+        return totals.computeIfAbsent(new AccountDailyStats.Key(accountId, day),
+                key -> new AccountDailyStats(accountId, day, 0, BigDecimal.ZERO, 0, BigDecimal.ZERO));
+    }
+
+    private static final class Totals {
+        private BigDecimal inboundAmount = BigDecimal.ZERO;
+        private long inboundCount;
+        private BigDecimal outboundAmount = BigDecimal.ZERO;
+        private long outboundCount;
+
+        private void add(AccountDailyStats stats) {
+            inboundAmount = inboundAmount.add(stats.getInboundAmount());
+            inboundCount += stats.getInboundCount();
+            outboundAmount = outboundAmount.add(stats.getOutboundAmount());
+            outboundCount += stats.getOutboundCount();
+        }
+
+        private PeriodStatsResponse toResponse() {
+            return new PeriodStatsResponse(inboundAmount, inboundCount, outboundAmount, outboundCount);
+        }
+    }
+}
@@ -4,9 +4,12 @@ import com.vitorsaucedo.vbank.dtos.AuditLogRequest;
 import com.vitorsaucedo.vbank.entities.AuditLog;
 import com.vitorsaucedo.vbank.mappers.AuditLogMapper;
 import com.vitorsaucedo.vbank.repositories.AuditLogRepository;
+import com.vitorsaucedo.vbank.services.audit.AuditLogAppender;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.UUID;
@@ -17,9 +20,33 @@ public class AuditLogService {
 
     private final AuditLogRepository auditLogRepository;
     private final AuditLogMapper auditLogMapper;
+    private final AuditLogAppender auditLogAppender;
 
-    @Transactional
+    /**
+     * Registra o evento de forma assíncrona, sem adicionar um insert à transação do chamador.
+     *
+     * Dentro de uma transação o evento só é enfileirado após o commit, então uma
+     * operação desfeita não deixa rastro de auditoria.
+     */
     public void log(AuditLogRequest request) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append(request);
+                }
+            });
+            return;
+        }
+        append(request);
+    }
+
+    /**
+     * Registra o evento na transação do chamador, para eventos que precisam ser
+     * gravados atomicamente com a operação de negócio (ex: {@code PIX_SENT}).
+     */
+    @Transactional
+    public void logSync(AuditLogRequest request) {
         AuditLog auditLog = auditLogMapper.toEntity(request);
         auditLogRepository.save(auditLog);
     }
@@ -28,4 +55,8 @@ public class AuditLogService {
     public List<AuditLog> findByUserId(UUID userId) {
         return auditLogRepository.findAllByUserIdOrderByCreatedAtDesc(userId);
     }
-}
\ No newline at end of file
+
+    private void append(AuditLogRequest request) {
+        auditLogAppender.append(request.userId(), request.action(), request.details());
+    }
+}
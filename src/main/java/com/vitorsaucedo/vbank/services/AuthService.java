@@ -3,6 +3,8 @@ package com.vitorsaucedo.vbank.services;
 import com.vitorsaucedo.vbank.dtos.AuditLogRequest;
 import com.vitorsaucedo.vbank.dtos.LoginRequest;
 import com.vitorsaucedo.vbank.dtos.LoginResponse;
+import com.vitorsaucedo.vbank.dtos.PinAuthorizationRequest;
+import com.vitorsaucedo.vbank.dtos.PinAuthorizationResponse;
 import com.vitorsaucedo.vbank.dtos.UserRegistrationRequest;
 import com.vitorsaucedo.vbank.dtos.UserResponse;
 import com.vitorsaucedo.vbank.entities.BankAccount;
@@ -10,32 +12,96 @@ import com.vitorsaucedo.vbank.entities.User;
 import com.vitorsaucedo.vbank.exceptions.DuplicateResourceException;
 import com.vitorsaucedo.vbank.exceptions.InvalidCredentialsException;
 import com.vitorsaucedo.vbank.exceptions.InvalidDataException;
+import com.vitorsaucedo.vbank.exceptions.InvalidPinException;
+import com.vitorsaucedo.vbank.exceptions.ResourceNotFoundException;
 import com.vitorsaucedo.vbank.mappers.UserMapper;
+import com.vitorsaucedo.vbank.money.Money;
+import com.vitorsaucedo.vbank.pix.PixFormats;
 import com.vitorsaucedo.vbank.repositories.UserRepository;
+import com.vitorsaucedo.vbank.security.PasswordHashingExecutor;
+import com.vitorsaucedo.vbank.security.PasswordHashingExecutor.Lane;
 import com.vitorsaucedo.vbank.security.TokenService;
+import com.vitorsaucedo.vbank.security.TransactionAuthorizationService;
+import com.vitorsaucedo.vbank.services.account.AccountNumberAllocator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
-import java.util.Random;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashingExecutor;
     private final AuditLogService auditLogService;
     private final UserMapper userMapper;
+    private final AccountNumberAllocator accountNumberAllocator;
 
     private final AuthenticationManager authenticationManager;
     private final TokenService tokenService;
+    private final TransactionAuthorizationService transactionAuthorizationService;
+
+    @Value("${vbank.security.step-up.max-amount:50000.00}")
+    private Money maxStepUpAmount;
+
+    /**
+     * Confere o PIN de transação uma única vez e emite um token de step-up que autoriza
+     * as próximas transferências até o valor e a quantidade de usos pedidos.
+     *
+     * Sem transação: o {@code INVALID_PIX_PIN} é registrado na hora, e não após um commit
+     * que nunca aconteceria com a {@link InvalidPinException} desfazendo a transação.
+     */
+    public PinAuthorizationResponse authorizePin(PinAuthorizationRequest request, UUID userId) {
+        if (!request.maxAmount().isPositive()) {
+            throw new InvalidDataException(
+                    "maxAmount",
+                    "O valor máximo deve ser maior que zero"
+            );
+        }
+
+        if (request.maxAmount().isGreaterThan(maxStepUpAmount)) {
+            throw new InvalidDataException(
+                    "maxAmount",
+                    String.format("O valor máximo autorizado por token é R$ %s", maxStepUpAmount)
+            );
+        }
+
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuário", userId.toString()));
+
+        if (!passwordHashingExecutor.matches(Lane.TRANSACTION_PIN, request.transactionPin(), user.getTransactionPin())) {
+            auditLogService.log(new AuditLogRequest(
+                    userId,
+                    "INVALID_PIX_PIN",
+                    "Tentativa de autorização de transações com PIN incorreto"
+            ));
+            throw new InvalidPinException();
+        }
+
+        String token = transactionAuthorizationService.issue(userId, request.maxAmount(), request.maxUses());
+
+        auditLogService.log(new AuditLogRequest(
+                userId,
+                "PIN_AUTHORIZED",
+                String.format("Autorização de até %d transferência(s), total de R$ %s",
+                        request.maxUses(),
+                        request.maxAmount())
+        ));
+
+        return new PinAuthorizationResponse(
+                token,
+                transactionAuthorizationService.ttl().toSeconds(),
+                request.maxAmount(),
+                request.maxUses()
+        );
+    }
 
     public LoginResponse login(LoginRequest request) {
         try {
@@ -44,7 +110,7 @@ public class AuthService {
                     request.password()
             );
 
-            var auth = this.authenticationManager.authenticate(usernamePassword);
+            var auth = passwordHashingExecutor.execute(Lane.AUTHENTICATION, () -> this.authenticationManager.authenticate(usernamePassword));
             var user = (User) auth.getPrincipal();
             var token = tokenService.generateToken(user);
 
@@ -69,8 +135,8 @@ public class AuthService {
         validateRegistrationData(request);
 
         User user = userMapper.toEntity(request);
-        user.setPassword(passwordEncoder.encode(request.password()));
-        user.setTransactionPin(passwordEncoder.encode(request.transactionPin()));
+        user.setPassword(passwordHashingExecutor.encode(Lane.AUTHENTICATION, request.password()));
+        user.setTransactionPin(passwordHashingExecutor.encode(Lane.AUTHENTICATION, request.transactionPin()));
 
         createAutomaticAccount(user);
 
@@ -94,9 +160,10 @@ public class AuthService {
         }
     }
 
-    private void validateRegistrationData(UserRegistrationRequest request) {
+    // Também aplicada a cada linha da importação em lote (OnboardingImportService)
+    void validateRegistrationData(UserRegistrationRequest request) {
         // Validação de CPF (11 dígitos sem formatação)
-        String cleanDocument = request.document().replaceAll("\\D", "");
+        String cleanDocument = PixFormats.digits(request.document());
         if (cleanDocument.length() != 11 && cleanDocument.length() != 14) {
             throw new InvalidDataException(
                     "document",
@@ -104,6 +171,13 @@ public class AuthService {
             );
         }
 
+        if (!PixFormats.isValidDocument(cleanDocument)) {
+            throw new InvalidDataException(
+                    "document",
+                    "Documento inválido. Verifique os dígitos verificadores."
+            );
+        }
+
         if (request.password() == null || request.password().length() < 6) {
             throw new InvalidDataException(
                     "password",
@@ -111,7 +185,7 @@ public class AuthService {
             );
         }
 
-        if (request.transactionPin() == null || !request.transactionPin().matches("\\d{4}")) {
+        if (request.transactionPin() == null || !PixFormats.isPin(request.transactionPin())) {
             throw new InvalidDataException(
                     "transactionPin",
                     "O PIN de transação deve conter exatamente 4 dígitos numéricos."
@@ -125,7 +199,7 @@ public class AuthService {
             );
         }
 
-        if (request.email() == null || !request.email().matches("^[A-Za-z0-9+_.-]+@(.+)$")) {
+        if (request.email() == null || !PixFormats.isEmail(request.email())) {
             throw new InvalidDataException(
                     "email",
                     "Email inválido."
@@ -135,14 +209,10 @@ public class AuthService {
 
     private void createAutomaticAccount(User user) {
         BankAccount account = new BankAccount();
-        account.setAccountNumber(generateAccountNumber());
-        account.setBalance(BigDecimal.ZERO);
+        account.setAccountNumber(accountNumberAllocator.next());
+        account.setBalance(Money.ZERO);
         account.setAgency("0001"); // Agência padrão
         account.setUser(user);
         user.setAccount(account);
     }
-
-    private String generateAccountNumber() {
-        return String.valueOf(new Random().nextInt(900000) + 100000);
-    }
 }
\ No newline at end of file
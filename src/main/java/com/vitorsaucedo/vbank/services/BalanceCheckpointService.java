@@ -0,0 +1,171 @@
+package com.vitorsaucedo.vbank.services;
+
+import com.vitorsaucedo.vbank.entities.BalanceCheckpoint;
+import com.vitorsaucedo.vbank.entities.enums.BalanceCheckpointPeriod;
+import com.vitorsaucedo.vbank.repositories.BalanceCheckpointRepository;
+import com.vitorsaucedo.vbank.repositories.StatementEntryRepository;
+import com.vitorsaucedo.vbank.repositories.StatementEntryRepository.BalanceChangeView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Saldo das contas em qualquer instante, a partir de pontos registrados nas viradas de dia e de mês.
+ *
+ * Uma tarefa agendada percorre os dias já fechados em ordem e grava, para cada conta que teve
+ * movimentação no dia, o saldo na virada seguinte: o ponto anterior da conta somado à variação
+ * do dia. Como todo dia com movimentação tem ponto, o saldo em um instante é o ponto mais
+ * recente anterior a ele somado às linhas de extrato do próprio dia. Depois do período de
+ * retenção, os pontos diários de cada mês são trocados por um único ponto na virada do mês e
+ * a leitura passa a somar no máximo um mês de linhas.
+ *
+ * O primeiro ponto de cada conta é o saldo de abertura, na origem {@code 1970-01-01} (migração
+ * V10): o saldo que a conta já tinha fora do extrato. Contas abertas depois começam em zero.
+ *
+ * Um dia só é processado depois de {@code settle-lag}: linhas criadas depois com data anterior
+ * (liquidações assíncronas muito atrasadas) não entram nos pontos já gravados.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BalanceCheckpointService {
+
+    private static final LocalDateTime EARLIEST = LocalDate.of(1970, 1, 1).atStartOfDay();
+    private static final int LOOKUP_CHUNK_SIZE = 500;
+
+    private final BalanceCheckpointRepository checkpointRepository;
+    private final StatementEntryRepository statementEntryRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${vbank.balance.checkpoint.settle-lag:1h}")
+    private Duration settleLag;
+
+    @Value("${vbank.balance.checkpoint.max-days-per-run:31}")
+    private int maxDaysPerRun;
+
+    @Value("${vbank.balance.checkpoint.day-retention-days:90}")
+    private int dayRetentionDays;
+
+    /**
+     * Saldo da conta considerando tudo o que foi criado antes de {@code at}.
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal balanceAt(UUID accountId, LocalDateTime at) {
+        Optional<BalanceCheckpoint> checkpoint =
+                checkpointRepository.findFirstByAccountIdAndAsOfLessThanEqualOrderByAsOfDesc(accountId, at);
+
+        LocalDateTime from = checkpoint.map(BalanceCheckpoint::getAsOf).orElse(EARLIEST);
+        BigDecimal base = checkpoint.map(BalanceCheckpoint::getBalance).orElse(BigDecimal.ZERO);
+        return base.add(statementEntryRepository.sumBalanceChange(accountId, from, at));
+    }
+
+    @Scheduled(fixedDelayString = "${vbank.balance.checkpoint.interval-ms:600000}")
+    public void checkpoint() {
+        LocalDateTime closedUntil = LocalDateTime.now().minus(settleLag).toLocalDate().atStartOfDay();
+        LocalDateTime latest = checkpointRepository.findLatestAsOf();
+        LocalDateTime next = latest != null ? latest : EARLIEST;
+
+        for (int day = 0; day < maxDaysPerRun; day++) {
+            // Pula de uma vez os dias sem nenhuma movimentação
+            LocalDateTime firstActivity = statementEntryRepository.findFirstCreatedAtFrom(next);
+            if (firstActivity == null) {
+                break;
+            }
+            LocalDateTime dayStart = firstActivity.toLocalDate().atStartOfDay();
+            LocalDateTime dayEnd = dayStart.plusDays(1);
+            if (dayEnd.isAfter(closedUntil) || !checkpointDay(dayStart, dayEnd)) {
+                break;
+            }
+            next = dayEnd;
+        }
+
+        compactMonths();
+    }
+
+    /**
+     * Grava o saldo na virada {@code dayEnd} de cada conta que teve movimentação no dia.
+     *
+     * @return {@code false} quando outra instância já gravou o dia
+     */
+    private boolean checkpointDay(LocalDateTime dayStart, LocalDateTime dayEnd) {
+        BalanceCheckpointPeriod period = dayEnd.getDayOfMonth() == 1 ? BalanceCheckpointPeriod.MONTH : BalanceCheckpointPeriod.DAY;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<BalanceChangeView> changes = statementEntryRepository.sumBalanceChangeByAccount(dayStart, dayEnd);
+                Map<UUID, BigDecimal> previous = latestBalances(changes.stream().map(BalanceChangeView::getAccountId).toList(), dayStart);
+
+                List<BalanceCheckpoint> checkpoints = new ArrayList<>(changes.size());
+                for (BalanceChangeView change : changes) {
+                    BigDecimal balance = previous.getOrDefault(change.getAccountId(), BigDecimal.ZERO).add(change.getChange());
+                    checkpoints.add(new BalanceCheckpoint(change.getAccountId(), dayEnd, period, balance));
+                }
+                checkpointRepository.saveAll(checkpoints);
+            });
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Pontos de saldo de {} já gravados por outra instância", dayStart.toLocalDate());
+            return false;
+        }
+    }
+
+    private Map<UUID, BigDecimal> latestBalances(List<UUID> accountIds, LocalDateTime asOf) {
+        Map<UUID, BigDecimal> balances = new HashMap<>(accountIds.size() * 2);
+        for (int start = 0; start < accountIds.size(); start += LOOKUP_CHUNK_SIZE) {
+            List<UUID> chunk = accountIds.subList(start, Math.min(start + LOOKUP_CHUNK_SIZE, accountIds.size()));
+            for (BalanceCheckpoint checkpoint : checkpointRepository.findLatestByAccountIds(chunk, asOf)) {
+                balances.put(checkpoint.getAccountId(), checkpoint.getBalance());
+            }
+        }
+        return balances;
+    }
+
+    /**
+     * Troca os pontos diários dos meses fora do período de retenção por um ponto na virada do
+     * mês, com o saldo do último dia movimentado de cada conta. Só compacta meses já processados.
+     */
+    private void compactMonths() {
+        LocalDateTime retainedFrom = LocalDate.now().minusDays(dayRetentionDays).withDayOfMonth(1).atStartOfDay();
+        LocalDateTime processedUntil = checkpointRepository.findLatestAsOf();
+        if (processedUntil == null) {
+            return;
+        }
+        LocalDateTime limit = processedUntil.isBefore(retainedFrom) ? processedUntil : retainedFrom;
+
+        LocalDateTime earliest = checkpointRepository.findEarliestDayAsOf();
+        while (earliest != null) {
+            LocalDateTime monthStart = earliest.toLocalDate().withDayOfMonth(1).atStartOfDay();
+            LocalDateTime monthEnd = monthStart.plusMonths(1);
+            if (monthEnd.isAfter(limit)) {
+                return;
+            }
+
+            int accounts = transactionTemplate.execute(status -> {
+                List<BalanceCheckpoint> monthly = checkpointRepository.findLastDayOfMonth(monthStart, monthEnd).stream()
+                        .map(last -> new BalanceCheckpoint(last.getAccountId(), monthEnd, BalanceCheckpointPeriod.MONTH, last.getBalance()))
+                        .toList();
+                checkpointRepository.saveAll(monthly);
+                checkpointRepository.deleteDaysOfMonth(monthStart, monthEnd);
+                return monthly.size();
+            });
+            log.info("Pontos diários de saldo de {} compactados ({} conta(s))", monthStart.toLocalDate().withDayOfMonth(1), accounts);
+
+            earliest = checkpointRepository.findEarliestDayAsOf();
+        }
+    }
+}
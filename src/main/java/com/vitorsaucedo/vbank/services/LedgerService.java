@@ -0,0 +1,148 @@
+package com.vitorsaucedo.vbank.services;
+
+import com.vitorsaucedo.vbank.entities.BankAccount;
+import com.vitorsaucedo.vbank.entities.LedgerEntry;
+import com.vitorsaucedo.vbank.entities.PendingCredit;
+import com.vitorsaucedo.vbank.entities.Transaction;
+import com.vitorsaucedo.vbank.entities.enums.LedgerEntryType;
+import com.vitorsaucedo.vbank.money.Money;
+import com.vitorsaucedo.vbank.repositories.BankAccountRepository;
+import com.vitorsaucedo.vbank.repositories.LedgerEntryRepository;
+import com.vitorsaucedo.vbank.repositories.PendingCreditRepository;
+import com.vitorsaucedo.vbank.services.transfer.TransferConcurrencyStrategy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Livro razão de partidas dobradas e projeção de saldo das contas.
+ *
+ * Cada transação gera um lançamento de débito na conta pagadora e um de crédito na
+ * recebedora em {@code tb_ledger_entries}, que nunca é alterado. O saldo em
+ * {@link BankAccount#getBalance()} passa a ser uma projeção desse diário:
+ * - débitos são aplicados na hora, com a conta pagadora protegida pela estratégia de concorrência
+ * - créditos entram em {@code tb_pending_credits} e são incorporados depois, sem travar a conta recebedora
+ *
+ * O saldo disponível de uma conta é o saldo projetado somado aos créditos pendentes.
+ * Saldos anteriores ao diário entram como um lançamento de abertura por conta
+ * ({@link LedgerEntryType#OPENING}, gravado pela migração V9).
+ */
+@Service
+@RequiredArgsConstructor
+public class LedgerService {
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final PendingCreditRepository pendingCreditRepository;
+    private final BankAccountRepository accountRepository;
+    private final TransferConcurrencyStrategy concurrencyStrategy;
+    private final AccountStatsService accountStatsService;
+
+    @Value("${vbank.ledger.projection.batch-size:500}")
+    private int projectionBatchSize;
+
+    /**
+     * Grava os dois lançamentos da transação e o crédito pendente do recebedor.
+     * Deve participar da mesma transação que debitou a conta pagadora.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Transaction transaction) {
+        recordAll(List.of(transaction));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(List<Transaction> transactions) {
+        List<LedgerEntry> entries = new ArrayList<>(transactions.size() * 2);
+        List<PendingCredit> credits = new ArrayList<>(transactions.size());
+
+        for (Transaction transaction : transactions) {
+            UUID payeeAccountId = transaction.getPayee().getId();
+            entries.add(entry(transaction, transaction.getPayer().getId(), LedgerEntryType.DEBIT));
+            entries.add(entry(transaction, payeeAccountId, LedgerEntryType.CREDIT));
+
+            PendingCredit credit = new PendingCredit();
+            credit.setAccountId(payeeAccountId);
+            credit.setTransactionId(transaction.getId());
+            credit.setAmount(transaction.getAmount().toBigDecimal());
+            credits.add(credit);
+        }
+
+        ledgerEntryRepository.saveAll(entries);
+        pendingCreditRepository.saveAll(credits);
+    }
+
+    /**
+     * Saldo disponível: saldo projetado mais créditos ainda não incorporados.
+     */
+    @Transactional(readOnly = true)
+    public Money availableBalance(BankAccount account) {
+        return Money.of(pendingCreditRepository.availableBalance(account.getId()));
+    }
+
+    /**
+     * Incorpora ao saldo os créditos pendentes de uma conta que já está protegida
+     * pela estratégia de concorrência na transação corrente, somando-os também aos
+     * totais diários de entrada.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyPendingCredits(BankAccount account) {
+        List<PendingCredit> pending = pendingCreditRepository.findAllByAccountId(account.getId());
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Money total = Money.ZERO;
+        for (PendingCredit credit : pending) {
+            total = total.plus(Money.of(credit.getAmount()));
+        }
+
+        account.deposit(total);
+        accountStatsService.recordInbound(account.getId(), pending);
+        pendingCreditRepository.deleteAllInBatch(pending);
+    }
+
+    @Scheduled(fixedDelayString = "${vbank.ledger.projection.interval-ms:500}")
+    public void projectPendingCredits() {
+        List<UUID> accountIds = pendingCreditRepository.findAccountIdsWithPendingCredits(Limit.of(projectionBatchSize));
+        for (UUID accountId : accountIds) {
+            concurrencyStrategy.execute(List.of(accountId), accounts -> {
+                applyPendingCredits(accounts.get(accountId));
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Reconstrói o saldo projetado de todas as contas a partir do diário: saldo de abertura
+     * somado aos créditos e subtraído dos débitos.
+     *
+     * Operação de manutenção: deve ser executada com o tráfego de transferências pausado.
+     */
+    public void rebuildBalances() {
+        for (UUID accountId : accountRepository.findAllIds()) {
+            concurrencyStrategy.execute(List.of(accountId), accounts -> {
+                accounts.get(accountId).setBalance(Money.of(ledgerEntryRepository.computeBalance(accountId)));
+                // O diário já conta os créditos pendentes; só as entradas do dia ainda não os viram
+                accountStatsService.recordInbound(accountId, pendingCreditRepository.findAllByAccountId(accountId));
+                pendingCreditRepository.deleteAllByAccountId(accountId);
+                return null;
+            });
+        }
+    }
+
+    private LedgerEntry entry(Transaction transaction, UUID accountId, LedgerEntryType type) {
+        LedgerEntry entry = new LedgerEntry();
+        entry.setTransactionId(transaction.getId());
+        entry.setAccountId(accountId);
+        entry.setEntryType(type);
+        entry.setAmount(transaction.getAmount().toBigDecimal());
+        return entry;
+    }
+}
@@ -0,0 +1,416 @@
+package com.vitorsaucedo.vbank.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.vitorsaucedo.vbank.dtos.UserRegistrationRequest;
+import com.vitorsaucedo.vbank.exceptions.DuplicateResourceException;
+import com.vitorsaucedo.vbank.exceptions.InvalidDataException;
+import com.vitorsaucedo.vbank.repositories.UserRepository;
+import com.vitorsaucedo.vbank.services.account.AccountNumberAllocator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Importa em lote clientes de um parceiro, a partir de um arquivo CSV ou NDJSON.
+ *
+ * Cada linha é um {@link UserRegistrationRequest} e passa pelas mesmas regras do cadastro
+ * ({@code POST /auth/register}): as anotações do DTO e {@link AuthService#validateRegistrationData}.
+ * O arquivo é lido em blocos de {@code vbank.onboarding.import.chunk-size} linhas e, por bloco:
+ * - e-mails e documentos repetidos são procurados no bloco e no banco com uma consulta cada;
+ * - senhas e PINs são cifrados em paralelo, em todos os núcleos;
+ * - usuários, contas e eventos de auditoria são gravados com batch JDBC em uma transação.
+ *
+ * Blocos já gravados não são desfeitos se a importação parar no meio: rodar de novo o mesmo
+ * arquivo recusa como duplicadas as linhas que já entraram. As linhas recusadas vão para um
+ * relatório em NDJSON, com o número da linha e o motivo.
+ *
+ * Feita para rodar com o tráfego pausado ({@code OnboardingImportCommand}): o hashing não
+ * passa pelas filas limitadas de {@code PasswordHashingExecutor}.
+ */
+@Slf4j
+@Service
+public class OnboardingImportService {
+
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO tb_users (id, full_name, document, email, password, transaction_pin, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ACCOUNT_SQL =
+            "INSERT INTO tb_accounts (id, user_id, agency, account_number, balance, status, version, status_version) " +
+            "VALUES (?, ?, '0001', ?, 0, 'ACTIVE', 0, 0)";
+    private static final String INSERT_AUDIT_SQL =
+            "INSERT INTO tb_audit_logs (id, user_id, action, details, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final List<String> CSV_COLUMNS = List.of("fullName", "document", "email", "password", "transactionPin");
+    private static final Duration PROGRESS_INTERVAL = Duration.ofSeconds(10);
+
+    private final AuthService authService;
+    private final UserRepository userRepository;
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader requestReader;
+    private final int chunkSize;
+    private final int hashingThreads;
+
+    public OnboardingImportService(
+            AuthService authService,
+            UserRepository userRepository,
+            AccountNumberAllocator accountNumberAllocator,
+            PasswordEncoder passwordEncoder,
+            Validator validator,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            @Value("${vbank.onboarding.import.chunk-size:1000}") int chunkSize,
+            @Value("${vbank.onboarding.import.hashing-threads:0}") int hashingThreads) {
+        this.authService = authService;
+        this.userRepository = userRepository;
+        this.accountNumberAllocator = accountNumberAllocator;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        // Colunas extras do parceiro são ignoradas, como campos desconhecidos no cadastro HTTP
+        this.requestReader = objectMapper.readerFor(UserRegistrationRequest.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.hashingThreads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+    }
+
+    public record Result(long rows, long imported, long rejected, Duration elapsed) {}
+
+    private record Row(long line, UserRegistrationRequest request) {}
+
+    private record NewUser(Row row, UUID userId, UUID accountId, String accountNumber, String password, String transactionPin) {}
+
+    private record Rejection(long line, String message) {}
+
+    /**
+     * Importa {@code file}; arquivos terminados em {@code .csv} são lidos como CSV, com cabeçalho
+     * ({@code fullName,document,email,password,transactionPin}), e os demais como NDJSON.
+     *
+     * @param report Arquivo em que as linhas recusadas são escritas, substituído se existir
+     */
+    public Result importFile(Path file, Path report) throws IOException {
+        boolean csv = file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv");
+        Progress progress = new Progress();
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+             BufferedWriter rejections = Files.newBufferedWriter(report, StandardCharsets.UTF_8);
+             ExecutorService hashing = Executors.newFixedThreadPool(hashingThreads,
+                     Thread.ofPlatform().name("onboarding-hash-", 0).daemon().factory())) {
+
+            long line = 0;
+            int[] columns = null;
+            if (csv) {
+                line++;
+                columns = csvColumns(reader.readLine());
+            }
+
+            List<Row> chunk = new ArrayList<>(chunkSize);
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                progress.rows++;
+                try {
+                    chunk.add(new Row(line, csv ? fromCsv(text, columns) : fromJson(text)));
+                } catch (InvalidDataException e) {
+                    reject(rejections, progress, new Rejection(line, e.getMessage()));
+                }
+
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, hashing, rejections, progress);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, hashing, rejections, progress);
+            }
+        }
+
+        Result result = new Result(progress.rows, progress.imported, progress.rejected, progress.elapsed());
+        log.info("Importação de clientes concluída: {} linha(s), {} importada(s), {} recusada(s) em {} s; recusas em {}",
+                result.rows(), result.imported(), result.rejected(), result.elapsed().toSeconds(), report);
+        return result;
+    }
+
+    private void importChunk(List<Row> chunk, ExecutorService hashing, BufferedWriter rejections, Progress progress) throws IOException {
+        List<Row> valid = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            String problem = validate(row.request());
+            if (problem != null) {
+                reject(rejections, progress, new Rejection(row.line(), problem));
+            } else {
+                valid.add(row);
+            }
+        }
+
+        List<Row> unique = removeDuplicates(valid, rejections, progress);
+        List<NewUser> users = hash(unique, hashing);
+        insert(users, rejections, progress);
+
+        if (progress.shouldReport()) {
+            log.info("Importação de clientes: {} linha(s) lida(s), {} importada(s), {} recusada(s)",
+                    progress.rows, progress.imported, progress.rejected);
+        }
+    }
+
+    // Mesma ordem de verificação do cadastro: anotações do DTO, depois as regras do AuthService
+    private String validate(UserRegistrationRequest request) {
+        Set<ConstraintViolation<UserRegistrationRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<UserRegistrationRequest> first = violations.stream()
+                    .min(Comparator.comparing(violation -> CSV_COLUMNS.indexOf(violation.getPropertyPath().toString())))
+                    .orElseThrow();
+            return new InvalidDataException(first.getPropertyPath().toString(), first.getMessage()).getMessage();
+        }
+        try {
+            authService.validateRegistrationData(request);
+            return null;
+        } catch (InvalidDataException e) {
+            return e.getMessage();
+        }
+    }
+
+    // Repetidos dentro do bloco e já cadastrados, estes com uma consulta por campo
+    private List<Row> removeDuplicates(List<Row> rows, BufferedWriter rejections, Progress progress) throws IOException {
+        if (rows.isEmpty()) {
+            return rows;
+        }
+        Set<String> documents = new HashSet<>(rows.size() * 2);
+        Set<String> emails = new HashSet<>(rows.size() * 2);
+        for (Row row : rows) {
+            documents.add(row.request().document());
+            emails.add(row.request().email());
+        }
+        Set<String> taken = new HashSet<>(userRepository.findExistingDocuments(documents));
+        taken.addAll(userRepository.findExistingEmails(emails));
+
+        // Reaproveitados para o que já foi aceito neste bloco
+        documents.clear();
+        emails.clear();
+        List<Row> unique = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            UserRegistrationRequest request = row.request();
+            if (taken.contains(request.document()) || !documents.add(request.document())) {
+                reject(rejections, progress, new Rejection(row.line(), new DuplicateResourceException("Usuário", "documento").getMessage()));
+            } else if (taken.contains(request.email()) || !emails.add(request.email())) {
+                documents.remove(request.document());
+                reject(rejections, progress, new Rejection(row.line(), new DuplicateResourceException("Usuário", "email").getMessage()));
+            } else {
+                unique.add(row);
+            }
+        }
+        return unique;
+    }
+
+    // BCrypt domina o custo da importação: senha e PIN de cada linha viram tarefas independentes
+    private List<NewUser> hash(List<Row> rows, ExecutorService hashing) {
+        List<Future<String>> passwords = new ArrayList<>(rows.size());
+        List<Future<String>> pins = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            passwords.add(hashing.submit(() -> passwordEncoder.encode(row.request().password())));
+            pins.add(hashing.submit(() -> passwordEncoder.encode(row.request().transactionPin())));
+        }
+
+        List<NewUser> users = new ArrayList<>(rows.size());
+        try {
+            for (int i = 0; i < rows.size(); i++) {
+                users.add(new NewUser(rows.get(i), UUID.randomUUID(), UUID.randomUUID(), accountNumberAllocator.next(),
+                        passwords.get(i).get(), pins.get(i).get()));
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha ao cifrar senha ou PIN na importação", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Importação interrompida", e);
+        }
+        return users;
+    }
+
+    private void insert(List<NewUser> users, BufferedWriter rejections, Progress progress) throws IOException {
+        if (users.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertBatch(users));
+            progress.imported += users.size();
+        } catch (DataIntegrityViolationException e) {
+            // Um cadastro concorrente tomou um e-mail ou documento depois da verificação, ou um
+            // valor excede a coluna: grava linha a linha para recusar só as afetadas
+            for (NewUser user : users) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insertBatch(List.of(user)));
+                    progress.imported++;
+                } catch (DuplicateKeyException conflict) {
+                    reject(rejections, progress, new Rejection(user.row().line(),
+                            new DuplicateResourceException("Usuário", "documento ou email").getMessage()));
+                } catch (DataIntegrityViolationException invalid) {
+                    reject(rejections, progress, new Rejection(user.row().line(),
+                            "Recusada pelo banco: " + invalid.getMostSpecificCause().getMessage()));
+                }
+            }
+        }
+    }
+
+    private void insertBatch(List<NewUser> users) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_USER_SQL, users, users.size(), (ps, user) -> {
+            UserRegistrationRequest request = user.row().request();
+            ps.setObject(1, user.userId());
+            ps.setString(2, request.fullName());
+            ps.setString(3, request.document());
+            ps.setString(4, request.email());
+            ps.setString(5, user.password());
+            ps.setString(6, user.transactionPin());
+            ps.setTimestamp(7, now);
+        });
+        jdbcTemplate.batchUpdate(INSERT_ACCOUNT_SQL, users, users.size(), (ps, user) -> {
+            ps.setObject(1, user.accountId());
+            ps.setObject(2, user.userId());
+            ps.setString(3, user.accountNumber());
+        });
+        jdbcTemplate.batchUpdate(INSERT_AUDIT_SQL, users, users.size(), (ps, user) -> {
+            ps.setObject(1, UUID.randomUUID());
+            ps.setObject(2, user.userId());
+            ps.setString(3, "USER_REGISTERED");
+            ps.setString(4, "Nova conta criada por importação: " + user.accountNumber());
+            ps.setTimestamp(5, now);
+        });
+    }
+
+    private void reject(BufferedWriter rejections, Progress progress, Rejection rejection) throws IOException {
+        rejections.write(objectMapper.writeValueAsString(rejection));
+        rejections.newLine();
+        progress.rejected++;
+    }
+
+    private UserRegistrationRequest fromJson(String text) {
+        try {
+            return requestReader.readValue(text);
+        } catch (JsonProcessingException e) {
+            throw new InvalidDataException("Linha em JSON inválida: " + e.getOriginalMessage());
+        }
+    }
+
+    // Posição de cada campo do DTO entre as colunas do cabeçalho
+    private static int[] csvColumns(String header) {
+        if (header == null) {
+            throw new InvalidDataException("file", "Arquivo CSV sem cabeçalho.");
+        }
+        // Planilhas costumam gravar o BOM do UTF-8 antes da primeira coluna
+        List<String> names = splitCsv(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        int[] columns = new int[CSV_COLUMNS.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = names.indexOf(CSV_COLUMNS.get(i));
+            if (columns[i] < 0) {
+                throw new InvalidDataException("file", "Cabeçalho CSV sem a coluna " + CSV_COLUMNS.get(i) + ".");
+            }
+        }
+        return columns;
+    }
+
+    private static UserRegistrationRequest fromCsv(String text, int[] columns) {
+        List<String> fields = splitCsv(text);
+        String[] values = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i] >= fields.size()) {
+                throw new InvalidDataException("Linha CSV com " + fields.size() + " coluna(s); esperado ao menos " + (columns[i] + 1) + ".");
+            }
+            String value = fields.get(columns[i]);
+            values[i] = value.isEmpty() ? null : value;
+        }
+        return new UserRegistrationRequest(values[0], values[1], values[2], values[3], values[4]);
+    }
+
+    // RFC 4180 em uma linha: campos separados por vírgula, entre aspas quando preciso, "" para aspas
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new InvalidDataException("Linha CSV com aspas não fechadas.");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static final class Progress {
+
+        private final long startedAt = System.nanoTime();
+        private long lastReport = startedAt;
+        private long rows;
+        private long imported;
+        private long rejected;
+
+        boolean shouldReport() {
+            long now = System.nanoTime();
+            if (now - lastReport < PROGRESS_INTERVAL.toNanos()) {
+                return false;
+            }
+            lastReport = now;
+            return true;
+        }
+
+        Duration elapsed() {
+            return Duration.ofNanos(System.nanoTime() - startedAt);
+        }
+    }
+}
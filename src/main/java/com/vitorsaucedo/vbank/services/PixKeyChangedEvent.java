@@ -0,0 +1,11 @@
+package com.vitorsaucedo.vbank.services;
+
+import com.vitorsaucedo.vbank.entities.enums.PixKeyType;
+
+import java.util.UUID;
+
+/**
+ * Publicado quando uma chave PIX é criada ({@code created}) ou excluída, para descartar a
+ * resolução em cache e manter o filtro de existência e o índice de chaves atualizados.
+ */
+public record PixKeyChangedEvent(String keyValue, UUID accountId, PixKeyType keyType, boolean created) {}
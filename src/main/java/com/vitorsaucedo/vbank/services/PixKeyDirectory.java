@@ -0,0 +1,174 @@
+package com.vitorsaucedo.vbank.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vitorsaucedo.vbank.dtos.PixKeyDetailsResponse;
+import com.vitorsaucedo.vbank.entities.BankAccount;
+import com.vitorsaucedo.vbank.entities.PixKey;
+import com.vitorsaucedo.vbank.entities.enums.AccountStatus;
+import com.vitorsaucedo.vbank.entities.enums.PixKeyType;
+import com.vitorsaucedo.vbank.mappers.PixKeyMapper;
+import com.vitorsaucedo.vbank.repositories.BankAccountRepository;
+import com.vitorsaucedo.vbank.repositories.PixKeyRepository;
+import com.vitorsaucedo.vbank.security.PrincipalChangedEvent;
+import com.vitorsaucedo.vbank.services.directory.PixKeyIndex;
+import com.vitorsaucedo.vbank.services.directory.PixKeyLocation;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Resolve chaves PIX para a conta de destino, com cache limitado por tamanho e por tempo.
+ *
+ * Cada entrada guarda apenas o necessário para a consulta do recebedor e para a transferência
+ * (conta, status, agência, número e os dados mascarados já calculados), sem manter entidades
+ * nem a sessão que as carregou. Chaves inexistentes não são cacheadas; as que o
+ * {@link PixKeyFilter} garante não existir são respondidas sem consultar o banco.
+ *
+ * Com o {@link PixKeyIndex} habilitado, a chave é resolvida para a conta pelo índice em memória
+ * e só a conta é lida do banco, pela chave primária; chaves fora do índice seguem a consulta por valor.
+ *
+ * Entradas são descartadas após o commit da criação ou exclusão da chave
+ * ({@link PixKeyChangedEvent}) e da mudança de status da conta ({@link PrincipalChangedEvent});
+ * entre instâncias, a garantia é a expiração após {@code vbank.pix.directory.ttl}.
+ */
+@Service
+public class PixKeyDirectory {
+
+    private final PixKeyRepository pixKeyRepository;
+    private final BankAccountRepository accountRepository;
+    private final PixKeyMapper pixKeyMapper;
+    private final PixKeyFilter pixKeyFilter;
+    private final Optional<PixKeyIndex> pixKeyIndex;
+    private final Cache<String, ResolvedPixKey> keys;
+
+    public PixKeyDirectory(
+            PixKeyRepository pixKeyRepository,
+            BankAccountRepository accountRepository,
+            PixKeyMapper pixKeyMapper,
+            PixKeyFilter pixKeyFilter,
+            Optional<PixKeyIndex> pixKeyIndex,
+            MeterRegistry meterRegistry,
+            @Value("${vbank.pix.directory.max-entries:100000}") long maxEntries,
+            @Value("${vbank.pix.directory.ttl:5m}") Duration ttl) {
+        this.pixKeyRepository = pixKeyRepository;
+        this.accountRepository = accountRepository;
+        this.pixKeyMapper = pixKeyMapper;
+        this.pixKeyFilter = pixKeyFilter;
+        this.pixKeyIndex = pixKeyIndex;
+        this.keys = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, keys, "vbank.pix.directory");
+    }
+
+    public record ResolvedPixKey(
+            UUID accountId,
+            PixKeyType keyType,
+            AccountStatus accountStatus,
+            String agency,
+            String accountNumber,
+            PixKeyDetailsResponse details) {}
+
+    public Optional<ResolvedPixKey> resolve(String keyValue) {
+        if (!pixKeyFilter.mightContain(keyValue)) {
+            return Optional.empty();
+        }
+        // O loader devolve null para chaves inexistentes, que não ficam no cache
+        return Optional.ofNullable(keys.get(keyValue, this::load));
+    }
+
+    /**
+     * Resolve várias chaves de uma vez; as ausentes do cache são carregadas em uma única consulta.
+     * Chaves inexistentes não aparecem no resultado.
+     */
+    public Map<String, ResolvedPixKey> resolveAll(Collection<String> keyValues) {
+        List<String> candidates = keyValues.stream().filter(pixKeyFilter::mightContain).toList();
+        return keys.getAll(candidates, this::loadAll);
+    }
+
+    public void invalidate(String keyValue) {
+        keys.invalidate(keyValue);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPixKeyChanged(PixKeyChangedEvent event) {
+        invalidate(event.keyValue());
+    }
+
+    // Mudanças de status são raras: varrer o cache evita manter um índice por conta
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountChanged(PrincipalChangedEvent event) {
+        keys.asMap().values().removeIf(key -> key.accountId().equals(event.accountId()));
+    }
+
+    private ResolvedPixKey load(String keyValue) {
+        Optional<PixKeyLocation> location = pixKeyIndex.flatMap(index -> index.find(keyValue));
+        if (location.isPresent()) {
+            Optional<BankAccount> account = accountRepository.findWithUserById(location.get().accountId());
+            if (account.isPresent()) {
+                return toResolved(account.get(), location.get().keyType());
+            }
+        }
+        return pixKeyRepository.findWithAccountByKeyValue(keyValue)
+                .map(key -> toResolved(key.getAccount(), key.getKeyType()))
+                .orElse(null);
+    }
+
+    private Map<String, ResolvedPixKey> loadAll(Set<? extends String> keyValues) {
+        Map<String, PixKeyLocation> indexed = new HashMap<>();
+        List<String> unindexed = new ArrayList<>();
+        for (String keyValue : keyValues) {
+            pixKeyIndex.flatMap(index -> index.find(keyValue)).ifPresentOrElse(
+                    location -> indexed.put(keyValue, location),
+                    () -> unindexed.add(keyValue));
+        }
+
+        Map<String, ResolvedPixKey> loaded = new HashMap<>();
+        if (!indexed.isEmpty()) {
+            Map<UUID, BankAccount> accounts = new HashMap<>();
+            accountRepository.findWithUserByIdIn(indexed.values().stream().map(PixKeyLocation::accountId).distinct().toList())
+                    .forEach(account -> accounts.put(account.getId(), account));
+            indexed.forEach((keyValue, location) -> {
+                BankAccount account = accounts.get(location.accountId());
+                if (account != null) {
+                    loaded.put(keyValue, toResolved(account, location.keyType()));
+                } else {
+                    unindexed.add(keyValue);
+                }
+            });
+        }
+
+        if (!unindexed.isEmpty()) {
+            for (PixKey key : pixKeyRepository.findWithAccountByKeyValueIn(unindexed)) {
+                loaded.put(key.getKeyValue(), toResolved(key.getAccount(), key.getKeyType()));
+            }
+        }
+        return loaded;
+    }
+
+    private ResolvedPixKey toResolved(BankAccount account, PixKeyType keyType) {
+        return new ResolvedPixKey(
+                account.getId(),
+                keyType,
+                account.getStatus(),
+                account.getAgency(),
+                account.getAccountNumber(),
+                pixKeyMapper.toDetailsResponse(account)
+        );
+    }
+}
@@ -0,0 +1,243 @@
+package com.vitorsaucedo.vbank.services;
+
+import com.vitorsaucedo.vbank.repositories.PixKeyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Filtro de Bloom com todas as chaves PIX cadastradas, para responder sem consultar o banco
+ * quando uma chave certamente não existe.
+ *
+ * O filtro só dá falsos positivos (na taxa {@code vbank.pix.filter.false-positive-rate}): uma
+ * chave cadastrada nunca é recusada. Ele é montado na inicialização lendo {@code tb_pix_keys}
+ * por cursor e recebe cada chave nova criada nesta instância. As criadas por outras instâncias
+ * entram a cada {@code vbank.pix.filter.catch-up-interval-ms}, lidas pelo índice de
+ * {@code created_at}; até lá podem ser recusadas. Como um filtro de Bloom não remove itens,
+ * chaves excluídas continuam como "talvez existe" até a próxima reconstrução periódica, que
+ * também redimensiona o filtro para a quantidade atual de chaves.
+ *
+ * Enquanto o primeiro filtro não está pronto, toda chave é tratada como possivelmente existente.
+ */
+@Slf4j
+@Service
+public class PixKeyFilter {
+
+    private final PixKeyRepository pixKeyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long expectedKeys;
+    private final double falsePositiveRate;
+    private final Duration catchUpMargin;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejected;
+
+    private volatile BloomFilter current;
+    private volatile BloomFilter building;
+    private LocalDateTime caughtUpTo;
+
+    public PixKeyFilter(
+            PixKeyRepository pixKeyRepository,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${vbank.pix.filter.expected-keys:1000000}") long expectedKeys,
+            @Value("${vbank.pix.filter.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${vbank.pix.filter.catch-up-margin:1m}") Duration catchUpMargin) {
+        this.pixKeyRepository = pixKeyRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.expectedKeys = expectedKeys;
+        this.falsePositiveRate = falsePositiveRate;
+        this.catchUpMargin = catchUpMargin;
+        this.meterRegistry = meterRegistry;
+        this.rejected = Counter.builder("vbank.pix.filter.rejected")
+                .description("Consultas de chaves PIX respondidas como inexistentes sem acessar o banco")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("vbank.pix.filter.keys", this, filter -> filter.current != null ? filter.current.insertions() : 0)
+                .description("Chaves inseridas no filtro de existência desde a última reconstrução")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return {@code false} apenas quando a chave certamente não está cadastrada
+     */
+    public boolean mightContain(String keyValue) {
+        BloomFilter filter = current;
+        if (filter == null || filter.mightContain(keyValue)) {
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * Registra uma chave nova. Chamado antes do commit, para que a chave nunca seja recusada
+     * depois de visível no banco, e de novo após o commit, para alcançar uma reconstrução em andamento.
+     */
+    public void add(String keyValue) {
+        // building antes de current: se a reconstrução terminar entre as duas leituras, o
+        // filtro novo já foi lido como building e current passa a ser ele mesmo
+        BloomFilter next = building;
+        if (next != null) {
+            next.add(keyValue);
+        }
+        BloomFilter filter = current;
+        if (filter != null && filter != next) {
+            filter.add(keyValue);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPixKeyChanged(PixKeyChangedEvent event) {
+        if (event.created()) {
+            add(event.keyValue());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        rebuild();
+    }
+
+    @Scheduled(
+            initialDelayString = "${vbank.pix.filter.rebuild-interval-ms:21600000}",
+            fixedDelayString = "${vbank.pix.filter.rebuild-interval-ms:21600000}")
+    public synchronized void rebuild() {
+        long keys = pixKeyRepository.count();
+        BloomFilter next = new BloomFilter(Math.max(expectedKeys, keys * 2), falsePositiveRate);
+        LocalDateTime startedAt = LocalDateTime.now();
+
+        // Chaves criadas a partir daqui entram pelo add(), mesmo que a leitura abaixo não as veja
+        building = next;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<String> values = pixKeyRepository.streamAllKeyValues()) {
+                    values.forEach(next::add);
+                }
+            });
+            current = next;
+            caughtUpTo = startedAt;
+            log.info("Filtro de chaves PIX montado: {} chave(s), {} KiB", next.insertions(), next.sizeInBytes() / 1024);
+        } finally {
+            building = null;
+        }
+    }
+
+    /**
+     * Inclui as chaves criadas desde a última leitura, inclusive por outras instâncias.
+     *
+     * A leitura recua {@code catch-up-margin} para alcançar chaves gravadas com {@code created_at}
+     * anterior mas confirmadas depois; reinserir uma chave já presente não altera o filtro.
+     */
+    @Scheduled(
+            initialDelayString = "${vbank.pix.filter.catch-up-interval-ms:1000}",
+            fixedDelayString = "${vbank.pix.filter.catch-up-interval-ms:1000}")
+    public synchronized void catchUp() {
+        BloomFilter filter = current;
+        if (filter == null) {
+            return;
+        }
+        LocalDateTime since = caughtUpTo.minus(catchUpMargin);
+        LocalDateTime startedAt = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<String> values = pixKeyRepository.streamKeyValuesCreatedSince(since)) {
+                values.forEach(filter::add);
+            }
+        });
+        caughtUpTo = startedAt;
+    }
+
+    /**
+     * Filtro de Bloom sobre um {@link AtomicLongArray}: bits são ligados com CAS, então
+     * inserções e consultas concorrentes não precisam de trava.
+     *
+     * As {@code k} posições vêm de dois hashes de 64 bits combinados (h1 + i * h2).
+     */
+    static final class BloomFilter {
+
+        private final AtomicLongArray words;
+        private final long bits;
+        private final int hashes;
+        private final LongAdder insertions = new LongAdder();
+
+        BloomFilter(long expectedInsertions, double falsePositiveRate) {
+            long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (optimalBits + 63) >>> 6));
+            this.words = new AtomicLongArray(wordCount);
+            this.bits = (long) wordCount << 6;
+            this.hashes = Math.max(1, (int) Math.round((double) bits / expectedInsertions * Math.log(2)));
+        }
+
+        void add(String value) {
+            long h1 = hash(value);
+            long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Long.remainderUnsigned(h1 + i * h2, bits);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long previous;
+                do {
+                    previous = words.get(word);
+                } while ((previous & mask) == 0 && !words.compareAndSet(word, previous, previous | mask));
+            }
+            insertions.increment();
+        }
+
+        boolean mightContain(String value) {
+            long h1 = hash(value);
+            long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Long.remainderUnsigned(h1 + i * h2, bits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long insertions() {
+            return insertions.sum();
+        }
+
+        long sizeInBytes() {
+            return (long) words.length() * Long.BYTES;
+        }
+
+        // FNV-1a sobre os bytes UTF-8 com a finalização do MurmurHash3 para espalhar os bits
+        private static long hash(String value) {
+            long hash = 0xCBF29CE484222325L;
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b & 0xFF;
+                hash *= 0x100000001B3L;
+            }
+            return mix(hash);
+        }
+
+        private static long mix(long h) {
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            h *= 0xC4CEB9FE1A85EC53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -5,17 +5,26 @@ import com.vitorsaucedo.vbank.dtos.PixKeyRequest;
 import com.vitorsaucedo.vbank.dtos.PixKeyResponse;
 import com.vitorsaucedo.vbank.entities.BankAccount;
 import com.vitorsaucedo.vbank.entities.PixKey;
+import com.vitorsaucedo.vbank.entities.PixKeyDeletion;
 import com.vitorsaucedo.vbank.entities.enums.PixKeyType;
 import com.vitorsaucedo.vbank.exceptions.DuplicateResourceException;
 import com.vitorsaucedo.vbank.exceptions.InvalidDataException;
 import com.vitorsaucedo.vbank.exceptions.ResourceNotFoundException;
 import com.vitorsaucedo.vbank.mappers.PixKeyMapper;
+import com.vitorsaucedo.vbank.pix.PixFormats;
 import com.vitorsaucedo.vbank.repositories.BankAccountRepository;
+import com.vitorsaucedo.vbank.repositories.PixKeyDeletionRepository;
 import com.vitorsaucedo.vbank.repositories.PixKeyRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -25,18 +34,25 @@ import java.util.stream.Collectors;
 public class PixKeyService {
 
     private final PixKeyRepository pixKeyRepository;
+    private final PixKeyDeletionRepository pixKeyDeletionRepository;
     private final BankAccountRepository accountRepository;
     private final AuditLogService auditLogService;
     private final PixKeyMapper pixKeyMapper;
+    private final PixKeyFilter pixKeyFilter;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${vbank.pix.key-deletions.retention:7d}")
+    private Duration deletionRetention;
 
     @Transactional
-    public PixKeyResponse createKey(PixKeyRequest request, UUID userId) {
-        BankAccount account = accountRepository.findByUserId(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Conta bancária", userId.toString()));
+    public PixKeyResponse createKey(PixKeyRequest request, UUID accountId) {
+        BankAccount account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new ResourceNotFoundException("Conta bancária", accountId.toString()));
 
         String keyValue = determineKeyValue(request.keyType(), request.keyValue(), account);
 
-        if (pixKeyRepository.existsByKeyValue(keyValue)) {
+        // Uma chave que o filtro desconhece certamente não existe; a unicidade final é do banco
+        if (pixKeyFilter.mightContain(keyValue) && pixKeyRepository.existsByKeyValue(keyValue)) {
             throw new DuplicateResourceException("Esta chave Pix já está em uso por outra conta.");
         }
 
@@ -45,10 +61,18 @@ public class PixKeyService {
         pixKey.setKeyType(request.keyType());
         pixKey.setKeyValue(keyValue);
 
-        PixKey savedKey = pixKeyRepository.save(pixKey);
+        PixKey savedKey;
+        try {
+            // Flush imediato: sem a consulta acima, a violação da unicidade só apareceria no commit
+            savedKey = pixKeyRepository.saveAndFlush(pixKey);
+        } catch (DataIntegrityViolationException e) {
+            throw new DuplicateResourceException("Esta chave Pix já está em uso por outra conta.");
+        }
+        pixKeyFilter.add(keyValue);
+        eventPublisher.publishEvent(new PixKeyChangedEvent(keyValue, accountId, request.keyType(), true));
 
         auditLogService.log(new AuditLogRequest(
-                userId,
+                account.getUser().getId(),
                 "PIX_KEY_CREATED",
                 "Nova chave do tipo " + request.keyType() + " cadastrada: " + keyValue
         ));
@@ -66,7 +90,7 @@ public class PixKeyService {
                             "Documento não cadastrado. Atualize seus dados antes de criar chave PIX."
                     );
                 }
-                yield document.replaceAll("\\D", ""); // Remove formatação
+                yield PixFormats.digits(document); // Remove formatação
             }
 
             case EMAIL -> {
@@ -77,7 +101,7 @@ public class PixKeyService {
                             "Email não cadastrado. Atualize seus dados antes de criar chave PIX."
                     );
                 }
-                yield email.toLowerCase().trim();
+                yield PixFormats.normalizeEmail(email);
             }
 
             case RANDOM -> UUID.randomUUID().toString();
@@ -90,7 +114,7 @@ public class PixKeyService {
                     );
                 }
 
-                String cleanPhone = requestValue.replaceAll("\\D", "");
+                String cleanPhone = PixFormats.digits(requestValue);
 
                 if (cleanPhone.length() < 10 || cleanPhone.length() > 11) {
                     throw new InvalidDataException(
@@ -112,23 +136,26 @@ public class PixKeyService {
     }
 
     @Transactional(readOnly = true)
-    public List<PixKeyResponse> listKeysByUserId(UUID userId) {
-        return pixKeyRepository.findAllByAccountUserId(userId)
+    public List<PixKeyResponse> listKeys(UUID accountId) {
+        return pixKeyRepository.findAllByAccountId(accountId)
                 .stream()
                 .map(pixKeyMapper::toResponse)
                 .collect(Collectors.toList());
     }
 
     @Transactional
-    public void deleteKey(UUID keyId, UUID userId) {
+    public void deleteKey(UUID keyId, UUID userId, UUID accountId) {
         PixKey pixKey = pixKeyRepository.findById(keyId)
                 .orElseThrow(() -> new ResourceNotFoundException("Chave PIX", keyId.toString()));
 
-        if (!pixKey.getAccount().getUser().getId().equals(userId)) {
+        if (!pixKey.getAccount().getId().equals(accountId)) {
             throw new ResourceNotFoundException("Chave PIX", keyId.toString());
         }
 
         pixKeyRepository.delete(pixKey);
+        // Lido pelo índice de chaves das outras instâncias (PixKeyIndex)
+        pixKeyDeletionRepository.save(new PixKeyDeletion(null, pixKey.getKeyValue(), accountId, null));
+        eventPublisher.publishEvent(new PixKeyChangedEvent(pixKey.getKeyValue(), accountId, pixKey.getKeyType(), false));
 
         auditLogService.log(new AuditLogRequest(
                 userId,
@@ -136,4 +163,10 @@ public class PixKeyService {
                 "Chave PIX excluída: " + pixKey.getKeyValue()
         ));
     }
-}
\ No newline at end of file
+
+    @Transactional
+    @Scheduled(cron = "${vbank.pix.key-deletions.purge-cron:0 45 3 * * *}")
+    public void purgeDeletions() {
+        pixKeyDeletionRepository.deleteAllBefore(LocalDateTime.now().minus(deletionRetention));
+    }
+}
@@ -0,0 +1,135 @@
+package com.vitorsaucedo.vbank.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vitorsaucedo.vbank.dtos.StatementItemResponse;
+import com.vitorsaucedo.vbank.exceptions.InvalidDataException;
+import com.vitorsaucedo.vbank.repositories.StatementEntryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Exporta o extrato completo de um período em CSV ou NDJSON.
+ *
+ * As linhas são lidas por cursor do banco e escritas direto na saída, uma a uma:
+ * o consumo de memória é o mesmo para cem ou dez milhões de transações.
+ */
+@Service
+@RequiredArgsConstructor
+public class StatementExportService {
+
+    private static final LocalDate EARLIEST = LocalDate.of(1970, 1, 1);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final StatementEntryRepository statementEntryRepository;
+    private final ObjectMapper objectMapper;
+
+    public enum Format {
+        CSV("text/csv;charset=UTF-8", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidDataException("format", "Formato não suportado. Use csv ou ndjson.");
+            }
+        }
+    }
+
+    /**
+     * Valida o período solicitado; deve ser chamado antes de a resposta começar a ser
+     * escrita, para que um erro ainda possa virar um 400.
+     */
+    public void validatePeriod(LocalDate from, LocalDate to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new InvalidDataException("from", "A data inicial deve ser anterior ou igual à data final.");
+        }
+    }
+
+    /**
+     * Escreve o extrato da conta entre {@code from} e {@code to} (inclusive), em ordem cronológica.
+     * A conexão com o banco fica aberta enquanto a saída é escrita.
+     */
+    @Transactional(readOnly = true)
+    public void export(UUID accountId, Format format, LocalDate from, LocalDate to, OutputStream output) throws IOException {
+        LocalDateTime start = (from != null ? from : EARLIEST).atStartOfDay();
+        LocalDateTime end = (to != null ? to : LocalDate.now()).plusDays(1).atStartOfDay();
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+        try (Stream<StatementItemResponse> rows = statementEntryRepository.streamStatement(accountId, start, end)) {
+            if (format == Format.CSV) {
+                writer.write("id,date,type,direction,amount,otherPartyName,description\n");
+            }
+            Iterator<StatementItemResponse> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                StatementItemResponse row = iterator.next();
+                if (format == Format.CSV) {
+                    writeCsv(writer, row);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(row));
+                    writer.write('\n');
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    private void writeCsv(Writer writer, StatementItemResponse row) throws IOException {
+        writer.write(row.id().toString());
+        writer.write(',');
+        writer.write(row.date().toString());
+        writer.write(',');
+        writer.write(row.type().name());
+        writer.write(',');
+        writer.write(row.direction().name());
+        writer.write(',');
+        writer.write(row.amount().toPlainString());
+        writer.write(',');
+        writer.write(csvField(row.otherPartyName()));
+        writer.write(',');
+        writer.write(csvField(row.description()));
+        writer.write('\n');
+    }
+
+    // Aspas quando necessário (RFC 4180) e neutralização de fórmulas ao abrir em planilhas
+    private static String csvField(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        String safe = "=+-@\t\r".indexOf(value.charAt(0)) >= 0 ? "'" + value : value;
+        if (safe.indexOf(',') < 0 && safe.indexOf('"') < 0 && safe.indexOf('\n') < 0 && safe.indexOf('\r') < 0) {
+            return safe;
+        }
+        return '"' + safe.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,116 @@
+package com.vitorsaucedo.vbank.services;
+
+import com.vitorsaucedo.vbank.entities.BankAccount;
+import com.vitorsaucedo.vbank.entities.StatementEntry;
+import com.vitorsaucedo.vbank.entities.Transaction;
+import com.vitorsaucedo.vbank.entities.User;
+import com.vitorsaucedo.vbank.entities.enums.TransactionDirection;
+import com.vitorsaucedo.vbank.repositories.BankAccountRepository;
+import com.vitorsaucedo.vbank.repositories.StatementEntryRepository;
+import com.vitorsaucedo.vbank.repositories.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Mantém o extrato desnormalizado em {@code tb_statement_entries}.
+ *
+ * Cada transação concluída vira duas linhas, uma para o pagador ({@code OUTBOUND}) e outra
+ * para o recebedor ({@code INBOUND}), gravadas junto com a liquidação. Assim a leitura do
+ * extrato é um intervalo do índice da conta, sem juntar transações, contas e usuários.
+ */
+@Service
+@RequiredArgsConstructor
+public class StatementProjection {
+
+    private final StatementEntryRepository statementEntryRepository;
+    private final UserRepository userRepository;
+    private final BankAccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Grava as linhas de extrato das transações concluídas.
+     * Deve participar da mesma transação que as liquidou.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(Transaction transaction) {
+        appendAll(List.of(transaction));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(List<Transaction> transactions) {
+        // A data de criação só é preenchida quando o INSERT da transação é executado
+        statementEntryRepository.flush();
+
+        Map<UUID, String> names = holderNames(transactions);
+        List<StatementEntry> entries = new ArrayList<>(transactions.size() * 2);
+
+        for (Transaction transaction : transactions) {
+            BankAccount payer = transaction.getPayer();
+            BankAccount payee = transaction.getPayee();
+            entries.add(entry(transaction, payer, TransactionDirection.OUTBOUND, names.get(payee.getUser().getId())));
+            entries.add(entry(transaction, payee, TransactionDirection.INBOUND, names.get(payer.getUser().getId())));
+        }
+
+        statementEntryRepository.saveAll(entries);
+    }
+
+    /**
+     * Regenera o extrato de todas as contas a partir de {@code tb_transactions}, uma conta
+     * por transação de banco.
+     *
+     * Operação de manutenção: deve ser executada com o tráfego de transferências pausado.
+     *
+     * @return Quantidade de linhas gravadas
+     */
+    public long rebuild() {
+        long rows = 0;
+        for (UUID accountId : accountRepository.findAllIds()) {
+            Integer written = transactionTemplate.execute(status -> {
+                statementEntryRepository.deleteAllByAccountId(accountId);
+                return statementEntryRepository.insertOutboundFromTransactions(accountId)
+                        + statementEntryRepository.insertInboundFromTransactions(accountId);
+            });
+            rows += written != null ? written : 0;
+        }
+        return rows;
+    }
+
+    // Carrega de uma vez os titulares que ainda não estão na sessão, em vez de um SELECT por conta
+    private Map<UUID, String> holderNames(List<Transaction> transactions) {
+        Set<UUID> userIds = new HashSet<>();
+        for (Transaction transaction : transactions) {
+            userIds.add(transaction.getPayer().getUser().getId());
+            userIds.add(transaction.getPayee().getUser().getId());
+        }
+
+        Map<UUID, String> names = new HashMap<>(userIds.size() * 2);
+        for (User user : userRepository.findAllById(userIds)) {
+            names.put(user.getId(), user.getFullName());
+        }
+        return names;
+    }
+
+    private StatementEntry entry(Transaction transaction, BankAccount account, TransactionDirection direction, String counterpartyName) {
+        return new StatementEntry(
+                account.getId(),
+                transaction.getId(),
+                direction,
+                counterpartyName,
+                transaction.getAmount().toBigDecimal(),
+                transaction.getType(),
+                transaction.getDescription(),
+                transaction.getCreatedAt()
+        );
+    }
+}
@@ -1,37 +1,88 @@
 package com.vitorsaucedo.vbank.services;
 
 import com.vitorsaucedo.vbank.dtos.StatementItemResponse;
-import com.vitorsaucedo.vbank.entities.BankAccount;
-import com.vitorsaucedo.vbank.entities.Transaction;
-import com.vitorsaucedo.vbank.exceptions.ResourceNotFoundException;
-import com.vitorsaucedo.vbank.mappers.TransactionMapper;
-import com.vitorsaucedo.vbank.repositories.BankAccountRepository;
-import com.vitorsaucedo.vbank.repositories.TransactionRepository;
-import lombok.RequiredArgsConstructor;
+import com.vitorsaucedo.vbank.dtos.StatementPageResponse;
+import com.vitorsaucedo.vbank.exceptions.InvalidDataException;
+import com.vitorsaucedo.vbank.repositories.StatementEntryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 public class TransactionService {
 
-    private final TransactionRepository transactionRepository;
-    private final BankAccountRepository accountRepository;
-    private final TransactionMapper transactionMapper; // Injeção do Mapper especializado
+    private final StatementEntryRepository statementEntryRepository;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
+    public TransactionService(
+            StatementEntryRepository statementEntryRepository,
+            @Value("${vbank.statement.default-page-size:50}") int defaultPageSize,
+            @Value("${vbank.statement.max-page-size:200}") int maxPageSize) {
+        this.statementEntryRepository = statementEntryRepository;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Retorna uma página do extrato da conta, da transação mais recente para a mais antiga.
+     *
+     * @param limit  Tamanho da página; nulo usa o padrão e valores acima do máximo são reduzidos
+     * @param cursor Valor de {@code nextCursor} da página anterior, ou nulo para a primeira página
+     */
     @Transactional(readOnly = true)
-    public List<StatementItemResponse> getStatement(UUID userId) {
-        BankAccount account = accountRepository.findByUserId(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Conta bancária não encontrada."));
+    public StatementPageResponse getStatement(UUID accountId, Integer limit, String cursor) {
+        if (limit != null && limit < 1) {
+            throw new InvalidDataException("limit", "O tamanho da página deve ser maior que zero.");
+        }
+        int pageSize = limit == null ? defaultPageSize : Math.min(limit, maxPageSize);
+
+        // Busca um item a mais para saber se existe próxima página sem um COUNT
+        Limit fetch = Limit.of(pageSize + 1);
+        List<StatementItemResponse> items;
+        if (cursor == null || cursor.isBlank()) {
+            items = statementEntryRepository.findStatementPage(accountId, fetch);
+        } else {
+            StatementCursor position = StatementCursor.decode(cursor);
+            items = statementEntryRepository.findStatementPageAfter(accountId, position.createdAt(), position.id(), fetch);
+        }
+
+        if (items.size() <= pageSize) {
+            return new StatementPageResponse(items, null);
+        }
+        List<StatementItemResponse> page = items.subList(0, pageSize);
+        StatementItemResponse last = page.get(pageSize - 1);
+        return new StatementPageResponse(page, new StatementCursor(last.date(), last.id()).encode());
+    }
+
+    /**
+     * Posição no extrato, serializada como {@code createdAt|id} em Base64 URL.
+     */
+    private record StatementCursor(LocalDateTime createdAt, UUID id) {
 
-        List<Transaction> transactions = transactionRepository.findAllByAccountOrderByCreatedAtDesc(account);
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
 
-        return transactions.stream()
-                .map(t -> transactionMapper.toStatementItem(t, account))
-                .collect(Collectors.toList());
+        static StatementCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                return new StatementCursor(
+                        LocalDateTime.parse(raw.substring(0, separator)),
+                        UUID.fromString(raw.substring(separator + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+                throw new InvalidDataException("cursor", "Cursor de paginação inválido.");
+            }
+        }
     }
-}
\ No newline at end of file
+}
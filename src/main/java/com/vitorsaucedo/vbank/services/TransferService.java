@@ -1,28 +1,44 @@
 package com.vitorsaucedo.vbank.services;
 
 import com.vitorsaucedo.vbank.dtos.AuditLogRequest;
+import com.vitorsaucedo.vbank.dtos.PixBatchTransferItem;
+import com.vitorsaucedo.vbank.dtos.PixBatchTransferRequest;
+import com.vitorsaucedo.vbank.dtos.PixBatchTransferResponse;
 import com.vitorsaucedo.vbank.dtos.PixKeyDetailsResponse;
 import com.vitorsaucedo.vbank.dtos.PixTransferRequest;
 import com.vitorsaucedo.vbank.dtos.TransactionResponse;
 import com.vitorsaucedo.vbank.entities.BankAccount;
-import com.vitorsaucedo.vbank.entities.PixKey;
 import com.vitorsaucedo.vbank.entities.Transaction;
 import com.vitorsaucedo.vbank.entities.enums.AccountStatus;
+import com.vitorsaucedo.vbank.entities.enums.TransactionStatus;
 import com.vitorsaucedo.vbank.exceptions.InactiveAccountException;
 import com.vitorsaucedo.vbank.exceptions.InvalidDataException;
 import com.vitorsaucedo.vbank.exceptions.InvalidPinException;
 import com.vitorsaucedo.vbank.exceptions.ResourceNotFoundException;
-import com.vitorsaucedo.vbank.mappers.PixKeyMapper;
+import com.vitorsaucedo.vbank.exceptions.VbankException;
 import com.vitorsaucedo.vbank.mappers.TransactionMapper;
+import com.vitorsaucedo.vbank.money.Money;
+import com.vitorsaucedo.vbank.pix.PixFormats;
 import com.vitorsaucedo.vbank.repositories.BankAccountRepository;
-import com.vitorsaucedo.vbank.repositories.PixKeyRepository;
 import com.vitorsaucedo.vbank.repositories.TransactionRepository;
+import com.vitorsaucedo.vbank.security.PasswordHashingExecutor;
+import com.vitorsaucedo.vbank.security.PasswordHashingExecutor.Lane;
+import com.vitorsaucedo.vbank.security.TransactionAuthorizationService;
+import com.vitorsaucedo.vbank.services.PixKeyDirectory.ResolvedPixKey;
+import com.vitorsaucedo.vbank.services.transfer.SettlementOutcome;
+import com.vitorsaucedo.vbank.services.transfer.TransferCommand;
+import com.vitorsaucedo.vbank.services.transfer.TransferEngine;
+import com.vitorsaucedo.vbank.services.transfer.TransferReplayCache;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -30,73 +46,180 @@ import java.util.UUID;
 public class TransferService {
 
     private final BankAccountRepository accountRepository;
-    private final PixKeyRepository pixKeyRepository;
+    private final PixKeyDirectory pixKeyDirectory;
     private final TransactionRepository transactionRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashingExecutor;
     private final AuditLogService auditLogService;
+    private final TransferEngine transferEngine;
+    private final TransferReplayCache replayCache;
+    private final TransactionAuthorizationService transactionAuthorizationService;
 
     private final TransactionMapper transactionMapper;
-    private final PixKeyMapper pixKeyMapper;
 
-    @Transactional(readOnly = true)
+    @Value("${vbank.transfer.batch.max-items:500}")
+    private int maxBatchItems;
+
     public PixKeyDetailsResponse findReceiverByPixKey(String key) {
         if (key == null || key.isBlank()) {
             throw new InvalidDataException("key", "Chave PIX não pode estar vazia.");
         }
 
-        PixKey pixKey = pixKeyRepository.findByKeyValue(key)
+        return pixKeyDirectory.resolve(key)
+                .map(ResolvedPixKey::details)
                 .orElseThrow(() -> new ResourceNotFoundException("Chave Pix", key));
+    }
+
+    /**
+     * Consulta uma transação pelo id. Apenas o pagador e o recebedor podem vê-la;
+     * para os demais usuários ela é tratada como inexistente.
+     */
+    @Transactional(readOnly = true)
+    public TransactionResponse getTransfer(UUID transactionId, UUID accountId) {
+        Transaction transaction = transactionRepository.findWithAccountsById(transactionId)
+                .filter(t -> t.getPayer().getId().equals(accountId)
+                        || t.getPayee().getId().equals(accountId))
+                .orElseThrow(() -> new ResourceNotFoundException("Transação", transactionId.toString()));
 
-        return pixKeyMapper.toDetailsResponse(pixKey);
+        return transactionMapper.toResponse(transaction);
     }
 
-    @Transactional
-    public TransactionResponse executePix(PixTransferRequest request, UUID userId) {
-        validateTransferRequest(request);
+    public TransactionResponse executePix(PixTransferRequest request, UUID userId, UUID accountId, UUID idempotencyKey) {
+        return replayCache.execute(idempotencyKey, userId, request, () -> transfer(request, userId, accountId, idempotencyKey));
+    }
 
-        BankAccount payerAccount = accountRepository.findByUserId(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Conta bancária", userId.toString()));
+    private TransactionResponse transfer(PixTransferRequest request, UUID userId, UUID accountId, UUID idempotencyKey) {
+        validateTransferRequest(request);
 
-        validateTransfer(request, payerAccount);
+        BankAccount payerAccount = accountRepository.findById(accountId)
+                .orElseThrow(() -> new ResourceNotFoundException("Conta bancária", accountId.toString()));
 
-        PixKey targetKey = pixKeyRepository.findByKeyValue(request.targetKey())
+        ResolvedPixKey targetKey = pixKeyDirectory.resolve(request.targetKey())
                 .orElseThrow(() -> new ResourceNotFoundException("Chave Pix", request.targetKey()));
-        BankAccount payeeAccount = targetKey.getAccount();
 
-        if (payerAccount.getId().equals(payeeAccount.getId())) {
+        UUID payerAccountId = payerAccount.getId();
+        UUID payeeAccountId = targetKey.accountId();
+
+        if (payerAccountId.equals(payeeAccountId)) {
             throw new InvalidDataException(
                     "targetKey",
                     "Não é possível transferir para sua própria conta."
             );
         }
 
-        if (payeeAccount.getStatus() != AccountStatus.ACTIVE) {
+        // Recusa cedo pelo status em cache; a liquidação confere de novo com a conta carregada
+        if (targetKey.accountStatus() != AccountStatus.ACTIVE) {
             throw new InvalidDataException(
                     "targetKey",
                     "A conta de destino está inativa e não pode receber transferências."
             );
         }
 
-        payerAccount.withdraw(request.amount());
-        payeeAccount.deposit(request.amount());
+        // A partir daqui o token de step-up já foi descontado e volta em qualquer falha
+        UUID authorizationId = authorize(request, payerAccount);
+        try {
+            return transferEngine.submit(new TransferCommand(
+                    userId,
+                    payerAccountId,
+                    payeeAccountId,
+                    request,
+                    idempotencyKey,
+                    authorizationId
+            ));
+        } catch (RuntimeException e) {
+            if (authorizationId != null) {
+                transactionAuthorizationService.restore(authorizationId, request.amount());
+            }
+            throw e;
+        }
+    }
+
+    public PixBatchTransferResponse executePixBatch(PixBatchTransferRequest request, UUID userId, UUID accountId) {
+        if (request.items() == null || request.items().isEmpty()) {
+            throw new InvalidDataException("items", "O lote deve conter ao menos uma transferência.");
+        }
+
+        if (request.items().size() > maxBatchItems) {
+            throw new InvalidDataException(
+                    "items",
+                    String.format("O lote pode conter no máximo %d transferências.", maxBatchItems)
+            );
+        }
+
+        BankAccount payerAccount = accountRepository.findById(accountId)
+                .orElseThrow(() -> new ResourceNotFoundException("Conta bancária", accountId.toString()));
 
-        Transaction savedTransaction = transactionRepository.save(
-                transactionMapper.toEntity(request, payerAccount, payeeAccount)
-        );
+        // PIN conferido uma única vez para o lote inteiro
+        validateTransfer(request.transactionPin(), payerAccount);
 
-        accountRepository.save(payerAccount);
-        accountRepository.save(payeeAccount);
+        Map<String, UUID> accountIdByKey = new HashMap<>();
+        pixKeyDirectory.resolveAll(request.items().stream().map(PixBatchTransferItem::targetKey).distinct().toList())
+                .forEach((keyValue, key) -> accountIdByKey.put(keyValue, key.accountId()));
 
-        auditLogService.log(new AuditLogRequest(
-                userId,
-                "PIX_SENT",
-                String.format("Pix de R$ %.2f para chave: %s (Conta: %s)",
-                        request.amount(),
-                        request.targetKey(),
-                        payeeAccount.getAccountNumber())
-        ));
+        UUID payerAccountId = payerAccount.getId();
+        VbankException[] rejections = new VbankException[request.items().size()];
+        List<TransferCommand> commands = new ArrayList<>();
+        Map<TransferCommand, Integer> positions = new IdentityHashMap<>();
 
-        return transactionMapper.toResponse(savedTransaction);
+        for (int i = 0; i < request.items().size(); i++) {
+            PixBatchTransferItem item = request.items().get(i);
+            PixTransferRequest itemRequest = new PixTransferRequest(
+                    item.targetKey(),
+                    item.amount(),
+                    request.transactionPin(),
+                    null,
+                    item.description()
+            );
+
+            try {
+                validateTransferRequest(itemRequest);
+
+                UUID payeeAccountId = accountIdByKey.get(item.targetKey());
+                if (payeeAccountId == null) {
+                    throw new ResourceNotFoundException("Chave Pix", item.targetKey());
+                }
+                if (payerAccountId.equals(payeeAccountId)) {
+                    throw new InvalidDataException(
+                            "targetKey",
+                            "Não é possível transferir para sua própria conta."
+                    );
+                }
+
+                TransferCommand command = new TransferCommand(userId, payerAccountId, payeeAccountId, itemRequest, null, null);
+                commands.add(command);
+                positions.put(command, i);
+            } catch (VbankException e) {
+                rejections[i] = e;
+            }
+        }
+
+        Transaction[] settled = new Transaction[request.items().size()];
+        if (!commands.isEmpty()) {
+            List<SettlementOutcome> outcomes = transferEngine.submitBatch(payerAccountId, commands);
+            for (SettlementOutcome outcome : outcomes) {
+                int index = positions.get(outcome.command());
+                settled[index] = outcome.transaction();
+                rejections[index] = outcome.failure();
+            }
+        }
+
+        List<PixBatchTransferResponse.ItemResult> results = new ArrayList<>(request.items().size());
+        Money totalDebited = Money.ZERO;
+        int succeeded = 0;
+        for (int i = 0; i < request.items().size(); i++) {
+            PixBatchTransferItem item = request.items().get(i);
+            Transaction transaction = settled[i];
+            if (transaction != null) {
+                succeeded++;
+                totalDebited = totalDebited.plus(transaction.getAmount());
+                results.add(new PixBatchTransferResponse.ItemResult(
+                        i, item.targetKey(), item.amount(), TransactionStatus.COMPLETED, transaction.getId(), null));
+            } else {
+                results.add(new PixBatchTransferResponse.ItemResult(
+                        i, item.targetKey(), item.amount(), TransactionStatus.FAILED, null, rejections[i].getMessage()));
+            }
+        }
+
+        return new PixBatchTransferResponse(succeeded, results.size() - succeeded, totalDebited, results);
     }
 
     private void validateTransferRequest(PixTransferRequest request) {
@@ -108,29 +231,33 @@ public class TransferService {
             );
         }
 
-        if (request.amount() == null || request.amount().compareTo(BigDecimal.ZERO) <= 0) {
+        if (request.amount() == null || !request.amount().isPositive()) {
             throw new InvalidDataException(
                     "amount",
                     "O valor da transferência deve ser maior que zero."
             );
         }
 
-        BigDecimal maxAmount = new BigDecimal("50000.00");
-        if (request.amount().compareTo(maxAmount) > 0) {
+        Money maxAmount = Money.ofCents(5_000_000);
+        if (request.amount().isGreaterThan(maxAmount)) {
             throw new InvalidDataException(
                     "amount",
-                    String.format("O valor máximo por transação é R$ %.2f", maxAmount)
+                    String.format("O valor máximo por transação é R$ %s", maxAmount)
             );
         }
 
+        if (request.authorizationToken() != null && !request.authorizationToken().isBlank()) {
+            return;
+        }
+
         if (request.transactionPin() == null || request.transactionPin().isBlank()) {
             throw new InvalidDataException(
                     "transactionPin",
-                    "PIN de transação é obrigatório."
+                    "PIN de transação ou token de autorização é obrigatório."
             );
         }
 
-        if (!request.transactionPin().matches("\\d{4}")) {
+        if (!PixFormats.isPin(request.transactionPin())) {
             throw new InvalidDataException(
                     "transactionPin",
                     "PIN de transação inválido. Deve conter 4 dígitos."
@@ -138,8 +265,27 @@ public class TransferService {
         }
     }
 
-    private void validateTransfer(PixTransferRequest request, BankAccount payerAccount) {
-        if (!passwordEncoder.matches(request.transactionPin(), payerAccount.getUser().getTransactionPin())) {
+    /**
+     * Autoriza a transferência pelo token de step-up (HMAC) quando informado, ou pelo PIN (BCrypt).
+     *
+     * @return Identificador do token consumido, ou {@code null} quando autorizada pelo PIN
+     */
+    private UUID authorize(PixTransferRequest request, BankAccount payerAccount) {
+        if (request.authorizationToken() == null || request.authorizationToken().isBlank()) {
+            validateTransfer(request.transactionPin(), payerAccount);
+            return null;
+        }
+
+        validateActive(payerAccount);
+        return transactionAuthorizationService.consume(
+                request.authorizationToken(),
+                payerAccount.getUser().getId(),
+                request.amount()
+        );
+    }
+
+    private void validateTransfer(String transactionPin, BankAccount payerAccount) {
+        if (!passwordHashingExecutor.matches(Lane.TRANSACTION_PIN, transactionPin, payerAccount.getUser().getTransactionPin())) {
             auditLogService.log(new AuditLogRequest(
                     payerAccount.getUser().getId(),
                     "INVALID_PIX_PIN",
@@ -148,6 +294,10 @@ public class TransferService {
             throw new InvalidPinException();
         }
 
+        validateActive(payerAccount);
+    }
+
+    private void validateActive(BankAccount payerAccount) {
         if (payerAccount.getStatus() != AccountStatus.ACTIVE) {
             throw new InactiveAccountException(
                     "Sua conta está " + payerAccount.getStatus().name().toLowerCase() +
@@ -0,0 +1,111 @@
+package com.vitorsaucedo.vbank.services.account;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gera números de conta únicos sem consultar o banco a cada cadastro.
+ *
+ * Cada instância reserva blocos consecutivos da sequência {@code seq_account_numbers}: um
+ * {@code nextval} devolve o início do bloco e o {@code INCREMENT BY} da sequência é o seu
+ * tamanho. Dentro do bloco os números saem de um contador atômico, sem trava; só a troca
+ * de bloco vai ao banco. Como blocos nunca se sobrepõem, não há colisão com o
+ * {@code UNIQUE} de {@code account_number} nem novas tentativas, mesmo em cargas em massa.
+ *
+ * O número tem {@code vbank.account.number.digits} dígitos, completados com zeros à
+ * esquerda, seguidos de um dígito verificador (algoritmo de Luhn). Os números de um bloco
+ * não usados até o desligamento da instância são descartados.
+ *
+ * O tamanho do bloco só pode ser aumentado com instâncias em execução: reduzir o
+ * {@code INCREMENT BY} faria o próximo bloco começar dentro de um bloco já reservado.
+ */
+@Slf4j
+@Component
+public class AccountNumberAllocator {
+
+    private static final String NEXT_BLOCK_SQL = "SELECT nextval('seq_account_numbers')";
+    // Restrito ao esquema corrente, o mesmo em que o nextval encontra a sequência
+    private static final String BLOCK_SIZE_SQL = "SELECT increment FROM information_schema.sequences"
+            + " WHERE LOWER(sequence_name) = 'seq_account_numbers' AND LOWER(sequence_schema) = LOWER(CURRENT_SCHEMA)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int digits;
+    private final long maxNumber;
+
+    private volatile Block current;
+    private long blockSize;
+
+    public AccountNumberAllocator(
+            JdbcTemplate jdbcTemplate,
+            @Value("${vbank.account.number.digits:9}") int digits) {
+        if (digits < 1 || digits > 18) {
+            throw new IllegalArgumentException("vbank.account.number.digits deve estar entre 1 e 18");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.digits = digits;
+        this.maxNumber = (long) Math.pow(10, digits) - 1;
+    }
+
+    /**
+     * @return Próximo número de conta, com o dígito verificador no final
+     * @throws IllegalStateException Se a faixa de {@code digits} dígitos estiver esgotada
+     */
+    public String next() {
+        while (true) {
+            Block block = current;
+            if (block != null) {
+                long number = block.next.getAndIncrement();
+                if (number < block.end) {
+                    return format(number);
+                }
+            }
+            reserve(block);
+        }
+    }
+
+    // Só uma thread vai ao banco; as demais esperam o bloco novo e voltam ao contador
+    private synchronized void reserve(Block exhausted) {
+        if (current != exhausted) {
+            return;
+        }
+        if (blockSize == 0) {
+            blockSize = Long.parseLong(jdbcTemplate.queryForObject(BLOCK_SIZE_SQL, String.class).trim());
+        }
+
+        Long start = jdbcTemplate.queryForObject(NEXT_BLOCK_SQL, Long.class);
+        if (start == null || start > maxNumber) {
+            throw new IllegalStateException("Faixa de números de conta esgotada para " + digits + " dígitos");
+        }
+        long end = Math.min(start + blockSize, maxNumber + 1);
+        current = new Block(new AtomicLong(start), end);
+        log.debug("Reservado o bloco de números de conta [{}, {})", start, end);
+    }
+
+    // Dígito verificador pelo algoritmo de Luhn: dobra os dígitos alternados a partir do mais à direita
+    private String format(long number) {
+        char[] chars = new char[digits + 1];
+        int sum = 0;
+        boolean doubled = true;
+        for (int i = digits - 1; i >= 0; i--) {
+            int digit = (int) (number % 10);
+            number /= 10;
+            chars[i] = (char) ('0' + digit);
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        chars[digits] = (char) ('0' + (10 - sum % 10) % 10);
+        return new String(chars);
+    }
+
+    private record Block(AtomicLong next, long end) {}
+}
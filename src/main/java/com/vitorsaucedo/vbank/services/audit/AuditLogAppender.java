@@ -0,0 +1,303 @@
+package com.vitorsaucedo.vbank.services.audit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grava os eventos de auditoria fora do caminho crítico das requisições.
+ *
+ * Os eventos entram em uma fila limitada em memória e uma thread dedicada os insere
+ * em {@code tb_audit_logs} com batch JDBC, a cada {@code batch-size} eventos ou
+ * {@code flush-interval-ms}, o que ocorrer primeiro. Quando a fila está cheia, ou o
+ * banco recusa um lote, os eventos são anexados a um arquivo local em JSON lines e
+ * reprocessados depois, de forma que nenhum evento aceito é descartado.
+ */
+@Slf4j
+@Component
+public class AuditLogAppender {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO tb_audit_logs (id, user_id, action, details, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<AuditEvent> queue;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final Path spillFile;
+    private final Counter spilled;
+    private final Object spillLock = new Object();
+
+    private volatile boolean running = true;
+    private Thread flusher;
+
+    public AuditLogAppender(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${vbank.audit.queue-capacity:10000}") int queueCapacity,
+            @Value("${vbank.audit.batch-size:200}") int batchSize,
+            @Value("${vbank.audit.flush-interval-ms:200}") long flushIntervalMillis,
+            @Value("${vbank.audit.spill-file:data/audit-spill.jsonl}") Path spillFile) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.spillFile = spillFile;
+
+        Gauge.builder("vbank.audit.queue.depth", queue, BlockingQueue::size)
+                .description("Eventos de auditoria aguardando gravação")
+                .register(meterRegistry);
+        this.spilled = Counter.builder("vbank.audit.spilled")
+                .description("Eventos de auditoria desviados para o arquivo local")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        flusher = Thread.ofPlatform()
+                .name("audit-flusher")
+                .daemon()
+                .start(this::run);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        flusher.interrupt();
+        flusher.join(TimeUnit.SECONDS.toMillis(5));
+
+        List<AuditEvent> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            write(remaining);
+        }
+    }
+
+    /**
+     * Enfileira o evento sem bloquear. Se a fila estiver cheia o evento vai para o arquivo local.
+     */
+    public void append(UUID userId, String action, String details) {
+        AuditEvent event = new AuditEvent(UUID.randomUUID(), userId, action, details, LocalDateTime.now());
+        if (!running || !queue.offer(event)) {
+            spill(List.of(event));
+        }
+    }
+
+    private void run() {
+        replaySpillFile();
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        long lastReplay = System.nanoTime();
+
+        while (running) {
+            try {
+                AuditEvent first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    fill(batch);
+                    write(batch);
+                    batch.clear();
+                }
+
+                // Com a fila vazia há folga para reprocessar o que foi desviado ao arquivo
+                if (queue.isEmpty() && System.nanoTime() - lastReplay > TimeUnit.SECONDS.toNanos(5)) {
+                    replaySpillFile();
+                    lastReplay = System.nanoTime();
+                }
+            } catch (InterruptedException e) {
+                if (!running && !batch.isEmpty()) {
+                    spill(batch);
+                }
+            } catch (RuntimeException e) {
+                log.error("Erro inesperado no gravador de auditoria", e);
+            }
+        }
+    }
+
+    private void fill(List<AuditEvent> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        queue.drainTo(batch, batchSize - batch.size());
+        while (batch.size() < batchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            AuditEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            queue.drainTo(batch, batchSize - batch.size());
+        }
+    }
+
+    private void write(List<AuditEvent> batch) {
+        if (!tryInsert(batch, false)) {
+            spill(batch);
+        }
+    }
+
+    /**
+     * Grava o lote em uma transação: ele entra por inteiro ou não entra.
+     *
+     * @param replay Quando {@code true}, ignora os eventos já gravados, de um reprocessamento
+     *               interrompido depois do insert e antes da remoção do arquivo
+     * @return {@code false} se o banco recusou o lote
+     */
+    private boolean tryInsert(List<AuditEvent> batch, boolean replay) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(replay ? withoutStored(batch) : batch));
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Falha ao gravar {} evento(s) de auditoria; mantidos em {}", batch.size(), spillFile, e);
+            return false;
+        }
+    }
+
+    private List<AuditEvent> withoutStored(List<AuditEvent> batch) {
+        String placeholders = String.join(", ", Collections.nCopies(batch.size(), "?"));
+        Set<UUID> stored = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM tb_audit_logs WHERE id IN (" + placeholders + ")",
+                UUID.class,
+                batch.stream().map(AuditEvent::id).toArray()));
+        if (stored.isEmpty()) {
+            return batch;
+        }
+        return batch.stream().filter(event -> !stored.contains(event.id())).toList();
+    }
+
+    private void insert(List<AuditEvent> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, event) -> {
+            ps.setObject(1, event.id());
+            ps.setObject(2, event.userId());
+            ps.setString(3, event.action());
+            ps.setString(4, event.details());
+            ps.setTimestamp(5, Timestamp.valueOf(event.createdAt()));
+        });
+    }
+
+    /**
+     * @return {@code false} se os eventos não puderam ser gravados no arquivo
+     */
+    private boolean spill(List<AuditEvent> events) {
+        synchronized (spillLock) {
+            try {
+                if (spillFile.getParent() != null) {
+                    Files.createDirectories(spillFile.getParent());
+                }
+                try (BufferedWriter writer = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE,
+                        StandardOpenOption.DSYNC)) {
+                    for (AuditEvent event : events) {
+                        writer.write(objectMapper.writeValueAsString(event));
+                        writer.newLine();
+                    }
+                }
+                spilled.increment(events.size());
+                return true;
+            } catch (IOException e) {
+                log.error("Não foi possível gravar {} evento(s) de auditoria no arquivo {}: {}", events.size(), spillFile, events, e);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Reenvia ao banco os eventos desviados para o arquivo local.
+     *
+     * O arquivo é renomeado para {@code .replaying} antes da leitura, para que novos desvios
+     * não se misturem ao reprocessamento, e só é removido depois que todos os lotes foram
+     * gravados ou devolvidos ao arquivo de desvio: apenas os lotes recusados pelo banco voltam
+     * para ele. Um {@code .replaying} que sobrou de uma parada no meio do reprocessamento é
+     * retomado antes do próximo arquivo, e os eventos que já tinham sido gravados são ignorados.
+     */
+    private void replaySpillFile() {
+        Path replaying = spillFile.resolveSibling(spillFile.getFileName() + ".replaying");
+        List<AuditEvent> events = new ArrayList<>();
+
+        try {
+            synchronized (spillLock) {
+                if (!Files.exists(replaying)) {
+                    if (!Files.exists(spillFile)) {
+                        return;
+                    }
+                    Files.move(spillFile, replaying, StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+            readInto(replaying, events);
+        } catch (IOException e) {
+            log.error("Não foi possível reprocessar o arquivo de auditoria {}", spillFile, e);
+            return;
+        }
+
+        log.info("Reprocessando {} evento(s) de auditoria do arquivo {}", events.size(), spillFile);
+        List<AuditEvent> failed = new ArrayList<>();
+        for (int from = 0; from < events.size(); from += batchSize) {
+            List<AuditEvent> batch = events.subList(from, Math.min(events.size(), from + batchSize));
+            if (!tryInsert(batch, true)) {
+                failed.addAll(batch);
+            }
+        }
+
+        if (!failed.isEmpty() && !spill(failed)) {
+            return;
+        }
+        try {
+            Files.delete(replaying);
+        } catch (IOException e) {
+            log.error("Não foi possível remover o arquivo de auditoria reprocessado {}", replaying, e);
+        }
+    }
+
+    // Uma linha incompleta (parada durante o desvio) é descartada com registro em log, sem travar o reprocessamento
+    private void readInto(Path file, List<AuditEvent> events) throws IOException {
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                events.add(objectMapper.readValue(line, AuditEvent.class));
+            } catch (JsonProcessingException e) {
+                log.error("Linha inválida ignorada no arquivo de auditoria {}: {}", file, line, e);
+            }
+        }
+    }
+
+    record AuditEvent(UUID id, UUID userId, String action, String details, LocalDateTime createdAt) {}
+}
@@ -0,0 +1,348 @@
+package com.vitorsaucedo.vbank.services.directory;
+
+import com.vitorsaucedo.vbank.entities.enums.PixKeyType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.UUID;
+
+/**
+ * Tabela hash de endereçamento aberto (sondagem linear) gravada em um arquivo mapeado em
+ * memória, de chave PIX para {@link PixKeyLocation}.
+ *
+ * Cada posição tem 40 bytes: a impressão digital da chave (os primeiros 128 bits do SHA-256
+ * dos bytes UTF-8), a conta, o tipo e o estado. A chave em si não é guardada; com SHA-256 uma
+ * colisão de 128 bits não é alcançável nem de propósito. Exclusões deixam uma lápide para não
+ * quebrar as sequências de sondagem.
+ *
+ * O arquivo é mapeado em blocos de até 2^24 posições, já que um {@link MappedByteBuffer} não
+ * passa de 2 GiB. O cabeçalho guarda a capacidade, o tamanho, a marca d'água da última
+ * sincronização e se o arquivo foi fechado de forma consistente.
+ *
+ * Não é thread-safe: o {@link PixKeyIndex} serializa as escritas.
+ */
+final class MappedPixKeyIndex implements Closeable {
+
+    private static final long MAGIC = 0x5642504958494458L; // "VBPIXIDX"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int SLOT_SIZE = 40;
+    private static final int CHUNK_SHIFT = 24;
+    private static final double MAX_LOAD = 0.7;
+
+    private static final int CAPACITY_OFFSET = 16;
+    private static final int SIZE_OFFSET = 24;
+    private static final int TOMBSTONES_OFFSET = 32;
+    private static final int WATERMARK_OFFSET = 40;
+    private static final int CLEAN_OFFSET = 48;
+
+    private static final byte EMPTY = 0;
+    private static final byte OCCUPIED = 1;
+    private static final byte DELETED = 2;
+
+    private static final PixKeyType[] KEY_TYPES = PixKeyType.values();
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(MappedPixKeyIndex::newDigest);
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final MappedByteBuffer[] chunks;
+    private final long capacity;
+    private final long mask;
+    private final int chunkShift;
+    private final long chunkMask;
+
+    private long size;
+    private long tombstones;
+    private boolean clean;
+
+    private MappedPixKeyIndex(FileChannel channel, long capacity) throws IOException {
+        this.channel = channel;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.chunkShift = Math.min(CHUNK_SHIFT, Long.numberOfTrailingZeros(capacity));
+        this.chunkMask = (1L << chunkShift) - 1;
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+
+        long chunkBytes = (1L << chunkShift) * SLOT_SIZE;
+        this.chunks = new MappedByteBuffer[(int) (capacity >>> chunkShift)];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + i * chunkBytes, chunkBytes);
+        }
+    }
+
+    /**
+     * Cria um índice vazio, substituindo o arquivo se existir.
+     *
+     * @param capacity Quantidade de posições; arredondada para a próxima potência de dois
+     */
+    static MappedPixKeyIndex create(Path path, long capacity) throws IOException {
+        long slots = Long.highestOneBit(Math.max(16, capacity - 1)) << 1;
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            channel.truncate(0);
+            // O arquivo esparso é zerado pelo sistema: todas as posições começam vazias
+            channel.write(java.nio.ByteBuffer.allocate(1), HEADER_SIZE + slots * SLOT_SIZE - 1);
+
+            MappedPixKeyIndex index = new MappedPixKeyIndex(channel, slots);
+            index.header.putLong(0, MAGIC);
+            index.header.putInt(8, VERSION);
+            index.header.putInt(12, SLOT_SIZE);
+            index.header.putLong(CAPACITY_OFFSET, slots);
+            index.markDirty();
+            return index;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Mapeia um índice existente sem ler as posições.
+     *
+     * @throws IOException Se o arquivo não for um índice válido desta versão
+     */
+    static MappedPixKeyIndex open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Arquivo de índice truncado: " + path);
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            long capacity = header.getLong(CAPACITY_OFFSET);
+            if (header.getLong(0) != MAGIC || header.getInt(8) != VERSION || header.getInt(12) != SLOT_SIZE
+                    || Long.bitCount(capacity) != 1 || channel.size() != HEADER_SIZE + capacity * SLOT_SIZE) {
+                throw new IOException("Arquivo de índice inválido ou de outra versão: " + path);
+            }
+
+            MappedPixKeyIndex index = new MappedPixKeyIndex(channel, capacity);
+            index.size = index.header.getLong(SIZE_OFFSET);
+            index.tombstones = index.header.getLong(TOMBSTONES_OFFSET);
+            index.clean = index.header.get(CLEAN_OFFSET) == 1;
+            return index;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Se o arquivo foi fechado ou sincronizado depois da última escrita.
+     * Um índice sujo pode ter escritas pela metade e deve ser reconstruído.
+     */
+    boolean isClean() {
+        return clean;
+    }
+
+    /**
+     * Instante, em milissegundos desde a época, até o qual o índice foi sincronizado com o banco.
+     */
+    long watermark() {
+        return header.getLong(WATERMARK_OFFSET);
+    }
+
+    long size() {
+        return size;
+    }
+
+    long capacity() {
+        return capacity;
+    }
+
+    long sizeInBytes() {
+        return HEADER_SIZE + capacity * SLOT_SIZE;
+    }
+
+    boolean needsGrowth() {
+        return size + tombstones > capacity * MAX_LOAD;
+    }
+
+    PixKeyLocation find(String keyValue) {
+        byte[] fingerprint = fingerprint(keyValue);
+        long high = readLong(fingerprint, 0);
+        long low = readLong(fingerprint, 8);
+
+        for (long probe = 0, slot = high & mask; probe < capacity; probe++, slot = (slot + 1) & mask) {
+            MappedByteBuffer chunk = chunk(slot);
+            int offset = offset(slot);
+            byte state = chunk.get(offset + 32);
+            if (state == EMPTY) {
+                return null;
+            }
+            if (state == OCCUPIED && chunk.getLong(offset) == high && chunk.getLong(offset + 8) == low) {
+                return new PixKeyLocation(
+                        new UUID(chunk.getLong(offset + 16), chunk.getLong(offset + 24)),
+                        KEY_TYPES[chunk.get(offset + 33)]);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Insere ou substitui a chave.
+     *
+     * @throws IllegalStateException Se não houver posição livre; o índice deve crescer antes
+     */
+    void put(String keyValue, PixKeyLocation location) {
+        byte[] fingerprint = fingerprint(keyValue);
+        put(readLong(fingerprint, 0), readLong(fingerprint, 8),
+                location.accountId().getMostSignificantBits(), location.accountId().getLeastSignificantBits(),
+                (byte) location.keyType().ordinal());
+    }
+
+    boolean remove(String keyValue) {
+        byte[] fingerprint = fingerprint(keyValue);
+        long high = readLong(fingerprint, 0);
+        long low = readLong(fingerprint, 8);
+
+        for (long probe = 0, slot = high & mask; probe < capacity; probe++, slot = (slot + 1) & mask) {
+            MappedByteBuffer chunk = chunk(slot);
+            int offset = offset(slot);
+            byte state = chunk.get(offset + 32);
+            if (state == EMPTY) {
+                return false;
+            }
+            if (state == OCCUPIED && chunk.getLong(offset) == high && chunk.getLong(offset + 8) == low) {
+                markDirty();
+                chunk.put(offset + 32, DELETED);
+                size--;
+                tombstones++;
+                writeCounters();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Copia as posições ocupadas para um índice novo com o dobro da capacidade, descartando as lápides.
+     */
+    MappedPixKeyIndex grow(Path path) throws IOException {
+        MappedPixKeyIndex grown = create(path, capacity * 2);
+        for (long slot = 0; slot < capacity; slot++) {
+            MappedByteBuffer chunk = chunk(slot);
+            int offset = offset(slot);
+            if (chunk.get(offset + 32) == OCCUPIED) {
+                grown.put(chunk.getLong(offset), chunk.getLong(offset + 8),
+                        chunk.getLong(offset + 16), chunk.getLong(offset + 24), chunk.get(offset + 33));
+            }
+        }
+        grown.checkpoint(watermark());
+        return grown;
+    }
+
+    /**
+     * Grava as páginas alteradas no disco e marca o índice como consistente até {@code watermark}.
+     */
+    void checkpoint(long watermark) {
+        for (MappedByteBuffer chunk : chunks) {
+            chunk.force();
+        }
+        header.putLong(WATERMARK_OFFSET, watermark);
+        header.put(CLEAN_OFFSET, (byte) 1);
+        header.force();
+        clean = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void put(long high, long low, long accountHigh, long accountLow, byte keyType) {
+        long firstDeleted = -1;
+        for (long probe = 0, slot = high & mask; probe < capacity; probe++, slot = (slot + 1) & mask) {
+            MappedByteBuffer chunk = chunk(slot);
+            int offset = offset(slot);
+            byte state = chunk.get(offset + 32);
+            if (state == OCCUPIED && chunk.getLong(offset) == high && chunk.getLong(offset + 8) == low) {
+                markDirty();
+                write(chunk, offset, high, low, accountHigh, accountLow, keyType);
+                return;
+            }
+            if (state == DELETED && firstDeleted < 0) {
+                firstDeleted = slot;
+            }
+            if (state == EMPTY) {
+                long target = firstDeleted >= 0 ? firstDeleted : slot;
+                markDirty();
+                write(chunk(target), offset(target), high, low, accountHigh, accountLow, keyType);
+                if (firstDeleted >= 0) {
+                    tombstones--;
+                }
+                size++;
+                writeCounters();
+                return;
+            }
+        }
+        if (firstDeleted >= 0) {
+            markDirty();
+            write(chunk(firstDeleted), offset(firstDeleted), high, low, accountHigh, accountLow, keyType);
+            tombstones--;
+            size++;
+            writeCounters();
+            return;
+        }
+        throw new IllegalStateException("Índice de chaves PIX sem posições livres (capacidade " + capacity + ")");
+    }
+
+    private static void write(MappedByteBuffer chunk, int offset, long high, long low, long accountHigh, long accountLow, byte keyType) {
+        chunk.putLong(offset, high);
+        chunk.putLong(offset + 8, low);
+        chunk.putLong(offset + 16, accountHigh);
+        chunk.putLong(offset + 24, accountLow);
+        chunk.put(offset + 33, keyType);
+        chunk.put(offset + 32, OCCUPIED);
+    }
+
+    // A primeira escrita depois de um checkpoint marca o arquivo como sujo antes de alterá-lo
+    private void markDirty() {
+        if (clean || header.get(CLEAN_OFFSET) != 0) {
+            header.put(CLEAN_OFFSET, (byte) 0);
+            header.force();
+            clean = false;
+        }
+    }
+
+    private void writeCounters() {
+        header.putLong(SIZE_OFFSET, size);
+        header.putLong(TOMBSTONES_OFFSET, tombstones);
+    }
+
+    private MappedByteBuffer chunk(long slot) {
+        return chunks[(int) (slot >>> chunkShift)];
+    }
+
+    private int offset(long slot) {
+        return (int) ((slot & chunkMask) * SLOT_SIZE);
+    }
+
+    private static byte[] fingerprint(String keyValue) {
+        return SHA256.get().digest(keyValue.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long readLong(byte[] bytes, int from) {
+        long value = 0;
+        for (int i = from; i < from + Long.BYTES; i++) {
+            value = (value << 8) | (bytes[i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível para o índice de chaves PIX", e);
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package com.vitorsaucedo.vbank.services.directory;
+
+import com.vitorsaucedo.vbank.repositories.PixKeyDeletionRepository;
+import com.vitorsaucedo.vbank.repositories.PixKeyDeletionRepository.DeletedPixKeyView;
+import com.vitorsaucedo.vbank.repositories.PixKeyRepository;
+import com.vitorsaucedo.vbank.repositories.PixKeyRepository.PixKeyLocationView;
+import com.vitorsaucedo.vbank.services.PixKeyChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+import java.util.stream.Stream;
+
+/**
+ * Índice de todas as chaves PIX em um arquivo mapeado em memória ({@link MappedPixKeyIndex}),
+ * para resolver chave → conta sem consultar o banco e sem manter milhões de objetos no heap.
+ *
+ * Na inicialização o arquivo existente é apenas mapeado e completado com as chaves criadas
+ * desde a última sincronização; só um arquivo ausente, inválido ou que não foi fechado de
+ * forma consistente é reconstruído, lendo {@code tb_pix_keys} por cursor em segundo plano.
+ * Até lá o índice não responde e as consultas seguem para o banco.
+ *
+ * Criações e exclusões desta instância entram após o commit ({@link PixKeyChangedEvent}).
+ * As de outras instâncias, ou feitas enquanto esta estava parada, entram a cada checkpoint:
+ * criações pelo {@code created_at} de {@code tb_pix_keys} e exclusões pelo registro em
+ * {@code tb_pix_key_deletions}. Esse registro é mantido por {@code vbank.pix.key-deletions.retention};
+ * um arquivo sincronizado há mais tempo que isso é reconstruído em vez de completado.
+ *
+ * Leituras usam leitura otimista do {@link StampedLock} e não bloqueiam; escritas são serializadas.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "vbank.pix.index.enabled", havingValue = "true")
+public class PixKeyIndex {
+
+    private static final double REBUILD_LOAD = 0.5;
+
+    private final PixKeyRepository pixKeyRepository;
+    private final PixKeyDeletionRepository pixKeyDeletionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Path path;
+    private final long expectedKeys;
+    private final Duration catchUpMargin;
+    private final Duration deletionRetention;
+    private final StampedLock lock = new StampedLock();
+
+    private volatile MappedPixKeyIndex index;
+    private List<PixKeyChangedEvent> changesDuringRebuild;
+    private boolean closed;
+    private volatile boolean ready;
+
+    public PixKeyIndex(
+            PixKeyRepository pixKeyRepository,
+            PixKeyDeletionRepository pixKeyDeletionRepository,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${vbank.pix.index.path:data/pix-key-index.bin}") Path path,
+            @Value("${vbank.pix.index.expected-keys:1000000}") long expectedKeys,
+            @Value("${vbank.pix.index.catch-up-margin:5m}") Duration catchUpMargin,
+            @Value("${vbank.pix.key-deletions.retention:7d}") Duration deletionRetention) {
+        this.pixKeyRepository = pixKeyRepository;
+        this.pixKeyDeletionRepository = pixKeyDeletionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.path = path;
+        this.expectedKeys = expectedKeys;
+        this.catchUpMargin = catchUpMargin;
+        this.deletionRetention = deletionRetention;
+    }
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("vbank.pix.index.keys", this, PixKeyIndex::size)
+                .description("Chaves PIX no índice mapeado em memória")
+                .register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * @return A conta e o tipo da chave, ou vazio se ela não estiver no índice ou o índice
+     * ainda não estiver pronto; nos dois casos a chave ainda pode existir no banco
+     */
+    public Optional<PixKeyLocation> find(String keyValue) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        long stamp = lock.tryOptimisticRead();
+        try {
+            PixKeyLocation location = index.find(keyValue);
+            if (lock.validate(stamp)) {
+                return Optional.ofNullable(location);
+            }
+        } catch (RuntimeException e) {
+            // Leitura concorrente com uma escrita ou troca de arquivo: repete com trava abaixo
+        }
+        stamp = lock.readLock();
+        try {
+            return index != null ? Optional.ofNullable(index.find(keyValue)) : Optional.empty();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPixKeyChanged(PixKeyChangedEvent event) {
+        long stamp = lock.writeLock();
+        try {
+            if (index != null) {
+                index = apply(index, path, event);
+            }
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(event);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread.ofPlatform()
+                .name("pix-key-index-loader")
+                .daemon()
+                .start(this::load);
+    }
+
+    /**
+     * Completa o índice com as chaves criadas e excluídas por outras instâncias e grava no
+     * disco, marcando o arquivo como consistente.
+     */
+    @Scheduled(
+            initialDelayString = "${vbank.pix.index.checkpoint-interval-ms:60000}",
+            fixedDelayString = "${vbank.pix.index.checkpoint-interval-ms:60000}")
+    public void checkpoint() {
+        // Sem esperar a carga inicial, que segura o monitor e ocuparia a thread do agendador
+        if (!ready) {
+            return;
+        }
+        synchronized (this) {
+            Instant syncedAt = Instant.now();
+            catchUp(Instant.ofEpochMilli(index.watermark()));
+
+            // A trava de leitura basta: só o cabeçalho muda, e as escritas esperam
+            long stamp = lock.readLock();
+            try {
+                if (index != null) {
+                    index.checkpoint(syncedAt.toEpochMilli());
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    /**
+     * Reconstrói o índice a partir do banco em um arquivo novo e troca pelo atual.
+     * O índice atual continua respondendo durante a leitura.
+     */
+    @Scheduled(
+            initialDelayString = "${vbank.pix.index.rebuild-interval-ms:86400000}",
+            fixedDelayString = "${vbank.pix.index.rebuild-interval-ms:86400000}")
+    public synchronized void rebuild() {
+        Path building = path.resolveSibling(path.getFileName() + ".building");
+        Instant startedAt = Instant.now();
+        long keys = pixKeyRepository.count();
+
+        long stamp = lock.writeLock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+
+        MappedPixKeyIndex next = null;
+        try {
+            next = MappedPixKeyIndex.create(building, (long) (Math.max(expectedKeys, keys) / REBUILD_LOAD));
+            MappedPixKeyIndex[] target = {next};
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<PixKeyLocationView> locations = pixKeyRepository.streamAllLocations()) {
+                    locations.forEach(location -> target[0] = put(target[0], building,
+                            location.getKeyValue(), new PixKeyLocation(location.getAccountId(), location.getKeyType())));
+                }
+            });
+            next = target[0];
+            next.checkpoint(startedAt.toEpochMilli());
+            Files.move(building, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            stamp = lock.writeLock();
+            try {
+                if (closed) {
+                    closeQuietly(next);
+                    return;
+                }
+                for (PixKeyChangedEvent change : changesDuringRebuild) {
+                    next = apply(next, path, change);
+                }
+                MappedPixKeyIndex previous = index;
+                index = next;
+                ready = true;
+                closeQuietly(previous);
+            } finally {
+                changesDuringRebuild = null;
+                lock.unlockWrite(stamp);
+            }
+            log.info("Índice de chaves PIX reconstruído: {} chave(s), {} MiB",
+                    next.size(), next.sizeInBytes() >> 20);
+        } catch (IOException | RuntimeException e) {
+            stamp = lock.writeLock();
+            changesDuringRebuild = null;
+            lock.unlockWrite(stamp);
+            closeQuietly(next);
+            log.error("Falha ao reconstruir o índice de chaves PIX; mantido o índice anterior", e);
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        long stamp = lock.writeLock();
+        try {
+            closed = true;
+            ready = false;
+            if (index != null) {
+                // Mantém a marca d'água da última sincronização: as escritas desde então são desta instância
+                index.checkpoint(index.watermark());
+                closeQuietly(index);
+                index = null;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private synchronized void load() {
+        try {
+            MappedPixKeyIndex opened = MappedPixKeyIndex.open(path);
+            Instant syncedAt = Instant.ofEpochMilli(opened.watermark());
+            if (!opened.isClean()) {
+                closeQuietly(opened);
+                log.warn("Índice de chaves PIX em {} não foi fechado corretamente; reconstruindo", path);
+            } else if (syncedAt.isBefore(Instant.now().minus(deletionRetention))) {
+                // Exclusões desse período podem já ter sido expurgadas de tb_pix_key_deletions
+                closeQuietly(opened);
+                log.info("Índice de chaves PIX em {} sincronizado em {}, antes da retenção de exclusões; reconstruindo", path, syncedAt);
+            } else {
+                long stamp = lock.writeLock();
+                try {
+                    index = opened;
+                } finally {
+                    lock.unlockWrite(stamp);
+                }
+                catchUp(syncedAt);
+                ready = true;
+                log.info("Índice de chaves PIX mapeado de {}: {} chave(s)", path, opened.size());
+                return;
+            }
+        } catch (NoSuchFileException e) {
+            log.info("Índice de chaves PIX não encontrado em {}; construindo", path);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Índice de chaves PIX em {} é inválido; reconstruindo", path, e);
+        }
+        rebuild();
+    }
+
+    /**
+     * Aplica as exclusões e as criações de outras instâncias desde {@code since}; a margem
+     * cobre transações que gravaram o horário antes de commitar.
+     *
+     * As exclusões vêm primeiro e só removem a chave se ela ainda aponta para a conta da
+     * exclusão; as criações refletem o estado atual da tabela e recolocam as chaves recriadas.
+     */
+    private void catchUp(Instant since) {
+        LocalDateTime from = LocalDateTime.ofInstant(since.minus(catchUpMargin), ZoneId.systemDefault());
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<DeletedPixKeyView> deletions = pixKeyDeletionRepository.streamDeletedSince(from)) {
+                deletions.forEach(deletion -> removeIfOwnedBy(deletion.getKeyValue(), deletion.getAccountId()));
+            }
+            try (Stream<PixKeyLocationView> locations = pixKeyRepository.streamLocationsCreatedSince(from)) {
+                locations.forEach(location -> onPixKeyChanged(new PixKeyChangedEvent(
+                        location.getKeyValue(), location.getAccountId(), location.getKeyType(), true)));
+            }
+        });
+    }
+
+    private void removeIfOwnedBy(String keyValue, UUID accountId) {
+        long stamp = lock.writeLock();
+        try {
+            if (index != null) {
+                PixKeyLocation location = index.find(keyValue);
+                if (location != null && location.accountId().equals(accountId)) {
+                    index.remove(keyValue);
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // Chamado com a trava de escrita; devolve o índice ampliado quando foi preciso crescer
+    private static MappedPixKeyIndex apply(MappedPixKeyIndex target, Path file, PixKeyChangedEvent event) {
+        if (!event.created()) {
+            target.remove(event.keyValue());
+            return target;
+        }
+        return put(target, file, event.keyValue(), new PixKeyLocation(event.accountId(), event.keyType()));
+    }
+
+    private static MappedPixKeyIndex put(MappedPixKeyIndex target, Path file, String keyValue, PixKeyLocation location) {
+        if (target.needsGrowth()) {
+            target = grow(target, file);
+        }
+        target.put(keyValue, location);
+        return target;
+    }
+
+    // Copia para um arquivo com o dobro de posições e o coloca no lugar do atual
+    private static MappedPixKeyIndex grow(MappedPixKeyIndex target, Path file) {
+        Path grown = file.resolveSibling(file.getFileName() + ".grow");
+        try {
+            MappedPixKeyIndex next = target.grow(grown);
+            Files.move(grown, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            closeQuietly(target);
+            log.info("Índice de chaves PIX ampliado para {} posições", next.capacity());
+            return next;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ampliar o índice de chaves PIX", e);
+        }
+    }
+
+    private long size() {
+        MappedPixKeyIndex current = index;
+        return ready && current != null ? current.size() : 0;
+    }
+
+    private static void closeQuietly(MappedPixKeyIndex target) {
+        if (target == null) {
+            return;
+        }
+        try {
+            target.close();
+        } catch (IOException e) {
+            log.warn("Falha ao fechar o índice de chaves PIX", e);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.vitorsaucedo.vbank.services.directory;
+
+import com.vitorsaucedo.vbank.entities.enums.PixKeyType;
+
+import java.util.UUID;
+
+/**
+ * Conta e tipo de uma chave PIX, como guardados no índice mapeado em memória.
+ */
+public record PixKeyLocation(UUID accountId, PixKeyType keyType) {}
@@ -0,0 +1,233 @@
+package com.vitorsaucedo.vbank.services.transfer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vitorsaucedo.vbank.dtos.TransactionResponse;
+import com.vitorsaucedo.vbank.entities.BankAccount;
+import com.vitorsaucedo.vbank.entities.Transaction;
+import com.vitorsaucedo.vbank.entities.enums.TransactionStatus;
+import com.vitorsaucedo.vbank.exceptions.InsufficientBalanceException;
+import com.vitorsaucedo.vbank.exceptions.ResourceNotFoundException;
+import com.vitorsaucedo.vbank.exceptions.TransferConflictException;
+import com.vitorsaucedo.vbank.exceptions.VbankException;
+import com.vitorsaucedo.vbank.mappers.TransactionMapper;
+import com.vitorsaucedo.vbank.money.Money;
+import com.vitorsaucedo.vbank.repositories.BankAccountRepository;
+import com.vitorsaucedo.vbank.repositories.TransactionRepository;
+import com.vitorsaucedo.vbank.repositories.TransactionRepository.PendingTransactionView;
+import com.vitorsaucedo.vbank.security.TransactionAuthorizationService;
+import com.vitorsaucedo.vbank.services.LedgerService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Motor de liquidação assíncrona.
+ *
+ * A requisição apenas grava a transação com status {@code PENDING} e devolve seu id;
+ * um pool limitado de workers aplica o débito depois, com a conta pagadora protegida
+ * pela {@link TransferConcurrencyStrategy}, e move a transação para {@code COMPLETED}
+ * ou {@code FAILED}. O cliente acompanha o resultado por {@code GET /transfers/{id}}.
+ *
+ * Quando a fila dos workers está cheia a transação continua {@code PENDING} e é
+ * reenfileirada pela varredura periódica, que também recupera transações aceitas
+ * antes de uma reinicialização. A sobrecarga aparece como profundidade de fila,
+ * e não como requisições presas esperando o banco.
+ *
+ * Se a transferência foi autorizada por token de step-up e a liquidação falhar, o valor e o
+ * uso voltam ao token ({@link TransactionAuthorizationService#restore}). O vínculo entre
+ * transação e token fica em memória pelo tempo de vida do token.
+ *
+ * Lotes ({@link #submitBatch}) são liquidados na hora, já que a resposta traz o desfecho de
+ * cada item, sob o mesmo lock da conta pagadora que os workers usam. Transações aceitas e
+ * ainda {@code PENDING} não reservam saldo: a verificação do aceite é só uma recusa antecipada,
+ * e a que vale é a da liquidação. Um lote pode passar na frente delas, que então terminam
+ * {@code FAILED} por saldo insuficiente, como se tivessem perdido a vez para outra transferência.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "vbank.transfer.engine", havingValue = "async")
+public class AsyncTransferEngine implements TransferEngine {
+
+    private final TransferConcurrencyStrategy concurrencyStrategy;
+    private final TransferSettlement settlement;
+    private final TransactionRepository transactionRepository;
+    private final BankAccountRepository accountRepository;
+    private final LedgerService ledgerService;
+    private final TransactionMapper transactionMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionAuthorizationService transactionAuthorizationService;
+    private final Cache<UUID, ConsumedAuthorization> authorizations;
+    private final ThreadPoolExecutor workers;
+    private final Set<UUID> queued = ConcurrentHashMap.newKeySet();
+    private final Duration staleAfter;
+    private final int sweepBatchSize;
+    private final Counter completed;
+    private final Counter failed;
+
+    public AsyncTransferEngine(
+            TransferConcurrencyStrategy concurrencyStrategy,
+            TransferSettlement settlement,
+            TransactionRepository transactionRepository,
+            BankAccountRepository accountRepository,
+            LedgerService ledgerService,
+            TransactionMapper transactionMapper,
+            TransactionTemplate transactionTemplate,
+            TransactionAuthorizationService transactionAuthorizationService,
+            MeterRegistry meterRegistry,
+            @Value("${vbank.transfer.async.workers:0}") int workerCount,
+            @Value("${vbank.transfer.async.queue-capacity:10000}") int queueCapacity,
+            @Value("${vbank.transfer.async.stale-after:5s}") Duration staleAfter,
+            @Value("${vbank.transfer.async.sweep-batch-size:500}") int sweepBatchSize) {
+        this.concurrencyStrategy = concurrencyStrategy;
+        this.settlement = settlement;
+        this.transactionRepository = transactionRepository;
+        this.accountRepository = accountRepository;
+        this.ledgerService = ledgerService;
+        this.transactionMapper = transactionMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.transactionAuthorizationService = transactionAuthorizationService;
+        this.authorizations = Caffeine.newBuilder()
+                .expireAfterWrite(transactionAuthorizationService.ttl())
+                .build();
+        this.staleAfter = staleAfter;
+        this.sweepBatchSize = sweepBatchSize;
+
+        int threads = workerCount > 0 ? workerCount : Runtime.getRuntime().availableProcessors();
+        this.workers = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("transfer-async-", 0).daemon().factory()
+        );
+
+        Gauge.builder("vbank.transfer.async.queue.depth", workers, pool -> pool.getQueue().size())
+                .description("Transferências aceitas aguardando um worker")
+                .register(meterRegistry);
+        this.completed = Counter.builder("vbank.transfer.async.settled").tag("status", "COMPLETED").register(meterRegistry);
+        this.failed = Counter.builder("vbank.transfer.async.settled").tag("status", "FAILED").register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // O que ficar na fila continua PENDING no banco e é retomado pela varredura
+        workers.shutdownNow();
+        workers.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public TransactionResponse submit(TransferCommand command) {
+        TransactionResponse accepted = transactionTemplate.execute(status -> {
+            BankAccount payer = accountRepository.findById(command.payerAccountId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Conta bancária", command.payerAccountId().toString()));
+            BankAccount payee = accountRepository.findById(command.payeeAccountId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Conta bancária", command.payeeAccountId().toString()));
+
+            // Recusa imediata do caso óbvio; a verificação definitiva acontece na liquidação
+            Money available = ledgerService.availableBalance(payer);
+            if (available.isLessThan(command.request().amount())) {
+                throw new InsufficientBalanceException(available, command.request().amount());
+            }
+
+            Transaction transaction = transactionMapper.toEntity(command.request(), payer, payee, command.idempotencyKey());
+            transaction.setStatus(TransactionStatus.PENDING);
+            return transactionMapper.toResponse(transactionRepository.saveAndFlush(transaction));
+        });
+
+        // Registrado antes de enfileirar para que uma falha imediata do worker já encontre o token
+        if (command.authorizationId() != null) {
+            authorizations.put(accepted.transactionId(),
+                    new ConsumedAuthorization(command.authorizationId(), command.request().amount()));
+        }
+        enqueue(accepted.transactionId(), command.payerAccountId());
+        return accepted;
+    }
+
+    @Override
+    public List<SettlementOutcome> submitBatch(UUID payerAccountId, List<TransferCommand> commands) {
+        return concurrencyStrategy.execute(
+                List.of(payerAccountId),
+                accounts -> settlement.settleBatch(payerAccountId, commands, accounts)
+        );
+    }
+
+    /**
+     * Reenfileira transações que continuam {@code PENDING} além do esperado, seja por
+     * fila cheia, falha transitória de concorrência ou reinicialização da aplicação.
+     */
+    @Scheduled(fixedDelayString = "${vbank.transfer.async.sweep-interval-ms:1000}")
+    public void sweepPending() {
+        List<PendingTransactionView> stale = transactionRepository.findPendingCreatedBefore(
+                LocalDateTime.now().minus(staleAfter), Limit.of(sweepBatchSize));
+
+        for (PendingTransactionView pending : stale) {
+            if (!enqueue(pending.getId(), pending.getPayerAccountId())) {
+                return;
+            }
+        }
+    }
+
+    private boolean enqueue(UUID transactionId, UUID payerAccountId) {
+        if (!queued.add(transactionId)) {
+            return true;
+        }
+        try {
+            workers.execute(() -> {
+                try {
+                    settle(transactionId, payerAccountId);
+                } finally {
+                    queued.remove(transactionId);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            queued.remove(transactionId);
+            log.debug("Fila de liquidação cheia; transação {} segue PENDING até a próxima varredura", transactionId);
+            return false;
+        }
+    }
+
+    private void settle(UUID transactionId, UUID payerAccountId) {
+        try {
+            concurrencyStrategy.execute(
+                    List.of(payerAccountId),
+                    accounts -> settlement.settlePending(transactionId, accounts)
+            ).ifPresent(transaction -> completed.increment());
+            authorizations.invalidate(transactionId);
+        } catch (TransferConflictException e) {
+            log.debug("Disputa ao liquidar a transação {}; nova tentativa na próxima varredura", transactionId);
+        } catch (VbankException e) {
+            Integer updated = transactionTemplate.execute(status -> transactionRepository.markFailed(transactionId, e.getMessage()));
+            if (updated != null && updated > 0) {
+                failed.increment();
+                ConsumedAuthorization authorization = authorizations.asMap().remove(transactionId);
+                if (authorization != null) {
+                    transactionAuthorizationService.restore(authorization.authorizationId(), authorization.amount());
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Erro inesperado ao liquidar a transação {}", transactionId, e);
+        }
+    }
+
+    private record ConsumedAuthorization(UUID authorizationId, Money amount) {}
+}
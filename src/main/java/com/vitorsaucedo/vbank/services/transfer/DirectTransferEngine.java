@@ -0,0 +1,40 @@
+package com.vitorsaucedo.vbank.services.transfer;
+
+import com.vitorsaucedo.vbank.dtos.TransactionResponse;
+import com.vitorsaucedo.vbank.mappers.TransactionMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Liquida cada transferência em sua própria transação, com a conta pagadora
+ * protegida pela {@link TransferConcurrencyStrategy} configurada.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "vbank.transfer.engine", havingValue = "direct", matchIfMissing = true)
+public class DirectTransferEngine implements TransferEngine {
+
+    private final TransferConcurrencyStrategy concurrencyStrategy;
+    private final TransferSettlement settlement;
+    private final TransactionMapper transactionMapper;
+
+    @Override
+    public TransactionResponse submit(TransferCommand command) {
+        return concurrencyStrategy.execute(
+                List.of(command.payerAccountId()),
+                accounts -> transactionMapper.toResponse(settlement.settle(command, accounts))
+        );
+    }
+
+    @Override
+    public List<SettlementOutcome> submitBatch(UUID payerAccountId, List<TransferCommand> commands) {
+        return concurrencyStrategy.execute(
+                List.of(payerAccountId),
+                accounts -> settlement.settleBatch(payerAccountId, commands, accounts)
+        );
+    }
+}
@@ -0,0 +1,81 @@
+package com.vitorsaucedo.vbank.services.transfer;
+
+import com.vitorsaucedo.vbank.entities.BankAccount;
+import com.vitorsaucedo.vbank.exceptions.ResourceNotFoundException;
+import com.vitorsaucedo.vbank.exceptions.TransferConflictException;
+import com.vitorsaucedo.vbank.repositories.BankAccountRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * Lê as contas sem bloqueio e confia no {@code @Version} de {@link BankAccount}
+ * para detectar escritas concorrentes no commit.
+ *
+ * Em caso de conflito a transação inteira é refeita, até {@code max-attempts}
+ * vezes, com backoff exponencial e jitter completo para dessincronizar os concorrentes.
+ */
+@Component
+@ConditionalOnProperty(name = "vbank.transfer.concurrency.strategy", havingValue = "optimistic")
+public class OptimisticLockingStrategy implements TransferConcurrencyStrategy {
+
+    private final BankAccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long baseBackoffMillis;
+    private final long maxBackoffMillis;
+
+    public OptimisticLockingStrategy(
+            BankAccountRepository accountRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${vbank.transfer.concurrency.optimistic.max-attempts:5}") int maxAttempts,
+            @Value("${vbank.transfer.concurrency.optimistic.base-backoff-ms:5}") long baseBackoffMillis,
+            @Value("${vbank.transfer.concurrency.optimistic.max-backoff-ms:200}") long maxBackoffMillis) {
+        this.accountRepository = accountRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMillis = baseBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    @Override
+    public <T> T execute(Collection<UUID> accountIds, Function<Map<UUID, BankAccount>, T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    Map<UUID, BankAccount> accounts = new LinkedHashMap<>();
+                    for (UUID id : accountIds.stream().distinct().toList()) {
+                        accounts.put(id, accountRepository.findById(id)
+                                .orElseThrow(() -> new ResourceNotFoundException("Conta bancária", id.toString())));
+                    }
+                    return work.apply(accounts);
+                });
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw new TransferConflictException(
+                            "Não foi possível concluir a operação após " + attempt + " tentativas concorrentes.", e);
+                }
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, baseBackoffMillis << Math.min(attempt, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransferConflictException("Operação interrompida durante nova tentativa.", e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.vitorsaucedo.vbank.services.transfer;
+
+import com.vitorsaucedo.vbank.entities.BankAccount;
+import com.vitorsaucedo.vbank.exceptions.ResourceNotFoundException;
+import com.vitorsaucedo.vbank.repositories.BankAccountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Bloqueia as linhas das contas com {@code SELECT ... FOR UPDATE}.
+ *
+ * Os locks são sempre adquiridos em ordem crescente de id, de forma que duas
+ * transferências cruzadas (A → B e B → A) nunca entram em deadlock.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "vbank.transfer.concurrency.strategy", havingValue = "pessimistic", matchIfMissing = true)
+public class PessimisticLockingStrategy implements TransferConcurrencyStrategy {
+
+    private final BankAccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public <T> T execute(Collection<UUID> accountIds, Function<Map<UUID, BankAccount>, T> work) {
+        return transactionTemplate.execute(status -> {
+            Map<UUID, BankAccount> accounts = new LinkedHashMap<>();
+            for (UUID id : accountIds.stream().distinct().sorted().toList()) {
+                accounts.put(id, accountRepository.findByIdForUpdate(id)
+                        .orElseThrow(() -> new ResourceNotFoundException("Conta bancária", id.toString())));
+            }
+            return work.apply(accounts);
+        });
+    }
+}
@@ -0,0 +1,279 @@
+package com.vitorsaucedo.vbank.services.transfer;
+
+import com.vitorsaucedo.vbank.dtos.TransactionResponse;
+import com.vitorsaucedo.vbank.entities.BankAccount;
+import com.vitorsaucedo.vbank.exceptions.TransferConflictException;
+import com.vitorsaucedo.vbank.exceptions.VbankException;
+import com.vitorsaucedo.vbank.mappers.TransactionMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Motor de liquidação com um único escritor por shard e commit em grupo.
+ *
+ * As transferências são roteadas para o shard do id da conta pagadora, de forma
+ * que todos os débitos de uma mesma conta são serializados por uma única thread,
+ * sem disputa de lock entre requisições. Cada escritor drena um micro-lote de até
+ * {@code max-batch-size} itens, esperando no máximo {@code max-linger} por novos itens,
+ * e grava débitos, créditos, transações e auditoria do lote em uma única transação.
+ *
+ * Lotes de um mesmo pagador ({@link #submitBatch}) entram na fila do shard desse pagador
+ * como um único item, e assim não disputam a conta com o escritor do shard.
+ *
+ * Falhas de negócio (saldo insuficiente, conta inativa) afetam apenas o item que as
+ * causou. Se o commit do lote falhar, os itens são refeitos individualmente.
+ * O chamador continua bloqueado até o commit do lote que contém sua transferência.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "vbank.transfer.engine", havingValue = "sequencer")
+public class SequencedTransferEngine implements TransferEngine {
+
+    private final TransferConcurrencyStrategy concurrencyStrategy;
+    private final TransferSettlement settlement;
+    private final TransactionMapper transactionMapper;
+    private final int maxBatchSize;
+    private final long maxLingerNanos;
+    private final long submitTimeoutMillis;
+    private final List<Shard> shards = new ArrayList<>();
+    private final DistributionSummary batchSize;
+    private final Timer commitLatency;
+
+    private volatile boolean running = true;
+
+    public SequencedTransferEngine(
+            TransferConcurrencyStrategy concurrencyStrategy,
+            TransferSettlement settlement,
+            TransactionMapper transactionMapper,
+            MeterRegistry meterRegistry,
+            @Value("${vbank.transfer.sequencer.shards:0}") int shardCount,
+            @Value("${vbank.transfer.sequencer.queue-capacity:4096}") int queueCapacity,
+            @Value("${vbank.transfer.sequencer.max-batch-size:64}") int maxBatchSize,
+            @Value("${vbank.transfer.sequencer.max-linger:2ms}") Duration maxLinger,
+            @Value("${vbank.transfer.sequencer.submit-timeout-ms:1000}") long submitTimeoutMillis) {
+        this.concurrencyStrategy = concurrencyStrategy;
+        this.settlement = settlement;
+        this.transactionMapper = transactionMapper;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxLingerNanos = maxLinger.toNanos();
+        this.submitTimeoutMillis = submitTimeoutMillis;
+
+        int count = shardCount > 0 ? shardCount : Runtime.getRuntime().availableProcessors();
+        for (int i = 0; i < count; i++) {
+            Shard shard = new Shard(i, new ArrayBlockingQueue<>(queueCapacity));
+            Gauge.builder("vbank.transfer.sequencer.queue.depth", shard.queue, BlockingQueue::size)
+                    .tag("shard", String.valueOf(i))
+                    .register(meterRegistry);
+            shards.add(shard);
+        }
+
+        this.batchSize = DistributionSummary.builder("vbank.transfer.sequencer.batch.size")
+                .description("Quantidade de transferências por commit em grupo")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.commitLatency = Timer.builder("vbank.transfer.sequencer.commit")
+                .description("Tempo de commit de um lote de transferências")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        for (Shard shard : shards) {
+            shard.thread = Thread.ofPlatform()
+                    .name("transfer-sequencer-" + shard.index)
+                    .daemon()
+                    .start(shard);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        for (Shard shard : shards) {
+            shard.thread.interrupt();
+        }
+        for (Shard shard : shards) {
+            shard.thread.join(TimeUnit.SECONDS.toMillis(5));
+            List<Pending> abandoned = new ArrayList<>();
+            shard.queue.drainTo(abandoned);
+            abandoned.forEach(p -> p.result().completeExceptionally(new TransferConflictException()));
+        }
+    }
+
+    @Override
+    public TransactionResponse submit(TransferCommand command) {
+        CompletableFuture<TransactionResponse> result = new CompletableFuture<>();
+        return enqueueAndWait(new PendingTransfer(command, result), result);
+    }
+
+    @Override
+    public List<SettlementOutcome> submitBatch(UUID payerAccountId, List<TransferCommand> commands) {
+        CompletableFuture<List<SettlementOutcome>> result = new CompletableFuture<>();
+        return enqueueAndWait(new PendingBatch(payerAccountId, commands, result), result);
+    }
+
+    private <T> T enqueueAndWait(Pending pending, CompletableFuture<T> result) {
+        Shard shard = shards.get(Math.floorMod(pending.payerAccountId().hashCode(), shards.size()));
+
+        try {
+            if (!running || !shard.queue.offer(pending, submitTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new TransferConflictException();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransferConflictException("Operação interrompida aguardando a fila de transferências.", e);
+        }
+
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void commit(List<Pending> batch) {
+        batchSize.record(batch.size());
+        Timer.Sample sample = Timer.start();
+        try {
+            List<Runnable> completions = concurrencyStrategy.execute(accountIds(batch), accounts -> {
+                List<Runnable> settled = new ArrayList<>(batch.size());
+                for (Pending pending : batch) {
+                    settled.add(settle(pending, accounts));
+                }
+                return settled;
+            });
+            sample.stop(commitLatency);
+
+            completions.forEach(Runnable::run);
+        } catch (RuntimeException e) {
+            sample.stop(commitLatency);
+            if (batch.size() == 1) {
+                batch.get(0).result().completeExceptionally(e);
+                return;
+            }
+            log.warn("Falha no commit de um lote com {} transferências; refazendo individualmente", batch.size(), e);
+            for (Pending pending : batch) {
+                commit(List.of(pending));
+            }
+        }
+    }
+
+    // Liquida dentro da transação do grupo; o resultado só é entregue ao chamador depois do commit
+    private Runnable settle(Pending pending, Map<UUID, BankAccount> accounts) {
+        try {
+            return switch (pending) {
+                case PendingTransfer transfer -> {
+                    TransactionResponse response = transactionMapper.toResponse(settlement.settle(transfer.command(), accounts));
+                    yield () -> transfer.result().complete(response);
+                }
+                case PendingBatch items -> {
+                    List<SettlementOutcome> outcomes = settlement.settleBatch(items.payerAccountId(), items.commands(), accounts);
+                    yield () -> items.result().complete(outcomes);
+                }
+            };
+        } catch (VbankException e) {
+            return () -> pending.result().completeExceptionally(e);
+        }
+    }
+
+    private static List<UUID> accountIds(List<Pending> batch) {
+        List<UUID> ids = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            ids.add(pending.payerAccountId());
+        }
+        return ids;
+    }
+
+    private final class Shard implements Runnable {
+
+        private final int index;
+        private final BlockingQueue<Pending> queue;
+        private Thread thread;
+
+        private Shard(int index, BlockingQueue<Pending> queue) {
+            this.index = index;
+            this.queue = queue;
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    commit(drainBatch(first));
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        return;
+                    }
+                } catch (RuntimeException e) {
+                    log.error("Erro inesperado no sequenciador de transferências (shard {})", index, e);
+                }
+            }
+        }
+
+        private List<Pending> drainBatch(Pending first) throws InterruptedException {
+            List<Pending> batch = new ArrayList<>(maxBatchSize);
+            batch.add(first);
+            queue.drainTo(batch, maxBatchSize - 1);
+
+            long deadline = System.nanoTime() + maxLingerNanos;
+            while (batch.size() < maxBatchSize) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    break;
+                }
+                batch.add(next);
+                queue.drainTo(batch, maxBatchSize - batch.size());
+            }
+            return batch;
+        }
+    }
+
+    private sealed interface Pending permits PendingTransfer, PendingBatch {
+
+        UUID payerAccountId();
+
+        CompletableFuture<?> result();
+    }
+
+    private record PendingTransfer(TransferCommand command, CompletableFuture<TransactionResponse> result) implements Pending {
+
+        @Override
+        public UUID payerAccountId() {
+            return command.payerAccountId();
+        }
+    }
+
+    private record PendingBatch(UUID payerAccountId, List<TransferCommand> commands,
+                                CompletableFuture<List<SettlementOutcome>> result) implements Pending {}
+}
@@ -0,0 +1,18 @@
+package com.vitorsaucedo.vbank.services.transfer;
+
+import com.vitorsaucedo.vbank.entities.Transaction;
+import com.vitorsaucedo.vbank.exceptions.VbankException;
+
+/**
+ * Desfecho da liquidação de um item de lote: a transação gravada ou o motivo da recusa.
+ */
+public record SettlementOutcome(TransferCommand command, Transaction transaction, VbankException failure) {
+
+    public static SettlementOutcome success(TransferCommand command, Transaction transaction) {
+        return new SettlementOutcome(command, transaction, null);
+    }
+
+    public static SettlementOutcome failure(TransferCommand command, VbankException failure) {
+        return new SettlementOutcome(command, null, failure);
+    }
+}
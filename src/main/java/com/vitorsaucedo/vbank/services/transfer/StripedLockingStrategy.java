@@ -0,0 +1,96 @@
+package com.vitorsaucedo.vbank.services.transfer;
+
+import com.vitorsaucedo.vbank.entities.BankAccount;
+import com.vitorsaucedo.vbank.exceptions.ResourceNotFoundException;
+import com.vitorsaucedo.vbank.exceptions.TransferConflictException;
+import com.vitorsaucedo.vbank.repositories.BankAccountRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Serializa o acesso às contas com uma tabela fixa de locks em memória
+ * ({@code stripes} entradas), indexada pelo hash do id da conta.
+ *
+ * Os stripes são adquiridos em ordem crescente de índice antes de abrir a transação
+ * e liberados somente após o commit. Só é correto quando existe uma única instância
+ * da aplicação escrevendo no banco.
+ */
+@Component
+@ConditionalOnProperty(name = "vbank.transfer.concurrency.strategy", havingValue = "striped")
+public class StripedLockingStrategy implements TransferConcurrencyStrategy {
+
+    private final BankAccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantLock[] stripes;
+    private final long lockTimeoutMillis;
+
+    public StripedLockingStrategy(
+            BankAccountRepository accountRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${vbank.transfer.concurrency.striped.stripes:1024}") int stripeCount,
+            @Value("${vbank.transfer.concurrency.striped.lock-timeout-ms:2000}") long lockTimeoutMillis) {
+        this.accountRepository = accountRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.stripes = new ReentrantLock[Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.lockTimeoutMillis = lockTimeoutMillis;
+    }
+
+    @Override
+    public <T> T execute(Collection<UUID> accountIds, Function<Map<UUID, BankAccount>, T> work) {
+        List<ReentrantLock> acquired = new ArrayList<>();
+        try {
+            for (int index : stripeIndexes(accountIds)) {
+                ReentrantLock lock = stripes[index];
+                if (!lock.tryLock(lockTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    throw new TransferConflictException();
+                }
+                acquired.add(lock);
+            }
+
+            return transactionTemplate.execute(status -> {
+                Map<UUID, BankAccount> accounts = new LinkedHashMap<>();
+                for (UUID id : accountIds.stream().distinct().toList()) {
+                    accounts.put(id, accountRepository.findById(id)
+                            .orElseThrow(() -> new ResourceNotFoundException("Conta bancária", id.toString())));
+                }
+                return work.apply(accounts);
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransferConflictException("Operação interrompida aguardando lock da conta.", e);
+        } finally {
+            for (int i = acquired.size() - 1; i >= 0; i--) {
+                acquired.get(i).unlock();
+            }
+        }
+    }
+
+    private int[] stripeIndexes(Collection<UUID> accountIds) {
+        return accountIds.stream()
+                .mapToInt(this::stripeIndex)
+                .distinct()
+                .sorted()
+                .toArray();
+    }
+
+    private int stripeIndex(UUID accountId) {
+        int h = accountId.hashCode();
+        h ^= (h >>> 16);
+        return h & (stripes.length - 1);
+    }
+}
@@ -0,0 +1,25 @@
+package com.vitorsaucedo.vbank.services.transfer;
+
+import com.vitorsaucedo.vbank.dtos.PixTransferRequest;
+
+import java.util.UUID;
+
+/**
+ * Transferência já autorizada (PIN conferido e chave resolvida), pronta para
+ * ser liquidada por um {@link TransferEngine}.
+ *
+ * @param userId Usuário pagador
+ * @param payerAccountId Conta debitada
+ * @param payeeAccountId Conta creditada
+ * @param request Dados originais da requisição
+ * @param idempotencyKey Chave de idempotência informada pelo cliente (opcional)
+ * @param authorizationId Token de step-up consumido pela transferência, devolvido se a liquidação falhar (opcional)
+ */
+public record TransferCommand(
+        UUID userId,
+        UUID payerAccountId,
+        UUID payeeAccountId,
+        PixTransferRequest request,
+        UUID idempotencyKey,
+        UUID authorizationId
+) {}
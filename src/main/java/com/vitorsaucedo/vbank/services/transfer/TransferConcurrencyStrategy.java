@@ -0,0 +1,32 @@
+package com.vitorsaucedo.vbank.services.transfer;
+
+import com.vitorsaucedo.vbank.entities.BankAccount;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Estratégia de controle de concorrência para operações que alteram o saldo das contas.
+ *
+ * A implementação ativa é escolhida por deployment através da propriedade
+ * {@code vbank.transfer.concurrency.strategy}:
+ * - {@code pessimistic} (padrão): {@code SELECT ... FOR UPDATE} em ordem crescente de id
+ * - {@code optimistic}: {@code @Version} em {@link BankAccount} com retry e jitter
+ * - {@code striped}: tabela de locks em memória indexada pelo id da conta (apenas um nó)
+ *
+ * Toda implementação abre a própria transação, carrega as contas informadas já
+ * protegidas e só então executa o trabalho recebido.
+ */
+public interface TransferConcurrencyStrategy {
+
+    /**
+     * Executa {@code work} com acesso exclusivo às contas informadas.
+     *
+     * @param accountIds Ids das contas que serão lidas ou alteradas
+     * @param work Operação que recebe as contas carregadas, indexadas pelo id
+     * @return Resultado produzido por {@code work}
+     */
+    <T> T execute(Collection<UUID> accountIds, Function<Map<UUID, BankAccount>, T> work);
+}
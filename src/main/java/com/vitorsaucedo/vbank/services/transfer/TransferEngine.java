@@ -0,0 +1,29 @@
+package com.vitorsaucedo.vbank.services.transfer;
+
+import com.vitorsaucedo.vbank.dtos.TransactionResponse;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Motor de liquidação das transferências autorizadas.
+ *
+ * Selecionado por deployment através de {@code vbank.transfer.engine}:
+ * - {@code direct} (padrão): uma transação por transferência, na thread da requisição
+ * - {@code sequencer}: filas single-writer por shard com commit em grupo
+ * - {@code async}: aceite como {@code PENDING} e liquidação por um pool de workers
+ */
+public interface TransferEngine {
+
+    /**
+     * Liquida a transferência e devolve o resultado somente após o commit.
+     */
+    TransactionResponse submit(TransferCommand command);
+
+    /**
+     * Liquida um lote de transferências de um mesmo pagador com um único débito
+     * ({@link TransferSettlement#settleBatch}), na mesma ordem das transferências avulsas
+     * desse pagador, e devolve o desfecho de cada item somente após o commit.
+     */
+    List<SettlementOutcome> submitBatch(UUID payerAccountId, List<TransferCommand> commands);
+}
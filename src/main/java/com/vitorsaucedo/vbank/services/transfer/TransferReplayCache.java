@@ -0,0 +1,168 @@
+package com.vitorsaucedo.vbank.services.transfer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vitorsaucedo.vbank.dtos.PixTransferRequest;
+import com.vitorsaucedo.vbank.dtos.TransactionResponse;
+import com.vitorsaucedo.vbank.entities.enums.TransactionStatus;
+import com.vitorsaucedo.vbank.exceptions.DuplicateResourceException;
+import com.vitorsaucedo.vbank.exceptions.IdempotencyKeyMismatchException;
+import com.vitorsaucedo.vbank.exceptions.TransferConflictException;
+import com.vitorsaucedo.vbank.mappers.TransactionMapper;
+import com.vitorsaucedo.vbank.repositories.TransactionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Garante a semântica do cabeçalho {@code Idempotency-Key} em {@code POST /transfers/pix}.
+ *
+ * Respostas concluídas ficam em um cache em memória limitado por tamanho e TTL;
+ * em caso de miss a coluna única {@code idempotencyKey} de {@code tb_transactions}
+ * é a fonte da verdade. Requisições duplicadas que chegam enquanto a original ainda
+ * está em execução aguardam o resultado dela em vez de disputar a mesma transferência.
+ * Dono e hash da duplicada são conferidos antes da espera; se a original falhar, a duplicada
+ * executa a transferência por conta própria em vez de receber a exceção da original.
+ *
+ * A chave fica vinculada ao hash dos dados da requisição ({@link TransactionMapper#requestHash}):
+ * reenvios com a mesma chave e outro conteúdo são recusados em vez de devolver a resposta original.
+ */
+@Component
+public class TransferReplayCache {
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionMapper transactionMapper;
+    private final Cache<UUID, ReplayEntry> completed;
+    private final ConcurrentMap<UUID, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final long inFlightWaitMillis;
+
+    public TransferReplayCache(
+            TransactionRepository transactionRepository,
+            TransactionMapper transactionMapper,
+            @Value("${vbank.transfer.idempotency.max-entries:100000}") long maxEntries,
+            @Value("${vbank.transfer.idempotency.ttl:24h}") Duration ttl,
+            @Value("${vbank.transfer.idempotency.in-flight-wait-ms:30000}") long inFlightWaitMillis) {
+        this.transactionRepository = transactionRepository;
+        this.transactionMapper = transactionMapper;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .build();
+        this.inFlightWaitMillis = inFlightWaitMillis;
+    }
+
+    /**
+     * Executa a transferência uma única vez por chave de idempotência.
+     *
+     * @param idempotencyKey Chave enviada pelo cliente (quando nula a transferência é executada normalmente)
+     * @param userId Usuário autenticado, dono da chave
+     * @param request Dados da requisição, comparados com os da requisição original
+     * @param transfer Execução efetiva da transferência
+     * @return Resposta original da transferência associada à chave
+     * @throws IdempotencyKeyMismatchException Se a chave já foi usada com outros dados
+     */
+    public TransactionResponse execute(UUID idempotencyKey, UUID userId, PixTransferRequest request, Supplier<TransactionResponse> transfer) {
+        if (idempotencyKey == null) {
+            return transfer.get();
+        }
+
+        String requestHash = transactionMapper.requestHash(request);
+        ReplayEntry cached = completed.getIfPresent(idempotencyKey);
+        if (cached != null) {
+            return cached.responseFor(userId, requestHash);
+        }
+
+        InFlight ours = new InFlight(userId, requestHash, new CompletableFuture<>());
+        while (true) {
+            InFlight running = inFlight.putIfAbsent(idempotencyKey, ours);
+            if (running == null) {
+                break;
+            }
+            // Recusa antes de esperar: a resposta ou a falha da original não é desta requisição
+            verify(running.ownerId(), running.requestHash(), userId, requestHash);
+            ReplayEntry entry = await(running.result());
+            if (entry != null) {
+                return entry.responseFor(userId, requestHash);
+            }
+            // A original falhou sem gravar nada: tenta de novo, possivelmente como a execução principal
+        }
+
+        ReplayEntry entry;
+        try {
+            entry = findStored(idempotencyKey)
+                    .orElseGet(() -> runOnce(idempotencyKey, userId, requestHash, transfer));
+        } catch (RuntimeException e) {
+            // A exceção fica com esta requisição; quem aguardava é liberado para tentar de novo
+            inFlight.remove(idempotencyKey, ours);
+            ours.result().complete(null);
+            throw e;
+        }
+
+        if (entry.response().status() == TransactionStatus.COMPLETED) {
+            completed.put(idempotencyKey, entry);
+        }
+        inFlight.remove(idempotencyKey, ours);
+        ours.result().complete(entry);
+        return entry.responseFor(userId, requestHash);
+    }
+
+    private ReplayEntry runOnce(UUID idempotencyKey, UUID userId, String requestHash, Supplier<TransactionResponse> transfer) {
+        try {
+            return new ReplayEntry(userId, requestHash, transfer.get());
+        } catch (DataIntegrityViolationException e) {
+            // Outra instância gravou a mesma chave entre a consulta e o commit
+            return findStored(idempotencyKey).orElseThrow(() -> e);
+        }
+    }
+
+    private Optional<ReplayEntry> findStored(UUID idempotencyKey) {
+        return transactionRepository.findByIdempotencyKey(idempotencyKey)
+                .map(t -> new ReplayEntry(t.getPayer().getUser().getId(), t.getRequestHash(), transactionMapper.toResponse(t)));
+    }
+
+    // Nulo quando a execução original falhou
+    private ReplayEntry await(CompletableFuture<ReplayEntry> running) {
+        try {
+            return running.get(inFlightWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new TransferConflictException("A requisição original com esta chave de idempotência ainda está em processamento.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransferConflictException("Operação interrompida aguardando a requisição original.", e);
+        }
+    }
+
+    // Execução em andamento, com o dono e o hash para conferir as duplicadas antes da espera
+    private record InFlight(UUID ownerId, String requestHash, CompletableFuture<ReplayEntry> result) {}
+
+    // Transações gravadas antes do hash existir (requestHash nulo) são devolvidas sem a conferência
+    private record ReplayEntry(UUID ownerId, String requestHash, TransactionResponse response) {
+
+        TransactionResponse responseFor(UUID userId, String hash) {
+            verify(ownerId, requestHash, userId, hash);
+            return response;
+        }
+    }
+
+    private static void verify(UUID ownerId, String requestHash, UUID userId, String hash) {
+        if (!ownerId.equals(userId)) {
+            throw new DuplicateResourceException("Esta chave de idempotência já foi utilizada em outra transação.");
+        }
+        if (requestHash != null && !requestHash.equals(hash)) {
+            throw new IdempotencyKeyMismatchException();
+        }
+    }
+}
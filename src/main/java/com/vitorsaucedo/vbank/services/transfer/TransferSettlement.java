@@ -0,0 +1,230 @@
+package com.vitorsaucedo.vbank.services.transfer;
+
+import com.vitorsaucedo.vbank.dtos.AuditLogRequest;
+import com.vitorsaucedo.vbank.dtos.PixTransferRequest;
+import com.vitorsaucedo.vbank.entities.BankAccount;
+import com.vitorsaucedo.vbank.entities.Transaction;
+import com.vitorsaucedo.vbank.entities.enums.AccountStatus;
+import com.vitorsaucedo.vbank.entities.enums.TransactionStatus;
+import com.vitorsaucedo.vbank.exceptions.InactiveAccountException;
+import com.vitorsaucedo.vbank.exceptions.InsufficientBalanceException;
+import com.vitorsaucedo.vbank.exceptions.InvalidDataException;
+import com.vitorsaucedo.vbank.exceptions.ResourceNotFoundException;
+import com.vitorsaucedo.vbank.mappers.TransactionMapper;
+import com.vitorsaucedo.vbank.money.Money;
+import com.vitorsaucedo.vbank.repositories.BankAccountRepository;
+import com.vitorsaucedo.vbank.repositories.TransactionRepository;
+import com.vitorsaucedo.vbank.services.AccountStatsService;
+import com.vitorsaucedo.vbank.services.AuditLogService;
+import com.vitorsaucedo.vbank.services.LedgerService;
+import com.vitorsaucedo.vbank.services.StatementProjection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Aplica uma transferência sobre contas já protegidas por uma {@link TransferConcurrencyStrategy}.
+ *
+ * Apenas a conta pagadora precisa estar protegida: o débito é aplicado ao saldo na hora
+ * e o crédito é lançado no livro razão pelo {@link LedgerService}. As linhas de extrato
+ * das duas contas são inseridas na mesma transação pela {@link StatementProjection}; o
+ * {@link AccountStatsService} soma aqui só a saída do pagador, e a entrada do recebedor
+ * quando o crédito é incorporado.
+ *
+ * Deve ser chamado dentro da transação aberta pela estratégia. Todas as regras
+ * são verificadas antes de qualquer alteração, então uma falha de negócio não
+ * deixa estado parcial e pode ser isolada dentro de um lote.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransferSettlement {
+
+    private final TransactionRepository transactionRepository;
+    private final BankAccountRepository accountRepository;
+    private final LedgerService ledgerService;
+    private final StatementProjection statementProjection;
+    private final AccountStatsService accountStatsService;
+    private final AuditLogService auditLogService;
+    private final TransactionMapper transactionMapper;
+
+    public Transaction settle(TransferCommand command, Map<UUID, BankAccount> accounts) {
+        PixTransferRequest request = command.request();
+        BankAccount payer = accounts.get(command.payerAccountId());
+        BankAccount payee = resolvePayee(command.payeeAccountId(), accounts);
+
+        debit(payer, payee, request.amount());
+
+        Transaction savedTransaction = transactionRepository.save(
+                transactionMapper.toEntity(request, payer, payee, command.idempotencyKey())
+        );
+        ledgerService.record(savedTransaction);
+        statementProjection.append(savedTransaction);
+        accountStatsService.record(savedTransaction);
+
+        auditLogService.logSync(new AuditLogRequest(
+                command.userId(),
+                "PIX_SENT",
+                String.format("Pix de R$ %s para chave: %s (Conta: %s)",
+                        request.amount(),
+                        request.targetKey(),
+                        payee.getAccountNumber())
+        ));
+
+        return savedTransaction;
+    }
+
+    /**
+     * Liquida uma transação aceita anteriormente com status {@code PENDING}.
+     *
+     * @return A transação concluída, ou vazio quando ela já havia sido liquidada por outro worker
+     */
+    public Optional<Transaction> settlePending(UUID transactionId, Map<UUID, BankAccount> accounts) {
+        Transaction pending = transactionRepository.findById(transactionId)
+                .orElseThrow(() -> new ResourceNotFoundException("Transação", transactionId.toString()));
+
+        if (pending.getStatus() != TransactionStatus.PENDING) {
+            return Optional.empty();
+        }
+
+        BankAccount payer = accounts.get(pending.getPayer().getId());
+        BankAccount payee = resolvePayee(pending.getPayee().getId(), accounts);
+
+        debit(payer, payee, pending.getAmount());
+
+        pending.setStatus(TransactionStatus.COMPLETED);
+        ledgerService.record(pending);
+        statementProjection.append(pending);
+        accountStatsService.record(pending);
+
+        auditLogService.logSync(new AuditLogRequest(
+                payer.getUser().getId(),
+                "PIX_SENT",
+                String.format("Pix de R$ %s para Conta: %s (liquidação assíncrona)",
+                        pending.getAmount(),
+                        payee.getAccountNumber())
+        ));
+
+        return Optional.of(pending);
+    }
+
+    /**
+     * Liquida um lote de transferências de um mesmo pagador com um único débito.
+     *
+     * Os itens são aceitos na ordem em que chegaram enquanto houver saldo; itens com
+     * recebedor inexistente, inativo ou sem saldo restante são recusados individualmente.
+     * Todas as transações aceitas são gravadas de uma vez para aproveitar o batch JDBC.
+     */
+    public List<SettlementOutcome> settleBatch(UUID payerAccountId, List<TransferCommand> commands, Map<UUID, BankAccount> accounts) {
+        BankAccount payer = accounts.get(payerAccountId);
+
+        if (payer.getStatus() != AccountStatus.ACTIVE) {
+            throw new InactiveAccountException(
+                    "Sua conta está " + payer.getStatus().name().toLowerCase() +
+                            " e não pode realizar transferências."
+            );
+        }
+
+        Map<UUID, BankAccount> payees = new HashMap<>();
+        accountRepository.findAllById(commands.stream().map(TransferCommand::payeeAccountId).distinct().toList())
+                .forEach(account -> payees.put(account.getId(), account));
+
+        Money requested = Money.ZERO;
+        for (TransferCommand command : commands) {
+            requested = requested.plus(command.request().amount());
+        }
+        if (payer.getBalance().isLessThan(requested)) {
+            ledgerService.applyPendingCredits(payer);
+        }
+
+        Money available = payer.getBalance();
+        Money debited = Money.ZERO;
+        List<SettlementOutcome> outcomes = new ArrayList<>(commands.size());
+        List<Transaction> accepted = new ArrayList<>(commands.size());
+
+        for (TransferCommand command : commands) {
+            PixTransferRequest request = command.request();
+            BankAccount payee = payees.get(command.payeeAccountId());
+
+            if (payee == null) {
+                outcomes.add(SettlementOutcome.failure(command,
+                        new ResourceNotFoundException("Conta bancária", command.payeeAccountId().toString())));
+            } else if (payee.getStatus() != AccountStatus.ACTIVE) {
+                outcomes.add(SettlementOutcome.failure(command, new InvalidDataException(
+                        "targetKey",
+                        "A conta de destino está inativa e não pode receber transferências."
+                )));
+            } else if (debited.plus(request.amount()).isGreaterThan(available)) {
+                outcomes.add(SettlementOutcome.failure(command,
+                        new InsufficientBalanceException(available.minus(debited), request.amount())));
+            } else {
+                Transaction transaction = transactionMapper.toEntity(request, payer, payee, command.idempotencyKey());
+                accepted.add(transaction);
+                outcomes.add(SettlementOutcome.success(command, transaction));
+                debited = debited.plus(request.amount());
+            }
+        }
+
+        if (accepted.isEmpty()) {
+            return outcomes;
+        }
+
+        payer.withdraw(debited);
+        transactionRepository.saveAll(accepted);
+        ledgerService.recordAll(accepted);
+        statementProjection.appendAll(accepted);
+        accountStatsService.recordAll(accepted);
+
+        auditLogService.logSync(new AuditLogRequest(
+                commands.get(0).userId(),
+                "PIX_BATCH_SENT",
+                String.format("Lote Pix com %d transferência(s) concluída(s) de %d, total de R$ %s",
+                        accepted.size(),
+                        commands.size(),
+                        debited)
+        ));
+
+        return outcomes;
+    }
+
+    // O recebedor não é travado: o crédito entra no livro razão e é projetado depois
+    private BankAccount resolvePayee(UUID payeeAccountId, Map<UUID, BankAccount> accounts) {
+        BankAccount locked = accounts.get(payeeAccountId);
+        if (locked != null) {
+            return locked;
+        }
+        return accountRepository.findById(payeeAccountId)
+                .orElseThrow(() -> new ResourceNotFoundException("Conta bancária", payeeAccountId.toString()));
+    }
+
+    private void debit(BankAccount payer, BankAccount payee, Money amount) {
+        if (payer.getStatus() != AccountStatus.ACTIVE) {
+            throw new InactiveAccountException(
+                    "Sua conta está " + payer.getStatus().name().toLowerCase() +
+                            " e não pode realizar transferências."
+            );
+        }
+
+        if (payee.getStatus() != AccountStatus.ACTIVE) {
+            throw new InvalidDataException(
+                    "targetKey",
+                    "A conta de destino está inativa e não pode receber transferências."
+            );
+        }
+
+        if (payer.getBalance().isLessThan(amount)) {
+            ledgerService.applyPendingCredits(payer);
+        }
+
+        if (payer.getBalance().isLessThan(amount)) {
+            throw new InsufficientBalanceException(payer.getBalance(), amount);
+        }
+
+        payer.withdraw(amount);
+    }
+}
@@ -0,0 +1,30 @@
+-- Saldo de abertura de cada conta como ponto de saldo na origem (1970-01-01, a mesma de
+-- BalanceCheckpointService.EARLIEST), para que os pontos e o saldo em um instante não partam de zero.
+-- É o saldo disponível (saldo projetado mais créditos pendentes) menos a soma das linhas de extrato.
+
+INSERT INTO tb_balance_checkpoints (account_id, as_of, period, balance)
+SELECT opening.account_id, TIMESTAMP '1970-01-01 00:00:00', 'MONTH', opening.amount
+FROM (
+    SELECT a.id AS account_id,
+           a.balance + COALESCE(p.total, 0) - COALESCE(s.total, 0) AS amount
+    FROM tb_accounts a
+    LEFT JOIN (SELECT account_id, SUM(amount) AS total
+               FROM tb_pending_credits
+               GROUP BY account_id) p ON p.account_id = a.id
+    LEFT JOIN (SELECT account_id, SUM(CASE WHEN direction = 'INBOUND' THEN amount ELSE -amount END) AS total
+               FROM tb_statement_entries
+               GROUP BY account_id) s ON s.account_id = a.id
+) opening
+WHERE opening.amount <> 0;
+
+-- Pontos já gravados foram acumulados a partir de zero: recebem o saldo de abertura da conta
+UPDATE tb_balance_checkpoints c
+SET balance = c.balance + (SELECT o.balance
+                           FROM tb_balance_checkpoints o
+                           WHERE o.account_id = c.account_id
+                             AND o.as_of = TIMESTAMP '1970-01-01 00:00:00')
+WHERE c.as_of > TIMESTAMP '1970-01-01 00:00:00'
+  AND EXISTS (SELECT 1
+              FROM tb_balance_checkpoints o
+              WHERE o.account_id = c.account_id
+                AND o.as_of = TIMESTAMP '1970-01-01 00:00:00');
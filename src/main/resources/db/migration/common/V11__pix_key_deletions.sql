@@ -0,0 +1,15 @@
+-- Exclusões de chaves PIX, para que o índice de chaves (PixKeyIndex) de cada instância
+-- remova também as excluídas por outras instâncias ou enquanto ela estava parada.
+-- Mantidas por vbank.pix.key-deletions.retention; um índice mais antigo que isso é reconstruído.
+
+CREATE TABLE tb_pix_key_deletions (
+    id         UUID         NOT NULL,
+    key_value  VARCHAR(255) NOT NULL,
+    account_id UUID         NOT NULL,
+    deleted_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_pix_key_deletions PRIMARY KEY (id)
+);
+
+-- Exclusões desde a última sincronização do índice e expurgo das antigas
+CREATE INDEX idx_pix_key_deletions_deleted
+    ON tb_pix_key_deletions (deleted_at);
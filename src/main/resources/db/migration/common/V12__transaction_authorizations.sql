@@ -0,0 +1,16 @@
+-- Saldo de valor e de usos dos tokens de autorização de transação (step-up), compartilhado
+-- entre as instâncias: qualquer uma aceita um token emitido por outra. O token em si continua
+-- validado por HMAC; a linha só guarda o que ainda pode ser gasto.
+
+CREATE TABLE tb_transaction_authorizations (
+    id         UUID           NOT NULL,
+    user_id    UUID           NOT NULL,
+    remaining  NUMERIC(19, 2) NOT NULL,
+    uses       INTEGER        NOT NULL,
+    expires_at TIMESTAMP(6)   NOT NULL,
+    CONSTRAINT pk_transaction_authorizations PRIMARY KEY (id)
+);
+
+-- Expurgo dos tokens expirados
+CREATE INDEX idx_transaction_authorizations_expires
+    ON tb_transaction_authorizations (expires_at);
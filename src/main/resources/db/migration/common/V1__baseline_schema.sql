@@ -0,0 +1,91 @@
+-- Esquema inicial, equivalente ao que o Hibernate gerava a partir das entidades.
+-- SQL portável entre PostgreSQL e H2; índices específicos de cada banco ficam em db/migration/{vendor}.
+
+CREATE TABLE tb_users (
+    id              UUID         NOT NULL,
+    full_name       VARCHAR(255) NOT NULL,
+    document        VARCHAR(255) NOT NULL,
+    email           VARCHAR(255) NOT NULL,
+    password        VARCHAR(255) NOT NULL,
+    transaction_pin VARCHAR(255) NOT NULL,
+    created_at      TIMESTAMP(6),
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_document UNIQUE (document),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE tb_accounts (
+    id             UUID           NOT NULL,
+    user_id        UUID,
+    agency         VARCHAR(255)   NOT NULL,
+    account_number VARCHAR(255)   NOT NULL,
+    balance        NUMERIC(38, 2) NOT NULL,
+    status         VARCHAR(255),
+    version        BIGINT,
+    status_version BIGINT DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_accounts PRIMARY KEY (id),
+    CONSTRAINT uk_accounts_user UNIQUE (user_id),
+    CONSTRAINT uk_accounts_number UNIQUE (account_number),
+    CONSTRAINT fk_accounts_user FOREIGN KEY (user_id) REFERENCES tb_users (id),
+    CONSTRAINT ck_accounts_status CHECK (status IN ('ACTIVE', 'BLOCKED', 'CLOSED'))
+);
+
+CREATE TABLE tb_pix_keys (
+    id         UUID         NOT NULL,
+    account_id UUID         NOT NULL,
+    key_type   VARCHAR(255) NOT NULL,
+    key_value  VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6),
+    CONSTRAINT pk_pix_keys PRIMARY KEY (id),
+    CONSTRAINT uk_pix_keys_value UNIQUE (key_value),
+    CONSTRAINT fk_pix_keys_account FOREIGN KEY (account_id) REFERENCES tb_accounts (id),
+    CONSTRAINT ck_pix_keys_type CHECK (key_type IN ('CPF', 'CNPJ', 'EMAIL', 'PHONE', 'RANDOM'))
+);
+
+CREATE TABLE tb_transactions (
+    id               UUID           NOT NULL,
+    payer_account_id UUID           NOT NULL,
+    payee_account_id UUID           NOT NULL,
+    amount           NUMERIC(19, 2) NOT NULL,
+    type             VARCHAR(255)   NOT NULL,
+    status           VARCHAR(255)   NOT NULL,
+    idempotency_key  UUID,
+    description      VARCHAR(255),
+    failure_reason   VARCHAR(255),
+    created_at       TIMESTAMP(6),
+    CONSTRAINT pk_transactions PRIMARY KEY (id),
+    CONSTRAINT uk_transactions_idempotency_key UNIQUE (idempotency_key),
+    CONSTRAINT fk_transactions_payer FOREIGN KEY (payer_account_id) REFERENCES tb_accounts (id),
+    CONSTRAINT fk_transactions_payee FOREIGN KEY (payee_account_id) REFERENCES tb_accounts (id),
+    CONSTRAINT ck_transactions_type CHECK (type IN ('PIX', 'INTERNAL_TRANSFER', 'DEPOSIT')),
+    CONSTRAINT ck_transactions_status CHECK (status IN ('PENDING', 'COMPLETED', 'FAILED'))
+);
+
+CREATE TABLE tb_ledger_entries (
+    id             UUID           NOT NULL,
+    account_id     UUID           NOT NULL,
+    transaction_id UUID           NOT NULL,
+    entry_type     VARCHAR(255)   NOT NULL,
+    amount         NUMERIC(19, 2) NOT NULL,
+    created_at     TIMESTAMP(6)   NOT NULL,
+    CONSTRAINT pk_ledger_entries PRIMARY KEY (id),
+    CONSTRAINT ck_ledger_entries_type CHECK (entry_type IN ('DEBIT', 'CREDIT'))
+);
+
+CREATE TABLE tb_pending_credits (
+    id             UUID           NOT NULL,
+    account_id     UUID           NOT NULL,
+    transaction_id UUID           NOT NULL,
+    amount         NUMERIC(19, 2) NOT NULL,
+    created_at     TIMESTAMP(6)   NOT NULL,
+    CONSTRAINT pk_pending_credits PRIMARY KEY (id)
+);
+
+CREATE TABLE tb_audit_logs (
+    id         UUID         NOT NULL,
+    user_id    UUID         NOT NULL,
+    action     VARCHAR(255) NOT NULL,
+    details    TEXT,
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_audit_logs PRIMARY KEY (id)
+);
@@ -0,0 +1,34 @@
+-- Extrato desnormalizado: uma linha por conta por transação concluída, já com direção e
+-- nome da outra parte, lida por intervalo de (account_id, created_at) sem junções.
+
+CREATE TABLE tb_statement_entries (
+    account_id        UUID           NOT NULL,
+    transaction_id    UUID           NOT NULL,
+    direction         VARCHAR(255)   NOT NULL,
+    counterparty_name VARCHAR(255)   NOT NULL,
+    amount            NUMERIC(19, 2) NOT NULL,
+    type              VARCHAR(255)   NOT NULL,
+    description       VARCHAR(255),
+    created_at        TIMESTAMP(6)   NOT NULL,
+    CONSTRAINT pk_statement_entries PRIMARY KEY (account_id, transaction_id),
+    CONSTRAINT ck_statement_entries_direction CHECK (direction IN ('INBOUND', 'OUTBOUND')),
+    CONSTRAINT ck_statement_entries_type CHECK (type IN ('PIX', 'INTERNAL_TRANSFER', 'DEPOSIT'))
+);
+
+CREATE INDEX idx_statement_entries_account_created
+    ON tb_statement_entries (account_id, created_at, transaction_id);
+
+-- Carga inicial a partir das transações já concluídas
+INSERT INTO tb_statement_entries (account_id, transaction_id, direction, counterparty_name, amount, type, description, created_at)
+SELECT t.payer_account_id, t.id, 'OUTBOUND', u.full_name, t.amount, t.type, t.description, t.created_at
+FROM tb_transactions t
+JOIN tb_accounts a ON a.id = t.payee_account_id
+JOIN tb_users u ON u.id = a.user_id
+WHERE t.status = 'COMPLETED';
+
+INSERT INTO tb_statement_entries (account_id, transaction_id, direction, counterparty_name, amount, type, description, created_at)
+SELECT t.payee_account_id, t.id, 'INBOUND', u.full_name, t.amount, t.type, t.description, t.created_at
+FROM tb_transactions t
+JOIN tb_accounts a ON a.id = t.payer_account_id
+JOIN tb_users u ON u.id = a.user_id
+WHERE t.status = 'COMPLETED';
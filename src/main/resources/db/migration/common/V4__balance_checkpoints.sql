@@ -0,0 +1,18 @@
+-- Saldo por conta nas viradas de dia e de mês, gerado pelo BalanceCheckpointService.
+
+CREATE TABLE tb_balance_checkpoints (
+    account_id UUID           NOT NULL,
+    as_of      TIMESTAMP(6)   NOT NULL,
+    period     VARCHAR(255)   NOT NULL,
+    balance    NUMERIC(19, 2) NOT NULL,
+    CONSTRAINT pk_balance_checkpoints PRIMARY KEY (account_id, as_of),
+    CONSTRAINT ck_balance_checkpoints_period CHECK (period IN ('DAY', 'MONTH'))
+);
+
+-- Fronteira mais recente (retomada da geração) e mais antiga (compactação)
+CREATE INDEX idx_balance_checkpoints_as_of
+    ON tb_balance_checkpoints (as_of);
+
+-- Variação do dia de todas as contas, lida por intervalo de created_at
+CREATE INDEX idx_statement_entries_created
+    ON tb_statement_entries (created_at);
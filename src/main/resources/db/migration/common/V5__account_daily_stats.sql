@@ -0,0 +1,23 @@
+-- Totais diários de entrada e saída por conta, usados pelas estatísticas do dashboard.
+
+CREATE TABLE tb_account_daily_stats (
+    account_id      UUID           NOT NULL,
+    stats_day       DATE           NOT NULL,
+    inbound_count   BIGINT         NOT NULL,
+    inbound_amount  NUMERIC(19, 2) NOT NULL,
+    outbound_count  BIGINT         NOT NULL,
+    outbound_amount NUMERIC(19, 2) NOT NULL,
+    CONSTRAINT pk_account_daily_stats PRIMARY KEY (account_id, stats_day)
+);
+
+-- Carga inicial dos dias ainda cobertos pelo dashboard (mês corrente e últimos 7 dias)
+INSERT INTO tb_account_daily_stats (account_id, stats_day, inbound_count, inbound_amount, outbound_count, outbound_amount)
+SELECT account_id,
+       CAST(created_at AS DATE),
+       SUM(CASE WHEN direction = 'INBOUND' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN direction = 'INBOUND' THEN amount ELSE 0 END),
+       SUM(CASE WHEN direction = 'OUTBOUND' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN direction = 'OUTBOUND' THEN amount ELSE 0 END)
+FROM tb_statement_entries
+WHERE created_at >= CURRENT_DATE - INTERVAL '40' DAY
+GROUP BY account_id, CAST(created_at AS DATE);
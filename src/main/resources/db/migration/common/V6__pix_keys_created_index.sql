@@ -0,0 +1,3 @@
+-- Chaves criadas desde a última sincronização do índice de chaves PIX (PixKeyIndex)
+CREATE INDEX idx_pix_keys_created
+    ON tb_pix_keys (created_at);
@@ -0,0 +1,5 @@
+-- Números de conta reservados em blocos por instância (AccountNumberAllocator).
+-- Cada nextval devolve o início de um bloco; o INCREMENT BY é o tamanho do bloco.
+-- Começa em 1000000, acima da faixa de 6 dígitos dos números aleatórios gerados antes.
+
+CREATE SEQUENCE seq_account_numbers START WITH 1000000 INCREMENT BY 1000;
@@ -0,0 +1,5 @@
+-- Hash dos dados da requisição PIX (chave de destino, valor e descrição) gravado junto da
+-- chave de idempotência, para recusar reenvios da mesma chave com outro conteúdo.
+-- Transações anteriores ficam sem hash e continuam sendo devolvidas sem essa conferência.
+
+ALTER TABLE tb_transactions ADD COLUMN request_hash VARCHAR(64);
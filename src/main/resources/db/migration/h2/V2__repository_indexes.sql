@@ -0,0 +1,23 @@
+-- Mesmos índices de db/migration/postgresql/V2, sem INCLUDE nem índice parcial, que o H2
+-- não suporta: as colunas cobertas entram no fim da chave.
+
+CREATE INDEX idx_transactions_payer_created
+    ON tb_transactions (payer_account_id, created_at, id);
+
+CREATE INDEX idx_transactions_payee_created
+    ON tb_transactions (payee_account_id, created_at, id);
+
+CREATE INDEX idx_transactions_pending_created
+    ON tb_transactions (status, created_at, payer_account_id);
+
+CREATE INDEX idx_audit_logs_user_created
+    ON tb_audit_logs (user_id, created_at DESC);
+
+CREATE INDEX idx_pix_keys_account
+    ON tb_pix_keys (account_id);
+
+CREATE INDEX idx_ledger_entries_account
+    ON tb_ledger_entries (account_id, entry_type, amount);
+
+CREATE INDEX idx_pending_credits_account
+    ON tb_pending_credits (account_id, amount);
@@ -0,0 +1,38 @@
+-- Índices desenhados para as consultas dos repositórios. Buscas por e-mail, documento,
+-- número de conta, usuário da conta, chave Pix e Idempotency-Key já usam os índices das
+-- restrições UNIQUE de V1.
+
+-- Extrato (TransactionRepository.findStatementPage, findStatementPageAfter, streamStatement):
+-- um índice por ramo do UNION ALL, na ordem da paginação (created_at, id) e cobrindo as
+-- colunas lidas da própria transação
+CREATE INDEX idx_transactions_payer_created
+    ON tb_transactions (payer_account_id, created_at, id)
+    INCLUDE (payee_account_id, amount, type, description);
+
+CREATE INDEX idx_transactions_payee_created
+    ON tb_transactions (payee_account_id, created_at, id)
+    INCLUDE (payer_account_id, amount, type, description);
+
+-- Varredura do motor assíncrono (findPendingCreatedBefore): só as transações PENDING
+CREATE INDEX idx_transactions_pending_created
+    ON tb_transactions (created_at)
+    INCLUDE (payer_account_id)
+    WHERE status = 'PENDING';
+
+-- AuditLogRepository.findAllByUserIdOrderByCreatedAtDesc
+CREATE INDEX idx_audit_logs_user_created
+    ON tb_audit_logs (user_id, created_at DESC);
+
+-- PixKeyRepository.findAllByAccountId
+CREATE INDEX idx_pix_keys_account
+    ON tb_pix_keys (account_id);
+
+-- LedgerEntryRepository.computeBalance: a soma é resolvida apenas com o índice
+CREATE INDEX idx_ledger_entries_account
+    ON tb_ledger_entries (account_id)
+    INCLUDE (entry_type, amount);
+
+-- PendingCreditRepository: busca, soma e exclusão por conta
+CREATE INDEX idx_pending_credits_account
+    ON tb_pending_credits (account_id)
+    INCLUDE (amount);
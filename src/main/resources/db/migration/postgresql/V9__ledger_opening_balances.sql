@@ -0,0 +1,26 @@
+-- Saldo de abertura de cada conta no diário (LedgerEntryType.OPENING).
+-- Saldos anteriores ao diário (contas criadas antes dele ou com saldo lançado fora de uma
+-- transação) não tinham lançamento, e LedgerService.rebuildBalances os zerava. O lançamento
+-- de abertura é a diferença entre o saldo disponível (saldo projetado mais créditos
+-- pendentes) e a soma dos lançamentos já gravados; não pertence a nenhuma transação.
+
+ALTER TABLE tb_ledger_entries ALTER COLUMN transaction_id DROP NOT NULL;
+
+ALTER TABLE tb_ledger_entries DROP CONSTRAINT ck_ledger_entries_type;
+ALTER TABLE tb_ledger_entries
+    ADD CONSTRAINT ck_ledger_entries_type CHECK (entry_type IN ('DEBIT', 'CREDIT', 'OPENING'));
+
+INSERT INTO tb_ledger_entries (id, account_id, transaction_id, entry_type, amount, created_at)
+SELECT gen_random_uuid(), opening.account_id, NULL, 'OPENING', opening.amount, CURRENT_TIMESTAMP
+FROM (
+    SELECT a.id AS account_id,
+           a.balance + COALESCE(p.total, 0) - COALESCE(j.total, 0) AS amount
+    FROM tb_accounts a
+    LEFT JOIN (SELECT account_id, SUM(amount) AS total
+               FROM tb_pending_credits
+               GROUP BY account_id) p ON p.account_id = a.id
+    LEFT JOIN (SELECT account_id, SUM(CASE WHEN entry_type = 'CREDIT' THEN amount ELSE -amount END) AS total
+               FROM tb_ledger_entries
+               GROUP BY account_id) j ON j.account_id = a.id
+) opening
+WHERE opening.amount <> 0;
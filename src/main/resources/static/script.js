@@ -5,7 +5,8 @@ const API_BASE_URL = '';
 // Estado da aplicação
 const state = {
     token: localStorage.getItem('token') || null,
-    user: JSON.parse(localStorage.getItem('user')) || null
+    user: JSON.parse(localStorage.getItem('user')) || null,
+    statementCursor: null
 };
 
 // Utilitários
@@ -187,6 +188,7 @@ const loadDashboard = async () => {
         document.getElementById('account-balance').textContent = formatCurrency(data.balance);
         document.getElementById('account-number').textContent = data.accountNumber;
         document.getElementById('account-agency').textContent = data.agency;
+        renderAccountStats(data.stats);
 
         // Atualiza o estado do usuário
         state.user = {
@@ -204,12 +206,33 @@ const loadDashboard = async () => {
     }
 };
 
+const renderAccountStats = (stats) => {
+    const container = document.getElementById('account-stats');
+    if (!stats) {
+        return;
+    }
+
+    const periods = [
+        ['Hoje', stats.today],
+        ['Últimos 7 dias', stats.last7Days],
+        ['Mês atual', stats.currentMonth]
+    ];
+    container.innerHTML = periods.map(([label, period]) => `
+        <p class="account-info">
+            <strong>${label}:</strong>
+            entradas ${formatCurrency(period.inboundAmount)} (${period.inboundCount}) |
+            saídas ${formatCurrency(period.outboundAmount)} (${period.outboundCount})
+        </p>
+    `).join('');
+};
+
 const loadRecentTransactions = async () => {
     try {
-        const transactions = await request('/transactions/statement');
+        const page = await request('/transactions/statement?limit=5');
+        const transactions = page ? page.items : [];
 
         if (transactions && transactions.length > 0) {
-            const recentTransactionsHtml = transactions.slice(0, 5).map(transaction => {
+            const recentTransactionsHtml = transactions.map(transaction => {
                 const isIncome = transaction.direction === 'INBOUND';
                 return `
                     <div class="transaction-item">
@@ -236,36 +259,53 @@ const loadRecentTransactions = async () => {
 };
 
 // Extrato
-const loadStatement = async () => {
-    try {
-        const transactions = await request('/transactions/statement');
+const renderStatementItem = (transaction) => {
+    const isIncome = transaction.direction === 'INBOUND';
+    return `
+        <div class="transaction-item">
+            <div class="transaction-info">
+                <div class="transaction-type">${transaction.type}</div>
+                <div class="transaction-description">
+                    ${isIncome ? 'De: ' : 'Para: '}${transaction.otherPartyName || 'Não informado'}
+                </div>
+                <div class="transaction-description">${transaction.description || 'Sem descrição'}</div>
+                <div class="transaction-date">${formatDate(transaction.date)}</div>
+            </div>
+            <div class="transaction-amount ${isIncome ? 'income' : 'expense'}">
+                ${isIncome ? '+' : '-'} ${formatCurrency(transaction.amount)}
+            </div>
+        </div>
+    `;
+};
 
-        if (transactions && transactions.length > 0) {
-            const statementHtml = transactions.map(transaction => {
-                const isIncome = transaction.direction === 'INBOUND';
-                return `
-                    <div class="transaction-item">
-                        <div class="transaction-info">
-                            <div class="transaction-type">${transaction.type}</div>
-                            <div class="transaction-description">
-                                ${isIncome ? 'De: ' : 'Para: '}${transaction.otherPartyName || 'Não informado'}
-                            </div>
-                            <div class="transaction-description">${transaction.description || 'Sem descrição'}</div>
-                            <div class="transaction-date">${formatDate(transaction.date)}</div>
-                        </div>
-                        <div class="transaction-amount ${isIncome ? 'income' : 'expense'}">
-                            ${isIncome ? '+' : '-'} ${formatCurrency(transaction.amount)}
-                        </div>
-                    </div>
-                `;
-            }).join('');
-            document.getElementById('statement-list').innerHTML = statementHtml;
-        } else {
-            document.getElementById('statement-list').innerHTML = '<p class="no-data">Nenhuma transação encontrada</p>';
+// cursor nulo carrega a primeira página; as seguintes são anexadas à lista
+const loadStatement = async (cursor = null) => {
+    const list = document.getElementById('statement-list');
+    const moreButton = document.getElementById('statement-more-btn');
+
+    try {
+        const query = cursor ? `?cursor=${encodeURIComponent(cursor)}` : '';
+        const page = await request(`/transactions/statement${query}`);
+        const transactions = page ? page.items : [];
+
+        if (transactions.length > 0) {
+            const statementHtml = transactions.map(renderStatementItem).join('');
+            if (cursor) {
+                list.insertAdjacentHTML('beforeend', statementHtml);
+            } else {
+                list.innerHTML = statementHtml;
+            }
+        } else if (!cursor) {
+            list.innerHTML = '<p class="no-data">Nenhuma transação encontrada</p>';
         }
 
+        state.statementCursor = page ? page.nextCursor : null;
+        moreButton.style.display = state.statementCursor ? 'block' : 'none';
+
     } catch (error) {
-        document.getElementById('statement-list').innerHTML = '<p class="no-data">Erro ao carregar extrato</p>';
+        if (!cursor) {
+            list.innerHTML = '<p class="no-data">Erro ao carregar extrato</p>';
+        }
         console.error('Erro ao carregar extrato:', error);
     }
 };
@@ -290,12 +330,30 @@ const checkReceiver = async (pixKey) => {
     }
 };
 
+// Consulta a transferência até sair de PENDING (liquidação assíncrona)
+const waitForSettlement = async (transaction) => {
+    let current = transaction;
+    for (let attempt = 0; current.status === 'PENDING' && attempt < 20; attempt++) {
+        await new Promise(resolve => setTimeout(resolve, 500));
+        current = await request(`/transfers/${transaction.transactionId}`);
+    }
+    return current;
+};
+
 const executePix = async (transferData) => {
     try {
-        const response = await request('/transfers/pix', {
+        const response = await waitForSettlement(await request('/transfers/pix', {
             method: 'POST',
             body: JSON.stringify(transferData)
-        });
+        }));
+
+        if (response.status === 'FAILED') {
+            throw new Error(response.failureReason || 'A transferência não pôde ser concluída.');
+        }
+        if (response.status === 'PENDING') {
+            showSuccess('pix-success', `Transferência em processamento. ID: ${response.transactionId}`);
+            return response;
+        }
 
         showSuccess('pix-success', `Transferência realizada com sucesso! ID: ${response.transactionId}`);
         document.getElementById('pix-form').reset();
@@ -441,6 +499,10 @@ document.addEventListener('DOMContentLoaded', () => {
     });
 
     // Verificar destinatário PIX
+    document.getElementById('statement-more-btn').addEventListener('click', () => {
+        loadStatement(state.statementCursor);
+    });
+
     document.getElementById('check-receiver-btn').addEventListener('click', async () => {
         const pixKey = document.getElementById('pix-key').value;
         if (pixKey) {
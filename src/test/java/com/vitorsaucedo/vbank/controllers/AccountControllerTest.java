@@ -0,0 +1,64 @@
+package com.vitorsaucedo.vbank.controllers;
+
+import com.vitorsaucedo.vbank.dtos.LoginRequest;
+import com.vitorsaucedo.vbank.dtos.UserRegistrationRequest;
+import com.vitorsaucedo.vbank.entities.enums.AccountStatus;
+import com.vitorsaucedo.vbank.exceptions.InvalidCredentialsException;
+import com.vitorsaucedo.vbank.repositories.BankAccountRepository;
+import com.vitorsaucedo.vbank.services.AuthService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("dev")
+@TestPropertySource(properties = {
+        "api.security.token.secret=test-secret-key-12345678901234567890123456789012",
+        "spring.datasource.url=jdbc:h2:mem:accountcontroller",
+        "spring.datasource.driverClassName=org.h2.Driver"
+})
+class AccountControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private BankAccountRepository accountRepository;
+
+    @Test
+    void blockingRejectsTokensIssuedBeforeTheChange() throws Exception {
+        authService.register(new UserRegistrationRequest(
+                "Alice Souza", "12345678909", "alice@block.com", "password1", "1234"));
+        String token = "Bearer " + authService.login(new LoginRequest("alice@block.com", "password1")).token();
+
+        // Carrega a versão de status no cache antes da mudança
+        mvc.perform(get("/accounts/dashboard").header("Authorization", token))
+                .andExpect(status().isOk());
+
+        mvc.perform(post("/accounts/block").header("Authorization", token))
+                .andExpect(status().isNoContent());
+
+        var account = accountRepository.findByUserEmail("alice@block.com").orElseThrow();
+        assertEquals(AccountStatus.BLOCKED, account.getStatus());
+        assertEquals(1L, account.getStatusVersion());
+
+        mvc.perform(get("/accounts/dashboard").header("Authorization", token))
+                .andExpect(status().isForbidden());
+        assertThrows(InvalidCredentialsException.class,
+                () -> authService.login(new LoginRequest("alice@block.com", "password1")));
+    }
+}
@@ -0,0 +1,111 @@
+package com.vitorsaucedo.vbank.money;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.function.ToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark de {@link Money} contra {@link BigDecimal} nas operações do caminho de uma
+ * transferência: ler o valor do JSON, conferir o saldo e debitar.
+ *
+ * Desabilitado por padrão. Para executar:
+ * {@code mvn test -Dtest=MoneyBenchmark -Dvbank.benchmark=true}
+ *
+ * Para cada par, confere que os resultados são iguais e imprime ns/op e bytes alocados por
+ * operação (medidos pelo {@code ThreadMXBean} da JVM), depois de uma fase de aquecimento.
+ */
+@EnabledIfSystemProperty(named = "vbank.benchmark", matches = "true")
+class MoneyBenchmark {
+
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 5_000_000;
+
+    private static final String[] AMOUNTS = {"150.50", "0.01", "49999.99", "1250", "7.5", "320.00"};
+
+    @Test
+    void parse() {
+        compareText("parse",
+                value -> new BigDecimal(value).setScale(2).unscaledValue().longValue(),
+                value -> Money.parse(value).cents());
+    }
+
+    @Test
+    void debit() {
+        BigDecimal balance = new BigDecimal("100000.00");
+        Money balanceInCents = Money.ofCents(10_000_000);
+        BigDecimal[] decimals = new BigDecimal[AMOUNTS.length];
+        Money[] amounts = new Money[AMOUNTS.length];
+        for (int i = 0; i < AMOUNTS.length; i++) {
+            decimals[i] = new BigDecimal(AMOUNTS[i]);
+            amounts[i] = Money.parse(AMOUNTS[i]);
+        }
+
+        // Saldo suficiente, débito e soma ao total do lote, como em TransferSettlement
+        compare("debit", index -> {
+            BigDecimal amount = decimals[index];
+            if (balance.compareTo(amount) < 0) {
+                return -1;
+            }
+            return balance.subtract(amount).add(amount).movePointRight(2).longValue();
+        }, index -> {
+            Money amount = amounts[index];
+            if (balanceInCents.isLessThan(amount)) {
+                return -1;
+            }
+            return balanceInCents.minus(amount).plus(amount).cents();
+        });
+    }
+
+    private void compareText(String name, ToLongFunction<String> decimal, ToLongFunction<String> money) {
+        for (String amount : AMOUNTS) {
+            assertEquals(decimal.applyAsLong(amount), money.applyAsLong(amount), amount);
+        }
+        print(name, measure(index -> decimal.applyAsLong(AMOUNTS[index])), measure(index -> money.applyAsLong(AMOUNTS[index])));
+    }
+
+    private void compare(String name, IndexOperation decimal, IndexOperation money) {
+        for (int i = 0; i < AMOUNTS.length; i++) {
+            assertEquals(decimal.apply(i), money.apply(i), AMOUNTS[i]);
+        }
+        print(name, measure(decimal), measure(money));
+    }
+
+    private static void print(String name, Result before, Result after) {
+        System.out.printf("[benchmark] %-8s BigDecimal %8.1f ns/op %8.1f B/op | Money %8.1f ns/op %8.1f B/op%n",
+                name, before.nanos(), before.bytes(), after.nanos(), after.bytes());
+    }
+
+    private static Result measure(IndexOperation operation) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += operation.apply(i % AMOUNTS.length);
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += operation.apply(i % AMOUNTS.length);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+
+        if (sink == 42) {
+            System.out.print("");
+        }
+        return new Result((double) elapsed / ITERATIONS, (double) allocated / ITERATIONS);
+    }
+
+    @FunctionalInterface
+    private interface IndexOperation {
+        long apply(int index);
+    }
+
+    private record Result(double nanos, double bytes) {}
+}
@@ -0,0 +1,65 @@
+package com.vitorsaucedo.vbank.money;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyJsonTest {
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().addModule(MoneyJson.module()).build();
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(MoneyJson.legacyModule());
+
+    record Amount(Money amount) {}
+
+    @Test
+    void jsonMapperRoundTrip() {
+        assertEquals("{\"amount\":150.50}", jsonMapper.writeValueAsString(new Amount(Money.ofCents(15050))));
+        assertEquals("{\"amount\":-0.05}", jsonMapper.writeValueAsString(new Amount(Money.ofCents(-5))));
+
+        assertEquals(Money.ofCents(15050), read("150.5"));
+        assertEquals(Money.ofCents(700), read("7"));
+        assertEquals(Money.ofCents(-5), read("-0.05"));
+        assertEquals(Money.ofCents(15050), read("\"150.50\""));
+        assertEquals(Money.ofCents(Long.MAX_VALUE), read("92233720368547758.07"));
+        assertEquals(Money.ofCents(Long.MIN_VALUE), read("-92233720368547758.08"));
+
+        for (long cents : new long[]{0, 1, -1, 15050, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            Amount amount = new Amount(Money.ofCents(cents));
+            assertEquals(amount, jsonMapper.readValue(jsonMapper.writeValueAsString(amount), Amount.class));
+        }
+    }
+
+    @Test
+    void jsonMapperRejects() {
+        for (String value : new String[]{"10.555", "1e5", "\"abc\"", "\"\"", "true", "{}", "92233720368547758.08"}) {
+            assertThrows(RuntimeException.class, () -> read(value), value);
+        }
+    }
+
+    @Test
+    void objectMapperRoundTrip() throws Exception {
+        assertEquals("{\"amount\":150.50}", objectMapper.writeValueAsString(new Amount(Money.ofCents(15050))));
+
+        assertEquals(Money.ofCents(123), objectMapper.readValue("1.23", Money.class));
+        assertEquals(Money.ofCents(123), objectMapper.readValue("\"1.23\"", Money.class));
+
+        for (long cents : new long[]{0, 1, -1, 15050, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            Amount amount = new Amount(Money.ofCents(cents));
+            assertEquals(amount, objectMapper.readValue(objectMapper.writeValueAsString(amount), Amount.class));
+        }
+    }
+
+    @Test
+    void objectMapperRejects() {
+        for (String value : new String[]{"10.555", "1e5", "\"abc\"", "true", "92233720368547758.08"}) {
+            assertThrows(Exception.class, () -> objectMapper.readValue(value, Money.class), value);
+        }
+    }
+
+    private Money read(String value) {
+        return jsonMapper.readValue("{\"amount\":" + value + "}", Amount.class).amount();
+    }
+}
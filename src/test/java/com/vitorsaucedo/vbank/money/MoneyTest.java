@@ -0,0 +1,96 @@
+package com.vitorsaucedo.vbank.money;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MoneyTest {
+
+    @ParameterizedTest
+    @CsvSource({
+            "150.50, 15050",
+            "150.5, 15050",
+            "150, 15000",
+            "0.01, 1",
+            "0, 0",
+            "-0.05, -5",
+            "+7.00, 700",
+            "10.500, 1050",
+            ".5, 50",
+            "1., 100",
+            "92233720368547758.07, 9223372036854775807",
+            "-92233720368547758.08, -9223372036854775808"
+    })
+    void parse(String text, long cents) {
+        assertEquals(cents, Money.parse(text).cents());
+        assertEquals(new BigDecimal(text).movePointRight(2).longValueExact(), cents);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"10.555", "0.001", "1e5", "1E2", "", "-", "+", ".", "1.2.3", " 1.00", "1,00", "R$1",
+            "92233720368547758.08", "-92233720368547758.09", "999999999999999999999"})
+    void parseRejects(String text) {
+        assertThrows(NumberFormatException.class, () -> Money.parse(text));
+    }
+
+    @Test
+    void parseRange() {
+        char[] chars = "amount=12.34;".toCharArray();
+        assertEquals(1234, Money.parse(chars, 7, 5).cents());
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "15050, 150.50",
+            "5, 0.05",
+            "-5, -0.05",
+            "-150, -1.50",
+            "0, 0.00",
+            "9223372036854775807, 92233720368547758.07",
+            "-9223372036854775808, -92233720368547758.08"
+    })
+    void toStringRoundTrips(long cents, String text) {
+        Money money = Money.ofCents(cents);
+        assertEquals(text, money.toString());
+        assertEquals(money, Money.parse(text));
+        assertEquals(new BigDecimal(text), money.toBigDecimal());
+    }
+
+    @Test
+    void ofBigDecimal() {
+        assertEquals(15050, Money.of(new BigDecimal("150.5")).cents());
+        assertEquals(1050, Money.of(new BigDecimal("10.500")).cents());
+        assertEquals(100_000, Money.of(new BigDecimal("1E3")).cents());
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("10.555")));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("92233720368547758.08")));
+    }
+
+    @Test
+    void arithmetic() {
+        Money balance = Money.parse("100.00");
+        Money amount = Money.parse("0.01");
+
+        assertEquals(Money.parse("99.99"), balance.minus(amount));
+        assertEquals(Money.parse("100.01"), balance.plus(amount));
+        assertTrue(balance.isGreaterThan(amount));
+        assertTrue(amount.isLessThan(balance));
+        assertTrue(amount.isPositive());
+        assertTrue(Money.ZERO.minus(amount).isNegative());
+        assertFalse(Money.ZERO.isPositive() || Money.ZERO.isNegative());
+        assertSame(Money.ZERO, balance.minus(balance));
+
+        Money max = Money.ofCents(Long.MAX_VALUE);
+        Money min = Money.ofCents(Long.MIN_VALUE);
+        assertThrows(ArithmeticException.class, () -> max.plus(amount));
+        assertThrows(ArithmeticException.class, () -> min.minus(amount));
+    }
+}
@@ -0,0 +1,108 @@
+package com.vitorsaucedo.vbank.pix;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark das rotinas de {@link PixFormats} e {@link PixMasks} contra as expressões regulares
+ * que elas substituíram.
+ *
+ * Desabilitado por padrão. Para executar:
+ * {@code mvn test -Dtest=PixFormatsBenchmark -Dvbank.benchmark=true}
+ *
+ * Para cada par, confere que os resultados são iguais e imprime ns/op e bytes alocados por
+ * operação (medidos pelo {@code ThreadMXBean} da JVM), depois de uma fase de aquecimento.
+ */
+@EnabledIfSystemProperty(named = "vbank.benchmark", matches = "true")
+class PixFormatsBenchmark {
+
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 2_000_000;
+
+    private static final String[] DOCUMENTS = {"529.982.247-25", "52998224725", "11.222.333/0001-81", "11222333000181"};
+    private static final String[] PHONES = {"(11) 98765-4321", "11987654321", "+55 21 3456-7890"};
+    private static final String[] PINS = {"1234", "12a4", "98765", "0000"};
+    private static final String[] EMAILS = {"  Maria.Silva@Example.com ", "joao@vbank.com", "invalido@", "a+b_c@d"};
+    private static final String[] NAMES = {"Maria da Silva Santos", "João Souza", "Ana"};
+
+    private final StringBuilder buffer = new StringBuilder(64);
+
+    @Test
+    void digits() {
+        String[] inputs = concat(DOCUMENTS, PHONES);
+        compare("digits", inputs, value -> value.replaceAll("\\D", ""), PixFormats::digits);
+    }
+
+    @Test
+    void pin() {
+        compare("pin", PINS, value -> value.matches("\\d{4}"), PixFormats::isPin);
+    }
+
+    @Test
+    void email() {
+        compare("email-valid", EMAILS, value -> value.matches("^[A-Za-z0-9+_.-]+@(.+)$"), PixFormats::isEmail);
+        compare("email-normalize", EMAILS, value -> value.toLowerCase().trim(), PixFormats::normalizeEmail);
+    }
+
+    @Test
+    void masks() {
+        compare("mask-name", NAMES,
+                value -> value.replaceAll("(?<=.{2}).(?=.* )|(?<=.{2}).(?=.{2}$)", "*"),
+                value -> {
+                    buffer.setLength(0);
+                    return PixMasks.maskName(value, buffer).toString();
+                });
+        compare("mask-document", new String[]{"52998224725", "11222333000181"},
+                value -> value.replaceAll("(\\d{3})\\d{5,8}(\\d{2})", "$1.***.***-$2"),
+                value -> {
+                    buffer.setLength(0);
+                    return PixMasks.maskDocument(value, buffer).toString();
+                });
+    }
+
+    private <T> void compare(String name, String[] inputs, Function<String, T> regex, Function<String, T> scanner) {
+        for (String input : inputs) {
+            assertEquals(regex.apply(input), scanner.apply(input), input);
+        }
+        Result before = measure(inputs, regex);
+        Result after = measure(inputs, scanner);
+        System.out.printf("[benchmark] %-16s regex %8.1f ns/op %8.1f B/op | scanner %8.1f ns/op %8.1f B/op%n",
+                name, before.nanos(), before.bytes(), after.nanos(), after.bytes());
+    }
+
+    private static <T> Result measure(String[] inputs, Function<String, T> operation) {
+        int sink = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            sink += operation.apply(inputs[i % inputs.length]).hashCode();
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            sink += operation.apply(inputs[i % inputs.length]).hashCode();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+
+        if (sink == 42) {
+            System.out.print("");
+        }
+        return new Result((double) elapsed / ITERATIONS, (double) allocated / ITERATIONS);
+    }
+
+    private static String[] concat(String[] first, String[] second) {
+        String[] all = new String[first.length + second.length];
+        System.arraycopy(first, 0, all, 0, first.length);
+        System.arraycopy(second, 0, all, first.length, second.length);
+        return all;
+    }
+
+    private record Result(double nanos, double bytes) {}
+}
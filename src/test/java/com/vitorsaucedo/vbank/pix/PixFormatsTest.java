@@ -0,0 +1,123 @@
+package com.vitorsaucedo.vbank.pix;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PixFormatsTest {
+
+    // Letras, dígitos, separadores de documento e e-mail, espaços, quebras de linha e não ASCII
+    static final String ALPHABET = "aZ09 .-/@+_\n\r\t\u0085éÉ Mx";
+
+    @ParameterizedTest
+    @ValueSource(strings = {"12345678909", "52998224725", "11144477735"})
+    void validCpf(String cpf) {
+        assertTrue(PixFormats.isValidCpf(cpf));
+        assertTrue(PixFormats.isValidDocument(cpf));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"12345678900", "52998224724", "11111111111", "00000000000", "1234567890",
+            "123456789090", "1234567890a", "123.456.789-09", ""})
+    void invalidCpf(String cpf) {
+        assertFalse(PixFormats.isValidCpf(cpf));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"11222333000181", "11444777000161"})
+    void validCnpj(String cnpj) {
+        assertTrue(PixFormats.isValidCnpj(cnpj));
+        assertTrue(PixFormats.isValidDocument(cnpj));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"11222333000182", "11222333000191", "22222222222222", "1122233300018",
+            "1122233300018a", "11.222.333/0001-81", ""})
+    void invalidCnpj(String cnpj) {
+        assertFalse(PixFormats.isValidCnpj(cnpj));
+    }
+
+    @Test
+    void documentLengthSelectsRule() {
+        assertFalse(PixFormats.isValidDocument("123456789"));
+        assertFalse(PixFormats.isValidDocument("123456789012"));
+        assertFalse(PixFormats.isValidDocument(""));
+    }
+
+    @Test
+    void digits() {
+        assertEquals("12345678909", PixFormats.digits("123.456.789-09"));
+        assertEquals("11222333000181", PixFormats.digits("11.222.333/0001-81"));
+        assertEquals("", PixFormats.digits(""));
+        assertEquals("", PixFormats.digits("abc"));
+        // Dígitos não ASCII ficam de fora, como em \D
+        assertEquals("12", PixFormats.digits("1\u0663 2"));
+
+        String clean = "12345678909";
+        assertSame(clean, PixFormats.digits(clean));
+    }
+
+    @Test
+    void pin() {
+        assertTrue(PixFormats.isPin("0000"));
+        assertTrue(PixFormats.isPin("4321"));
+        assertFalse(PixFormats.isPin("123"));
+        assertFalse(PixFormats.isPin("12345"));
+        assertFalse(PixFormats.isPin("12a4"));
+        assertFalse(PixFormats.isPin(""));
+    }
+
+    @Test
+    void email() {
+        assertTrue(PixFormats.isEmail("maria.silva+pix@vbank.com"));
+        assertTrue(PixFormats.isEmail("a@b"));
+        assertTrue(PixFormats.isEmail("a@@b"));
+        assertFalse(PixFormats.isEmail("@vbank.com"));
+        assertFalse(PixFormats.isEmail("maria@"));
+        assertFalse(PixFormats.isEmail("maria"));
+        assertFalse(PixFormats.isEmail("ma ria@vbank.com"));
+        assertFalse(PixFormats.isEmail("maria@vbank\n.com"));
+        assertFalse(PixFormats.isEmail(""));
+    }
+
+    @Test
+    void normalizeEmail() {
+        assertEquals("maria@vbank.com", PixFormats.normalizeEmail("  Maria@VBank.com \t"));
+        assertEquals("jo\u00e3o@vbank.com", PixFormats.normalizeEmail("JO\u00c3O@vbank.com"));
+        assertEquals("", PixFormats.normalizeEmail("   "));
+
+        String normalized = "maria@vbank.com";
+        assertSame(normalized, PixFormats.normalizeEmail(normalized));
+    }
+
+    // Mesmos resultados das expressões regulares substituídas
+    @Test
+    void matchesReplacedRegexes() {
+        Random random = new Random(7);
+        for (int n = 0; n < 50_000; n++) {
+            String value = randomText(random);
+            assertEquals(value.replaceAll("\\D", ""), PixFormats.digits(value), value);
+            assertEquals(value.matches("\\d{4}"), PixFormats.isPin(value), value);
+            assertEquals(value.matches("^[A-Za-z0-9+_.-]+@(.+)$"), PixFormats.isEmail(value), value);
+            assertEquals(value.toLowerCase().trim(), PixFormats.normalizeEmail(value), value);
+        }
+    }
+
+    static String randomText(Random random) {
+        int length = random.nextInt(20);
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(random.nextInt(3) == 0
+                    ? (char) ('0' + random.nextInt(10))
+                    : ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,72 @@
+package com.vitorsaucedo.vbank.pix;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PixMasksTest {
+
+    private static final String NAME_REGEX = "(?<=.{2}).(?=.* )|(?<=.{2}).(?=.{2}$)";
+    private static final String DOCUMENT_REGEX = "(\\d{3})\\d{5,8}(\\d{2})";
+
+    @Test
+    void maskName() {
+        assertEquals("Ma*** Si*va", mask("Maria Silva"));
+        assertEquals("Jo********** Go*es", mask("João Pereira Gomes"));
+        assertEquals("Ana", mask("Ana"));
+        assertEquals("Car*os", mask("Carlos"));
+        assertEquals("", mask(""));
+    }
+
+    @Test
+    void maskDocument() {
+        assertEquals("123.***.***-09", maskDocument("12345678909"));
+        // A expressão consome até 13 dígitos: no CNPJ o último fica de fora
+        assertEquals("112.***.***-181", maskDocument("11222333000181"));
+        assertEquals("123.456.789-09", maskDocument("123.456.789-09"));
+        assertEquals("123456789", maskDocument("123456789"));
+        assertEquals("123.***.***-23456", maskDocument("1234567890123456"));
+        assertEquals("", maskDocument(""));
+    }
+
+    @Test
+    void reusesBuffer() {
+        StringBuilder out = new StringBuilder();
+        PixMasks.maskName("Maria Silva", out).append(" / ");
+        PixMasks.maskDocument("12345678909", out);
+        assertEquals("Ma*** Si*va / 123.***.***-09", out.toString());
+    }
+
+    // Mesmos resultados das expressões regulares substituídas
+    @Test
+    void matchesReplacedRegexes() {
+        Random random = new Random(11);
+        for (int n = 0; n < 50_000; n++) {
+            String value = PixFormatsTest.randomText(random);
+            assertEquals(value.replaceAll(DOCUMENT_REGEX, "$1.***.***-$2"), maskDocument(value), value);
+            // A expressão de nome só vale para uma linha
+            if (value.chars().noneMatch(c -> c == '\n' || c == '\r' || c == '\u0085')) {
+                assertEquals(value.replaceAll(NAME_REGEX, "*"), mask(value), value);
+            }
+        }
+        for (int n = 0; n < 20_000; n++) {
+            StringBuilder digits = new StringBuilder();
+            int length = 8 + random.nextInt(24);
+            for (int i = 0; i < length; i++) {
+                digits.append((char) ('0' + random.nextInt(10)));
+            }
+            String value = digits.toString();
+            assertEquals(value.replaceAll(DOCUMENT_REGEX, "$1.***.***-$2"), maskDocument(value), value);
+        }
+    }
+
+    private static String mask(String name) {
+        return PixMasks.maskName(name, new StringBuilder()).toString();
+    }
+
+    private static String maskDocument(String document) {
+        return PixMasks.maskDocument(document, new StringBuilder()).toString();
+    }
+}
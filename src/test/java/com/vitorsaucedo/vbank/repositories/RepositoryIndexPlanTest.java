@@ -0,0 +1,367 @@
+package com.vitorsaucedo.vbank.repositories;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Confere, com {@code EXPLAIN} sobre uma base populada, que as consultas dos repositórios
+ * usam os índices criados pelas migrações em vez de varrer as tabelas.
+ *
+ * O SQL verificado é exatamente o gerado pelo Hibernate, capturado por um {@link StatementInspector}.
+ * Os planos são do H2 usado nos testes; no PostgreSQL os mesmos índices vêm de
+ * {@code db/migration/postgresql}.
+ */
+@SpringBootTest
+@ActiveProfiles("dev")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestPropertySource(properties = {
+        "api.security.token.secret=test-secret-key-12345678901234567890123456789012",
+        "spring.datasource.url=jdbc:h2:mem:indexplan",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.vitorsaucedo.vbank.repositories.RepositoryIndexPlanTest$CapturingInspector"
+})
+class RepositoryIndexPlanTest {
+
+    private static final int ACCOUNTS = 50;
+    private static final int TRANSACTIONS = 5_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private StatementEntryRepository statementEntryRepository;
+
+    @Autowired
+    private BalanceCheckpointRepository balanceCheckpointRepository;
+
+    @Autowired
+    private AccountDailyStatsRepository accountDailyStatsRepository;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private PixKeyRepository pixKeyRepository;
+
+    @Autowired
+    private PixKeyDeletionRepository pixKeyDeletionRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private PendingCreditRepository pendingCreditRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<UUID> accounts = new ArrayList<>();
+    private final List<UUID> users = new ArrayList<>();
+
+    @BeforeAll
+    void seed() {
+        for (int i = 0; i < ACCOUNTS; i++) {
+            UUID userId = UUID.randomUUID();
+            UUID accountId = UUID.randomUUID();
+            jdbcTemplate.update("INSERT INTO tb_users (id, full_name, document, email, password, transaction_pin, created_at) " +
+                    "VALUES (?, ?, ?, ?, 'x', 'x', CURRENT_TIMESTAMP)", userId, "Usuário " + i, "doc-" + i, "plan" + i + "@vbank.com");
+            jdbcTemplate.update("INSERT INTO tb_accounts (id, user_id, agency, account_number, balance, status, version, status_version) " +
+                    "VALUES (?, ?, '0001', ?, 0, 'ACTIVE', 0, 0)", accountId, userId, "plan-" + i);
+            jdbcTemplate.update("INSERT INTO tb_pix_keys (id, account_id, key_type, key_value, created_at) " +
+                    "VALUES (?, ?, 'EMAIL', ?, CURRENT_TIMESTAMP)", UUID.randomUUID(), accountId, "plan" + i + "@vbank.com");
+            users.add(userId);
+            accounts.add(accountId);
+        }
+
+        LocalDateTime start = LocalDateTime.now().minusDays(30);
+        List<Object[]> transactions = new ArrayList<>(TRANSACTIONS);
+        List<Object[]> entries = new ArrayList<>(TRANSACTIONS);
+        List<Object[]> statement = new ArrayList<>(TRANSACTIONS * 2);
+        List<Object[]> audits = new ArrayList<>(TRANSACTIONS);
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            UUID transactionId = UUID.randomUUID();
+            UUID payer = accounts.get(i % ACCOUNTS);
+            UUID payee = accounts.get((i + 1 + i / ACCOUNTS) % ACCOUNTS);
+            if (payee.equals(payer)) {
+                payee = accounts.get((i + 2) % ACCOUNTS);
+            }
+            Timestamp createdAt = Timestamp.valueOf(start.plusMinutes(i));
+            transactions.add(new Object[]{transactionId, payer, payee, createdAt});
+            entries.add(new Object[]{UUID.randomUUID(), payer, transactionId, createdAt});
+            statement.add(new Object[]{payer, transactionId, "OUTBOUND", createdAt});
+            statement.add(new Object[]{payee, transactionId, "INBOUND", createdAt});
+            audits.add(new Object[]{UUID.randomUUID(), users.get(i % ACCOUNTS), createdAt});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO tb_transactions (id, payer_account_id, payee_account_id, amount, type, status, description, created_at) " +
+                "VALUES (?, ?, ?, 1.00, 'PIX', 'COMPLETED', 'plan', ?)", transactions);
+        jdbcTemplate.batchUpdate("INSERT INTO tb_ledger_entries (id, account_id, transaction_id, entry_type, amount, created_at) " +
+                "VALUES (?, ?, ?, 'DEBIT', 1.00, ?)", entries);
+        jdbcTemplate.batchUpdate("INSERT INTO tb_statement_entries (account_id, transaction_id, direction, counterparty_name, amount, type, description, created_at) " +
+                "VALUES (?, ?, ?, 'Usuário', 1.00, 'PIX', 'plan', ?)", statement);
+        jdbcTemplate.batchUpdate("INSERT INTO tb_audit_logs (id, user_id, action, details, created_at) " +
+                "VALUES (?, ?, 'PIX_SENT', 'plan', ?)", audits);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @BeforeEach
+    void clearCapturedSql() {
+        CapturingInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void statementFirstPageUsesAccountIndex() {
+        UUID account = accounts.get(0);
+        inTransaction(() -> statementEntryRepository.findStatementPage(account, Limit.of(51)));
+
+        String plan = explain("tb_statement_entries", account);
+        assertIndexLookup(plan, "ACCOUNT_ID");
+        assertNoTableScan(plan);
+    }
+
+    @Test
+    void statementNextPageUsesAccountIndex() {
+        UUID account = accounts.get(0);
+        inTransaction(() -> statementEntryRepository.findStatementPageAfter(account, LocalDateTime.now(), UUID.randomUUID(), Limit.of(51)));
+
+        String plan = explain("tb_statement_entries", account);
+        assertIndexLookup(plan, "ACCOUNT_ID");
+        assertNoTableScan(plan);
+    }
+
+    @Test
+    void statementExportUsesAccountIndex() {
+        UUID account = accounts.get(0);
+        inTransaction(() -> {
+            try (var rows = statementEntryRepository.streamStatement(account, LocalDateTime.now().minusDays(7), LocalDateTime.now())) {
+                return rows.count();
+            }
+        });
+
+        String plan = explain("tb_statement_entries", account);
+        assertUsesIndex(plan, "IDX_STATEMENT_ENTRIES_ACCOUNT_CREATED");
+        assertNoTableScan(plan);
+    }
+
+    @Test
+    void balanceAtUsesCheckpointKeyAndAccountIndex() {
+        UUID account = accounts.get(0);
+        inTransaction(() -> balanceCheckpointRepository.findFirstByAccountIdAndAsOfLessThanEqualOrderByAsOfDesc(account, LocalDateTime.now()));
+
+        String checkpointPlan = explain("tb_balance_checkpoints", account);
+        assertIndexLookup(checkpointPlan, "ACCOUNT_ID");
+        assertNoTableScan(checkpointPlan);
+
+        inTransaction(() -> statementEntryRepository.sumBalanceChange(account, LocalDateTime.now().minusDays(1), LocalDateTime.now()));
+
+        String deltaPlan = explain("tb_statement_entries", account);
+        assertUsesIndex(deltaPlan, "IDX_STATEMENT_ENTRIES_ACCOUNT_CREATED");
+        assertNoTableScan(deltaPlan);
+    }
+
+    @Test
+    void dailyBalanceChangeUsesCreatedIndex() {
+        inTransaction(() -> statementEntryRepository.sumBalanceChangeByAccount(LocalDateTime.now().minusDays(1), LocalDateTime.now()));
+
+        String plan = explain("tb_statement_entries", null);
+        assertUsesIndex(plan, "IDX_STATEMENT_ENTRIES_CREATED");
+        assertNoTableScan(plan);
+    }
+
+    @Test
+    void dashboardStatsUseAccountKey() {
+        UUID account = accounts.get(0);
+        inTransaction(() -> accountDailyStatsRepository.findAllByAccountIdAndDayGreaterThanEqual(account, LocalDate.now().minusDays(31)));
+
+        String plan = explain("tb_account_daily_stats", account);
+        assertIndexLookup(plan, "ACCOUNT_ID");
+        assertNoTableScan(plan);
+    }
+
+    @Test
+    void pendingSweepUsesPendingIndex() {
+        inTransaction(() -> transactionRepository.findPendingCreatedBefore(LocalDateTime.now(), Limit.of(500)));
+
+        String plan = explain("tb_transactions", null);
+        assertUsesIndex(plan, "IDX_TRANSACTIONS_PENDING_CREATED");
+        assertNoTableScan(plan);
+    }
+
+    @Test
+    void auditLogsByUserUseUserIndex() {
+        UUID user = users.get(0);
+        inTransaction(() -> auditLogRepository.findAllByUserIdOrderByCreatedAtDesc(user));
+
+        String plan = explain("tb_audit_logs", user);
+        assertUsesIndex(plan, "IDX_AUDIT_LOGS_USER_CREATED");
+        assertNoTableScan(plan);
+    }
+
+    @Test
+    void pixKeysByAccountUseAccountIndex() {
+        UUID account = accounts.get(0);
+        inTransaction(() -> pixKeyRepository.findAllByAccountId(account));
+
+        String plan = explain("tb_pix_keys", account);
+        assertIndexLookup(plan, "ACCOUNT_ID");
+        assertNoTableScan(plan);
+    }
+
+    @Test
+    void pixKeyCatchUpUsesCreatedIndex() {
+        inTransaction(() -> {
+            try (var locations = pixKeyRepository.streamLocationsCreatedSince(LocalDateTime.now().minusMinutes(5))) {
+                return locations.count();
+            }
+        });
+
+        String plan = explain("tb_pix_keys", null);
+        assertUsesIndex(plan, "IDX_PIX_KEYS_CREATED");
+        assertNoTableScan(plan);
+    }
+
+    @Test
+    void pixKeyIndexDeletionCatchUpUsesDeletedIndex() {
+        inTransaction(() -> {
+            try (var deletions = pixKeyDeletionRepository.streamDeletedSince(LocalDateTime.now().minusMinutes(5))) {
+                return deletions.count();
+            }
+        });
+
+        String plan = explain("tb_pix_key_deletions", null);
+        assertUsesIndex(plan, "IDX_PIX_KEY_DELETIONS_DELETED");
+        assertNoTableScan(plan);
+    }
+
+    @Test
+    void pixKeyFilterCatchUpUsesCreatedIndex() {
+        inTransaction(() -> {
+            try (var values = pixKeyRepository.streamKeyValuesCreatedSince(LocalDateTime.now().minusMinutes(1))) {
+                return values.count();
+            }
+        });
+
+        String plan = explain("tb_pix_keys", null);
+        assertUsesIndex(plan, "IDX_PIX_KEYS_CREATED");
+        assertNoTableScan(plan);
+    }
+
+    @Test
+    void onboardingUniquenessUsesUniqueKeys() {
+        inTransaction(() -> userRepository.findExistingEmails(List.of("plan1@vbank.com", "novo@vbank.com")));
+        assertNoTableScan(explain("tb_users", null));
+
+        inTransaction(() -> userRepository.findExistingDocuments(List.of("doc-1", "00000000000")));
+        assertNoTableScan(explain("tb_users", null));
+    }
+
+    @Test
+    void ledgerBalanceUsesAccountIndex() {
+        UUID account = accounts.get(0);
+        inTransaction(() -> ledgerEntryRepository.computeBalance(account));
+
+        String plan = explain("tb_ledger_entries", account);
+        assertUsesIndex(plan, "IDX_LEDGER_ENTRIES_ACCOUNT");
+        assertNoTableScan(plan);
+    }
+
+    @Test
+    void pendingCreditsByAccountUseAccountIndex() {
+        UUID account = accounts.get(0);
+        inTransaction(() -> pendingCreditRepository.findAllByAccountId(account));
+
+        String plan = explain("tb_pending_credits", account);
+        assertUsesIndex(plan, "IDX_PENDING_CREDITS_ACCOUNT");
+        assertNoTableScan(plan);
+    }
+
+    private void inTransaction(java.util.function.Supplier<?> query) {
+        transactionTemplate.execute(status -> query.get());
+    }
+
+    /**
+     * Executa {@code EXPLAIN} sobre a última consulta capturada que lê a tabela informada.
+     * Parâmetros UUID recebem {@code id}; os demais recebem valores compatíveis com o tipo.
+     */
+    private String explain(String table, UUID id) {
+        String sql = CapturingInspector.STATEMENTS.reversed().stream()
+                .filter(statement -> statement.contains(table) && statement.startsWith("select"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Nenhuma consulta capturada em " + table));
+
+        return jdbcTemplate.execute((java.sql.Connection connection) -> {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+                ParameterMetaData parameters = explain.getParameterMetaData();
+                for (int i = 1; i <= parameters.getParameterCount(); i++) {
+                    switch (parameters.getParameterType(i)) {
+                        case Types.TIMESTAMP -> explain.setTimestamp(i, Timestamp.valueOf(LocalDateTime.now()));
+                        case Types.DATE -> explain.setDate(i, java.sql.Date.valueOf(LocalDate.now()));
+                        case Types.INTEGER, Types.BIGINT -> explain.setInt(i, 50);
+                        case Types.VARCHAR -> explain.setString(i, "COMPLETED");
+                        default -> explain.setObject(i, id != null ? id : UUID.randomUUID());
+                    }
+                }
+                try (ResultSet result = explain.executeQuery()) {
+                    result.next();
+                    return result.getString(1);
+                }
+            }
+        });
+    }
+
+    private static void assertUsesIndex(String plan, String index) {
+        assertTrue(plan.contains(index), () -> "Plano deveria usar " + index + ":\n" + plan);
+    }
+
+    // O H2 cria um índice próprio para cada chave estrangeira e pode preferi-lo ao de V2
+    // para uma igualdade simples; o que importa é a busca ser por índice na coluna filtrada
+    private static void assertIndexLookup(String plan, String column) {
+        assertTrue(plan.matches("(?s).*/\\* PUBLIC\\.\\w+: " + column + " = .*"),
+                () -> "Plano deveria buscar por índice em " + column + ":\n" + plan);
+    }
+
+    private static void assertNoTableScan(String plan) {
+        assertFalse(plan.contains("tableScan"), () -> "Plano não deveria varrer tabelas:\n" + plan);
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.vitorsaucedo.vbank.security;
+
+import com.vitorsaucedo.vbank.exceptions.InvalidPinException;
+import com.vitorsaucedo.vbank.money.Money;
+import com.vitorsaucedo.vbank.repositories.TransactionAuthorizationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("dev")
+@TestPropertySource(properties = {
+        "api.security.token.secret=" + TransactionAuthorizationServiceTest.SECRET,
+        "spring.datasource.url=jdbc:h2:mem:stepup",
+        "spring.datasource.driverClassName=org.h2.Driver"
+})
+class TransactionAuthorizationServiceTest {
+
+    static final String SECRET = "test-secret-key-12345678901234567890123456789012";
+
+    @Autowired
+    private TransactionAuthorizationService authorizationService;
+
+    @Autowired
+    private TransactionAuthorizationRepository authorizationRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void tokenIsAcceptedByAnotherInstance() {
+        UUID userId = UUID.randomUUID();
+        String token = authorizationService.issue(userId, Money.parse("100.00"), 2);
+
+        // Outra instância, ou esta depois de um reinício: nada em memória é compartilhado
+        TransactionAuthorizationService other = new TransactionAuthorizationService(
+                authorizationRepository, SECRET, Duration.ofMinutes(5));
+        UUID tokenId = transactionTemplate.execute(status -> other.consume(token, userId, Money.parse("60.00")));
+
+        assertThrows(InvalidPinException.class, () -> authorizationService.consume(token, userId, Money.parse("50.00")));
+        authorizationService.consume(token, userId, Money.parse("40.00"));
+        assertThrows(InvalidPinException.class, () -> authorizationService.consume(token, userId, Money.parse("0.01")));
+
+        var row = authorizationRepository.findById(tokenId).orElseThrow();
+        assertEquals(0, BigDecimal.ZERO.compareTo(row.getRemaining()));
+        assertEquals(0, row.getUses());
+    }
+
+    @Test
+    void restoreReturnsAmountAndUse() {
+        UUID userId = UUID.randomUUID();
+        String token = authorizationService.issue(userId, Money.parse("10.00"), 1);
+
+        UUID tokenId = authorizationService.consume(token, userId, Money.parse("10.00"));
+        assertThrows(InvalidPinException.class, () -> authorizationService.consume(token, userId, Money.parse("10.00")));
+
+        authorizationService.restore(tokenId, Money.parse("10.00"));
+        assertEquals(tokenId, authorizationService.consume(token, userId, Money.parse("10.00")));
+    }
+
+    @Test
+    void tokenOfAnotherUserIsRejected() {
+        String token = authorizationService.issue(UUID.randomUUID(), Money.parse("10.00"), 1);
+
+        assertThrows(InvalidPinException.class, () -> authorizationService.consume(token, UUID.randomUUID(), Money.parse("1.00")));
+    }
+
+    @Test
+    void concurrentConsumersNeverOverspend() throws Exception {
+        UUID userId = UUID.randomUUID();
+        String token = authorizationService.issue(userId, Money.parse("50.00"), 10);
+
+        AtomicInteger accepted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(pool.submit(() -> {
+                try {
+                    authorizationService.consume(token, userId, Money.parse("10.00"));
+                    accepted.incrementAndGet();
+                } catch (InvalidPinException e) {
+                    // Saldo do token esgotado
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        assertEquals(5, accepted.get());
+    }
+}
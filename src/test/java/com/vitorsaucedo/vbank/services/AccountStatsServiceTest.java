@@ -0,0 +1,89 @@
+package com.vitorsaucedo.vbank.services;
+
+import com.vitorsaucedo.vbank.dtos.PeriodStatsResponse;
+import com.vitorsaucedo.vbank.dtos.PixKeyRequest;
+import com.vitorsaucedo.vbank.dtos.PixTransferRequest;
+import com.vitorsaucedo.vbank.dtos.UserRegistrationRequest;
+import com.vitorsaucedo.vbank.dtos.UserResponse;
+import com.vitorsaucedo.vbank.entities.BankAccount;
+import com.vitorsaucedo.vbank.entities.enums.PixKeyType;
+import com.vitorsaucedo.vbank.money.Money;
+import com.vitorsaucedo.vbank.repositories.AccountDailyStatsRepository;
+import com.vitorsaucedo.vbank.repositories.BankAccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("dev")
+@TestPropertySource(properties = {
+        "api.security.token.secret=test-secret-key-12345678901234567890123456789012",
+        "spring.datasource.url=jdbc:h2:mem:accountstats",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        // A projeção roda só quando o teste pede
+        "vbank.ledger.projection.interval-ms=3600000"
+})
+class AccountStatsServiceTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private PixKeyService pixKeyService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private AccountStatsService accountStatsService;
+
+    @Autowired
+    private AccountDailyStatsRepository dailyStatsRepository;
+
+    @Autowired
+    private BankAccountRepository accountRepository;
+
+    @Test
+    void inboundTotalsAreRecordedWhenTheCreditIsProjected() {
+        UserResponse payer = authService.register(new UserRegistrationRequest(
+                "Alice Souza", "12345678909", "alice@stats.com", "password1", "1234"));
+        UserResponse payee = authService.register(new UserRegistrationRequest(
+                "Bruno Lima", "52998224725", "bruno@stats.com", "password1", "4321"));
+        BankAccount payerAccount = accountRepository.findByUserId(payer.id()).orElseThrow();
+        UUID payeeAccountId = accountRepository.findByUserId(payee.id()).orElseThrow().getId();
+        payerAccount.setBalance(Money.parse("100.00"));
+        accountRepository.save(payerAccount);
+        String key = pixKeyService.createKey(new PixKeyRequest(PixKeyType.EMAIL, null), payeeAccountId).keyValue();
+
+        transferService.executePix(new PixTransferRequest(key, Money.parse("10.50"), "1234", null, "aluguel"),
+                payer.id(), payerAccount.getId(), null);
+
+        // A liquidação grava só a linha do pagador; a do recebedor não é tocada
+        assertPeriod(accountStatsService.statsFor(payerAccount.getId()).today(), "0", 0, "10.50", 1);
+        assertTrue(dailyStatsRepository.findAllByAccountIdAndDayGreaterThanEqual(payeeAccountId, LocalDate.now()).isEmpty());
+
+        ledgerService.projectPendingCredits();
+
+        assertPeriod(accountStatsService.statsFor(payeeAccountId).today(), "10.50", 1, "0", 0);
+        assertPeriod(accountStatsService.statsFor(payeeAccountId).currentMonth(), "10.50", 1, "0", 0);
+    }
+
+    private static void assertPeriod(PeriodStatsResponse period, String inbound, long inboundCount, String outbound, long outboundCount) {
+        assertEquals(0, new BigDecimal(inbound).compareTo(period.inboundAmount()), "inboundAmount");
+        assertEquals(inboundCount, period.inboundCount());
+        assertEquals(0, new BigDecimal(outbound).compareTo(period.outboundAmount()), "outboundAmount");
+        assertEquals(outboundCount, period.outboundCount());
+    }
+}
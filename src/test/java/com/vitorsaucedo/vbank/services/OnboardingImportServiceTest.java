@@ -0,0 +1,179 @@
+package com.vitorsaucedo.vbank.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vitorsaucedo.vbank.dtos.LoginRequest;
+import com.vitorsaucedo.vbank.dtos.UserRegistrationRequest;
+import com.vitorsaucedo.vbank.entities.enums.AccountStatus;
+import com.vitorsaucedo.vbank.exceptions.DuplicateResourceException;
+import com.vitorsaucedo.vbank.repositories.BankAccountRepository;
+import com.vitorsaucedo.vbank.repositories.UserRepository;
+import com.vitorsaucedo.vbank.services.account.AccountNumberAllocator;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@SpringBootTest
+@ActiveProfiles("dev")
+@TestPropertySource(properties = {
+        "api.security.token.secret=test-secret-key-12345678901234567890123456789012",
+        "spring.datasource.url=jdbc:h2:mem:onboardingimport",
+        "spring.datasource.driverClassName=org.h2.Driver"
+})
+class OnboardingImportServiceTest {
+
+    private static final String DUPLICATE_DOCUMENT = new DuplicateResourceException("Usu\u00e1rio", "documento").getMessage();
+    private static final String DUPLICATE_EMAIL = new DuplicateResourceException("Usu\u00e1rio", "email").getMessage();
+
+    @Autowired
+    private OnboardingImportService importService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private BankAccountRepository accountRepository;
+
+    @Autowired
+    private AccountNumberAllocator accountNumberAllocator;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    void importsCsvAndReportsRejectedLines() throws IOException {
+        authService.register(new UserRegistrationRequest(
+                "Alice Souza", "12345678909", "alice@import.com", "password1", "1234"));
+        Path file = write("clientes.csv",
+                "\ufeffemail,fullName,document,password,transactionPin,partnerId",
+                "ana@import.com,\"Souza, Ana\",11144477735,password1,1111,p-1",
+                "bia@import.com,Bia Lima,11144477735,password1,2222,p-2",
+                "alice@import.com,Carla Dias,39053344705,password1,3333,p-3",
+                "dan@import.com,Dan Reis,12345678900,password1,4444,p-4",
+                "",
+                "eva@import.com,Eva Melo",
+                "\"fabio@import.com,Fabio",
+                "gil@import.com,Gil Nunes,86288366757,password1,55a5,p-5",
+                "hugo@import.com,Hugo Alves,71460238001,password1,6666,p-6");
+        Path report = dir.resolve("recusas.ndjson");
+
+        OnboardingImportService.Result result = importService.importFile(file, report);
+
+        assertEquals(8, result.rows());
+        assertEquals(2, result.imported());
+        assertEquals(6, result.rejected());
+        Map<Long, String> rejected = readReport(report);
+        assertEquals(List.of(3L, 4L, 5L, 7L, 8L, 9L), List.copyOf(rejected.keySet()));
+        assertEquals(DUPLICATE_DOCUMENT, rejected.get(3L));
+        assertEquals(DUPLICATE_EMAIL, rejected.get(4L));
+        assertTrue(rejected.get(5L).startsWith("Dados inv\u00e1lidos no campo 'document'"), rejected.get(5L));
+        assertTrue(rejected.get(7L).startsWith("Linha CSV com 2 coluna(s)"), rejected.get(7L));
+        assertTrue(rejected.get(8L).contains("aspas"), rejected.get(8L));
+        assertEquals("Dados inv\u00e1lidos no campo 'transactionPin': O PIN deve conter apenas n\u00fameros", rejected.get(9L));
+
+        assertEquals(AccountStatus.ACTIVE, accountRepository.findByUserEmail("ana@import.com").orElseThrow().getStatus());
+        assertNotNull(authService.login(new LoginRequest("ana@import.com", "password1")).token());
+
+        // Rodar de novo o mesmo arquivo não duplica quem já entrou
+        OnboardingImportService.Result rerun = importService.importFile(file, report);
+        assertEquals(0, rerun.imported());
+        assertEquals(DUPLICATE_DOCUMENT, readReport(report).get(2L));
+    }
+
+    @Test
+    void importsNdjsonIgnoringUnknownFields() throws IOException {
+        Path file = write("clientes.ndjson",
+                "{\"fullName\":\"Ivo Rocha\",\"document\":\"45812136068\",\"email\":\"ivo@import.com\",\"password\":\"password1\",\"transactionPin\":\"7777\",\"source\":\"parceiro\"}",
+                "{\"fullName\":\"Jo\u00e3o Reis\",\"document\":\"93541134780\",\"email\":\"ivo@import.com\",\"password\":\"password1\",\"transactionPin\":\"8888\"}",
+                "{not json",
+                "{\"fullName\":\"Lia Matos\",\"document\":\"52998224725\",\"email\":\"lia@import.com\",\"password\":\"curta\",\"transactionPin\":\"9999\"}");
+        Path report = dir.resolve("recusas.ndjson");
+
+        OnboardingImportService.Result result = importService.importFile(file, report);
+
+        assertEquals(4, result.rows());
+        assertEquals(1, result.imported());
+        assertEquals(3, result.rejected());
+        Map<Long, String> rejected = readReport(report);
+        assertEquals(DUPLICATE_EMAIL, rejected.get(2L));
+        assertTrue(rejected.get(3L).startsWith("Linha em JSON inv\u00e1lida"), rejected.get(3L));
+        assertEquals("Dados inv\u00e1lidos no campo 'password': A senha de acesso deve ter no m\u00ednimo 8 caracteres", rejected.get(4L));
+
+        assertNotNull(authService.login(new LoginRequest("ivo@import.com", "password1")).token());
+    }
+
+    @Test
+    void fallsBackToRowByRowWhenTheBatchHitsAUniqueKey() throws IOException {
+        Path first = write("primeiro.ndjson", json("Nina Prado", "24681357928", "nina@import.com"));
+        assertEquals(1, importService.importFile(first, dir.resolve("primeiro-recusas.ndjson")).imported());
+
+        // Sem ver o banco na verificação prévia, o conflito só aparece no INSERT em lote,
+        // como num cadastro concorrente entre a consulta e a gravação
+        OnboardingImportService blind = new OnboardingImportService(authService, mock(UserRepository.class),
+                accountNumberAllocator, passwordEncoder, validator, jdbcTemplate, transactionTemplate, objectMapper, 10, 2);
+        Path second = write("segundo.ndjson",
+                json("Nina Prado", "24681357928", "nina@import.com"),
+                json("Otto Braga", "13579246828", "otto@import.com"));
+        Path report = dir.resolve("segundo-recusas.ndjson");
+
+        OnboardingImportService.Result result = blind.importFile(second, report);
+
+        assertEquals(1, result.imported());
+        assertEquals(1, result.rejected());
+        assertEquals(Map.of(1L, new DuplicateResourceException("Usu\u00e1rio", "documento ou email").getMessage()), readReport(report));
+        assertNotNull(authService.login(new LoginRequest("otto@import.com", "password1")).token());
+    }
+
+    private Path write(String name, String... lines) throws IOException {
+        return Files.write(dir.resolve(name), List.of(lines), StandardCharsets.UTF_8);
+    }
+
+    private static String json(String fullName, String document, String email) {
+        return "{\"fullName\":\"" + fullName + "\",\"document\":\"" + document + "\",\"email\":\"" + email
+                + "\",\"password\":\"password1\",\"transactionPin\":\"1234\"}";
+    }
+
+    private Map<Long, String> readReport(Path report) throws IOException {
+        Map<Long, String> rejected = new TreeMap<>();
+        for (String line : Files.readAllLines(report, StandardCharsets.UTF_8)) {
+            JsonNode node = objectMapper.readTree(line);
+            rejected.put(node.get("line").asLong(), node.get("message").asText());
+        }
+        return rejected;
+    }
+}
@@ -0,0 +1,92 @@
+package com.vitorsaucedo.vbank.services;
+
+import com.vitorsaucedo.vbank.services.PixKeyFilter.BloomFilter;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Garantias do {@link BloomFilter} do {@link PixKeyFilter}: nenhuma chave inserida é recusada,
+ * nem com inserções concorrentes, e a taxa de falsos positivos fica próxima da configurada.
+ */
+class PixKeyFilterTest {
+
+    private static final int KEYS = 100_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @Test
+    void neverRejectsAnInsertedKey() {
+        BloomFilter filter = new BloomFilter(KEYS, FALSE_POSITIVE_RATE);
+        List<String> keys = sampleKeys(KEYS);
+        keys.forEach(filter::add);
+
+        for (String key : keys) {
+            assertTrue(filter.mightContain(key), key);
+        }
+        assertEquals(KEYS, filter.insertions());
+    }
+
+    @Test
+    void neverRejectsKeysInsertedConcurrently() throws Exception {
+        BloomFilter filter = new BloomFilter(KEYS, FALSE_POSITIVE_RATE);
+        List<String> keys = sampleKeys(KEYS);
+
+        int threads = 8;
+        int slice = KEYS / threads;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                List<String> part = keys.subList(t * slice, (t + 1) * slice);
+                futures.add(pool.submit(() -> part.forEach(filter::add)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        for (String key : keys) {
+            assertTrue(filter.mightContain(key), key);
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTheConfiguredRate() {
+        BloomFilter filter = new BloomFilter(KEYS, FALSE_POSITIVE_RATE);
+        sampleKeys(KEYS).forEach(filter::add);
+
+        int falsePositives = 0;
+        for (String absent : sampleKeys(KEYS)) {
+            if (filter.mightContain(absent)) {
+                falsePositives++;
+            }
+        }
+        double rate = (double) falsePositives / KEYS;
+        assertTrue(rate < FALSE_POSITIVE_RATE * 2, "taxa de falsos positivos " + rate);
+    }
+
+    // Mistura os formatos reais de chave: aleatória, e-mail, CPF e telefone
+    private static List<String> sampleKeys(int count) {
+        List<String> keys = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String random = UUID.randomUUID().toString();
+            keys.add(switch (i % 4) {
+                case 0 -> random;
+                case 1 -> random.substring(0, 12) + "@vbank.com";
+                case 2 -> Long.toString(Math.abs(random.hashCode()) % 100_000_000_000L);
+                default -> "119" + Math.abs(random.hashCode() % 100_000_000);
+            });
+        }
+        return keys;
+    }
+}
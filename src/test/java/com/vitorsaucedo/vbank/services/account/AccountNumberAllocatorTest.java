@@ -0,0 +1,139 @@
+package com.vitorsaucedo.vbank.services.account;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccountNumberAllocatorTest {
+
+    @Test
+    void appendsLuhnCheckDigit() {
+        AccountNumberAllocator allocator = new AccountNumberAllocator(new SequenceStub(" 3 ", 7992739871L), 11);
+
+        // Exemplo clássico do algoritmo de Luhn: 7992739871 tem verificador 3
+        assertEquals("079927398713", allocator.next());
+        assertEquals("079927398721", allocator.next());
+        assertEquals("079927398739", allocator.next());
+    }
+
+    @Test
+    void padsWithLeadingZeros() {
+        AccountNumberAllocator allocator = new AccountNumberAllocator(new SequenceStub("1", 1), 9);
+
+        String number = allocator.next();
+        assertEquals("0000000018", number);
+        assertLuhn(number);
+    }
+
+    @Test
+    void switchesBlocksOnlyWhenExhausted() {
+        SequenceStub sequence = new SequenceStub("3", 100, 500);
+        AccountNumberAllocator allocator = new AccountNumberAllocator(sequence, 4);
+
+        List<String> numbers = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            numbers.add(allocator.next());
+        }
+
+        assertEquals(List.of("0100", "0101", "0102", "0500", "0501", "0502"),
+                numbers.stream().map(n -> n.substring(0, 4)).toList());
+        numbers.forEach(AccountNumberAllocatorTest::assertLuhn);
+        assertEquals(1, sequence.blockSizeQueries);
+        assertEquals(2, sequence.nextvalQueries);
+    }
+
+    @Test
+    void blockIsCutAtTheEndOfTheRange() {
+        AccountNumberAllocator allocator = new AccountNumberAllocator(new SequenceStub("10", 98, 100), 2);
+
+        assertEquals("98", allocator.next().substring(0, 2));
+        assertEquals("99", allocator.next().substring(0, 2));
+        assertThrows(IllegalStateException.class, allocator::next);
+    }
+
+    @Test
+    void concurrentCallersGetUniqueNumbers() throws InterruptedException {
+        long[] starts = new long[200];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = 1 + i * 50L;
+        }
+        SequenceStub sequence = new SequenceStub("50", starts);
+        AccountNumberAllocator allocator = new AccountNumberAllocator(sequence, 9);
+
+        Set<String> numbers = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            pool.submit(() -> {
+                for (int j = 0; j < 1_000; j++) {
+                    numbers.add(allocator.next());
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(8_000, numbers.size());
+        assertEquals(160, sequence.nextvalQueries);
+    }
+
+    @Test
+    void rejectsInvalidDigits() {
+        SequenceStub sequence = new SequenceStub("1");
+        assertThrows(IllegalArgumentException.class, () -> new AccountNumberAllocator(sequence, 0));
+        assertThrows(IllegalArgumentException.class, () -> new AccountNumberAllocator(sequence, 19));
+    }
+
+    private static void assertLuhn(String number) {
+        int sum = 0;
+        boolean doubled = false;
+        for (int i = number.length() - 1; i >= 0; i--) {
+            int digit = number.charAt(i) - '0';
+            if (doubled) {
+                digit = digit * 2 > 9 ? digit * 2 - 9 : digit * 2;
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        assertEquals(0, sum % 10, number);
+    }
+
+    // Responde às duas consultas do alocador: o INCREMENT BY (em texto, como no information_schema) e o nextval
+    private static final class SequenceStub extends JdbcTemplate {
+
+        private final String increment;
+        private final Deque<Long> starts = new ArrayDeque<>();
+        private int blockSizeQueries;
+        private int nextvalQueries;
+
+        SequenceStub(String increment, long... starts) {
+            this.increment = increment;
+            for (long start : starts) {
+                this.starts.add(start);
+            }
+        }
+
+        @Override
+        public synchronized <T> T queryForObject(String sql, Class<T> requiredType) {
+            if (sql.contains("information_schema.sequences")) {
+                blockSizeQueries++;
+                return requiredType.cast(increment);
+            }
+            assertTrue(sql.contains("nextval('seq_account_numbers')"), sql);
+            nextvalQueries++;
+            return requiredType.cast(starts.remove());
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.vitorsaucedo.vbank.services.directory;
+
+import com.vitorsaucedo.vbank.entities.enums.PixKeyType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedPixKeyIndexTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void putFindAndReplace() throws IOException {
+        PixKeyLocation first = new PixKeyLocation(UUID.randomUUID(), PixKeyType.EMAIL);
+        PixKeyLocation second = new PixKeyLocation(UUID.randomUUID(), PixKeyType.EMAIL);
+
+        try (MappedPixKeyIndex index = MappedPixKeyIndex.create(directory.resolve("index.bin"), 16)) {
+            index.put("maria@vbank.com", first);
+            assertEquals(first, index.find("maria@vbank.com"));
+            assertNull(index.find("joao@vbank.com"));
+
+            index.put("maria@vbank.com", second);
+            assertEquals(second, index.find("maria@vbank.com"));
+            assertEquals(1, index.size());
+        }
+    }
+
+    @Test
+    void removeKeepsProbeSequences() throws IOException {
+        try (MappedPixKeyIndex index = MappedPixKeyIndex.create(directory.resolve("index.bin"), 16)) {
+            for (int i = 0; i < 20; i++) {
+                index.put("key-" + i, location(i));
+            }
+
+            assertTrue(index.remove("key-3"));
+            assertFalse(index.remove("key-3"));
+            assertNull(index.find("key-3"));
+            assertEquals(19, index.size());
+
+            // A lápide não pode esconder chaves que sondaram além dela
+            for (int i = 0; i < 20; i++) {
+                if (i != 3) {
+                    assertEquals(location(i), index.find("key-" + i), "key-" + i);
+                }
+            }
+            index.put("key-3", location(3));
+            assertEquals(location(3), index.find("key-3"));
+        }
+    }
+
+    @Test
+    void growKeepsEntriesAndDropsTombstones() throws IOException {
+        MappedPixKeyIndex index = MappedPixKeyIndex.create(directory.resolve("index.bin"), 16);
+        int count = 0;
+        while (!index.needsGrowth()) {
+            index.put("key-" + count, location(count));
+            count++;
+        }
+        index.remove("key-0");
+        index.checkpoint(1234);
+
+        MappedPixKeyIndex grown = index.grow(directory.resolve("grown.bin"));
+        index.close();
+        try (grown) {
+            assertEquals(index.capacity() * 2, grown.capacity());
+            assertEquals(count - 1, grown.size());
+            assertFalse(grown.needsGrowth());
+            assertNull(grown.find("key-0"));
+            for (int i = 1; i < count; i++) {
+                assertEquals(location(i), grown.find("key-" + i), "key-" + i);
+            }
+            assertTrue(grown.isClean());
+            assertEquals(1234, grown.watermark());
+        }
+    }
+
+    @Test
+    void reopenAfterCheckpoint() throws IOException {
+        Path path = directory.resolve("index.bin");
+        try (MappedPixKeyIndex index = MappedPixKeyIndex.create(path, 16)) {
+            assertFalse(index.isClean());
+            index.put("maria@vbank.com", location(1));
+            index.put("joao@vbank.com", location(2));
+            index.remove("joao@vbank.com");
+            index.checkpoint(1_700_000_000_000L);
+            assertTrue(index.isClean());
+        }
+
+        try (MappedPixKeyIndex reopened = MappedPixKeyIndex.open(path)) {
+            assertTrue(reopened.isClean());
+            assertEquals(1_700_000_000_000L, reopened.watermark());
+            assertEquals(1, reopened.size());
+            assertEquals(location(1), reopened.find("maria@vbank.com"));
+            assertNull(reopened.find("joao@vbank.com"));
+        }
+    }
+
+    @Test
+    void writeAfterCheckpointMarksDirty() throws IOException {
+        Path path = directory.resolve("index.bin");
+        try (MappedPixKeyIndex index = MappedPixKeyIndex.create(path, 16)) {
+            index.checkpoint(1);
+            index.put("maria@vbank.com", location(1));
+            assertFalse(index.isClean());
+        }
+
+        // Fechado sem checkpoint, como numa queda: a inicialização deve reconstruir
+        try (MappedPixKeyIndex reopened = MappedPixKeyIndex.open(path)) {
+            assertFalse(reopened.isClean());
+        }
+    }
+
+    @Test
+    void openRejectsInvalidFiles() throws IOException {
+        Path truncated = Files.write(directory.resolve("truncated.bin"), new byte[10]);
+        assertThrows(IOException.class, () -> MappedPixKeyIndex.open(truncated));
+
+        Path foreign = Files.write(directory.resolve("foreign.bin"), new byte[64 + 32 * 40]);
+        assertThrows(IOException.class, () -> MappedPixKeyIndex.open(foreign));
+    }
+
+    private static PixKeyLocation location(int i) {
+        return new PixKeyLocation(new UUID(0, i), PixKeyType.values()[i % PixKeyType.values().length]);
+    }
+}
@@ -0,0 +1,93 @@
+package com.vitorsaucedo.vbank.services.transfer;
+
+import com.vitorsaucedo.vbank.dtos.PixBatchTransferItem;
+import com.vitorsaucedo.vbank.dtos.PixBatchTransferRequest;
+import com.vitorsaucedo.vbank.dtos.PixBatchTransferResponse;
+import com.vitorsaucedo.vbank.dtos.PixKeyRequest;
+import com.vitorsaucedo.vbank.dtos.PixTransferRequest;
+import com.vitorsaucedo.vbank.dtos.TransactionResponse;
+import com.vitorsaucedo.vbank.dtos.UserRegistrationRequest;
+import com.vitorsaucedo.vbank.dtos.UserResponse;
+import com.vitorsaucedo.vbank.entities.BankAccount;
+import com.vitorsaucedo.vbank.entities.enums.PixKeyType;
+import com.vitorsaucedo.vbank.entities.enums.TransactionStatus;
+import com.vitorsaucedo.vbank.money.Money;
+import com.vitorsaucedo.vbank.repositories.BankAccountRepository;
+import com.vitorsaucedo.vbank.services.AuthService;
+import com.vitorsaucedo.vbank.services.PixKeyService;
+import com.vitorsaucedo.vbank.services.TransferService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@SpringBootTest
+@ActiveProfiles("dev")
+@TestPropertySource(properties = {
+        "api.security.token.secret=test-secret-key-12345678901234567890123456789012",
+        "spring.datasource.url=jdbc:h2:mem:asyncengine",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "vbank.transfer.engine=async"
+})
+class AsyncTransferEngineTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private PixKeyService pixKeyService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private BankAccountRepository accountRepository;
+
+    @Test
+    void batchSettlesOnTheSpotAndPendingTransfersThatLoseTheRaceFail() throws InterruptedException {
+        UserResponse payerUser = authService.register(new UserRegistrationRequest(
+                "Alice Souza", "12345678909", "alice@async.com", "password1", "1234"));
+        UserResponse payeeUser = authService.register(new UserRegistrationRequest(
+                "Bruno Lima", "52998224725", "bruno@async.com", "password1", "4321"));
+        BankAccount payer = accountRepository.findByUserId(payerUser.id()).orElseThrow();
+        payer.setBalance(Money.parse("100.00"));
+        accountRepository.save(payer);
+        String key = pixKeyService.createKey(new PixKeyRequest(PixKeyType.EMAIL, null),
+                accountRepository.findByUserId(payeeUser.id()).orElseThrow().getId()).keyValue();
+
+        // Aceita pelo pré-cheque (80 <= 100), sem reservar saldo
+        TransactionResponse single = transferService.executePix(
+                new PixTransferRequest(key, Money.parse("80.00"), "1234", null, "avulsa"), payerUser.id(), payer.getId(), null);
+        assertEquals(TransactionStatus.PENDING, single.status());
+
+        PixBatchTransferResponse batch = transferService.executePixBatch(new PixBatchTransferRequest("1234",
+                List.of(new PixBatchTransferItem(key, Money.parse("50.00"), "lote"))), payerUser.id(), payer.getId());
+        // O lote não fica PENDING: cada item sai concluído ou recusado
+        assertNotEquals(TransactionStatus.PENDING, batch.items().get(0).status());
+
+        TransactionStatus singleStatus = awaitSettled(single, payer);
+
+        // Quem chegar primeiro ao lock do pagador leva o saldo; o outro é recusado
+        boolean singleWon = singleStatus == TransactionStatus.COMPLETED;
+        assertEquals(singleWon ? 0 : 1, batch.succeeded());
+        assertEquals(singleWon ? Money.parse("20.00") : Money.parse("50.00"),
+                accountRepository.findById(payer.getId()).orElseThrow().getBalance());
+    }
+
+    private TransactionStatus awaitSettled(TransactionResponse transaction, BankAccount payer) throws InterruptedException {
+        for (int attempt = 0; attempt < 200; attempt++) {
+            TransactionStatus status = transferService.getTransfer(transaction.transactionId(), payer.getId()).status();
+            if (status != TransactionStatus.PENDING) {
+                return status;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Transação continuou PENDING");
+    }
+}
@@ -0,0 +1,124 @@
+package com.vitorsaucedo.vbank.services.transfer;
+
+import com.vitorsaucedo.vbank.dtos.PixBatchTransferItem;
+import com.vitorsaucedo.vbank.dtos.PixBatchTransferRequest;
+import com.vitorsaucedo.vbank.dtos.PixBatchTransferResponse;
+import com.vitorsaucedo.vbank.dtos.PixKeyRequest;
+import com.vitorsaucedo.vbank.dtos.PixTransferRequest;
+import com.vitorsaucedo.vbank.dtos.UserRegistrationRequest;
+import com.vitorsaucedo.vbank.dtos.UserResponse;
+import com.vitorsaucedo.vbank.entities.BankAccount;
+import com.vitorsaucedo.vbank.entities.enums.PixKeyType;
+import com.vitorsaucedo.vbank.exceptions.InsufficientBalanceException;
+import com.vitorsaucedo.vbank.money.Money;
+import com.vitorsaucedo.vbank.repositories.BankAccountRepository;
+import com.vitorsaucedo.vbank.services.AuthService;
+import com.vitorsaucedo.vbank.services.PixKeyService;
+import com.vitorsaucedo.vbank.services.TransferService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("dev")
+@TestPropertySource(properties = {
+        "api.security.token.secret=test-secret-key-12345678901234567890123456789012",
+        "spring.datasource.url=jdbc:h2:mem:sequencer",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "vbank.transfer.engine=sequencer"
+})
+class SequencedTransferEngineTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private PixKeyService pixKeyService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private BankAccountRepository accountRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void batchIsOneItemInThePayersShard() {
+        BankAccount payer = fundedAccount("Alice Souza", "12345678909", "alice@sequencer.com");
+        String key = pixKey("Bruno Lima", "52998224725", "bruno@sequencer.com");
+        DistributionSummary groupSizes = meterRegistry.get("vbank.transfer.sequencer.batch.size").summary();
+        long commits = groupSizes.count();
+        double items = groupSizes.totalAmount();
+
+        PixBatchTransferResponse response = transferService.executePixBatch(new PixBatchTransferRequest("1234", List.of(
+                new PixBatchTransferItem(key, Money.parse("10.00"), "a"),
+                new PixBatchTransferItem(key, Money.parse("20.00"), "b"),
+                new PixBatchTransferItem(key, Money.parse("30.00"), "c"))), payer.getUser().getId(), payer.getId());
+
+        assertEquals(3, response.succeeded());
+        // Um commit de grupo com um único item: o lote inteiro passou pelo escritor do shard
+        assertEquals(commits + 1, groupSizes.count());
+        assertEquals(items + 1, groupSizes.totalAmount());
+        assertEquals(Money.parse("40.00"), accountRepository.findById(payer.getId()).orElseThrow().getBalance());
+    }
+
+    @Test
+    void batchAndSingleTransfersNeverOverdraw() throws Exception {
+        BankAccount payer = fundedAccount("Carla Dias", "11144477735", "carla@sequencer.com");
+        String key = pixKey("Dan Reis", "39053344705", "dan@sequencer.com");
+        AtomicInteger completed = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(10);
+        List<Future<?>> singles = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            singles.add(pool.submit(() -> {
+                try {
+                    transferService.executePix(new PixTransferRequest(key, Money.parse("10.00"), "1234", null, "avulsa"),
+                            payer.getUser().getId(), payer.getId(), null);
+                    completed.incrementAndGet();
+                } catch (InsufficientBalanceException e) {
+                    // Saldo já consumido pelo lote ou por outras avulsas
+                }
+            }));
+        }
+        PixBatchTransferResponse batch = transferService.executePixBatch(new PixBatchTransferRequest("1234",
+                Collections.nCopies(5, new PixBatchTransferItem(key, Money.parse("10.00"), "lote"))),
+                payer.getUser().getId(), payer.getId());
+        for (Future<?> single : singles) {
+            single.get();
+        }
+        pool.shutdown();
+
+        assertEquals(10, completed.get() + batch.succeeded());
+        assertEquals(Money.ZERO, accountRepository.findById(payer.getId()).orElseThrow().getBalance());
+    }
+
+    private BankAccount fundedAccount(String name, String document, String email) {
+        UserResponse user = authService.register(new UserRegistrationRequest(name, document, email, "password1", "1234"));
+        BankAccount account = accountRepository.findByUserId(user.id()).orElseThrow();
+        account.setBalance(Money.parse("100.00"));
+        return accountRepository.save(account);
+    }
+
+    private String pixKey(String name, String document, String email) {
+        UserResponse user = authService.register(new UserRegistrationRequest(name, document, email, "password1", "4321"));
+        BankAccount account = accountRepository.findByUserId(user.id()).orElseThrow();
+        return pixKeyService.createKey(new PixKeyRequest(PixKeyType.EMAIL, null), account.getId()).keyValue();
+    }
+}
@@ -0,0 +1,217 @@
+package com.vitorsaucedo.vbank.services.transfer;
+
+import com.vitorsaucedo.vbank.dtos.PixKeyRequest;
+import com.vitorsaucedo.vbank.dtos.PixTransferRequest;
+import com.vitorsaucedo.vbank.dtos.UserRegistrationRequest;
+import com.vitorsaucedo.vbank.dtos.UserResponse;
+import com.vitorsaucedo.vbank.entities.BankAccount;
+import com.vitorsaucedo.vbank.entities.enums.PixKeyType;
+import com.vitorsaucedo.vbank.exceptions.TransferConflictException;
+import com.vitorsaucedo.vbank.money.Money;
+import com.vitorsaucedo.vbank.repositories.BankAccountRepository;
+import com.vitorsaucedo.vbank.services.AuthService;
+import com.vitorsaucedo.vbank.services.LedgerService;
+import com.vitorsaucedo.vbank.services.PixKeyDirectory;
+import com.vitorsaucedo.vbank.services.PixKeyService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Benchmark de contenção do caminho de liquidação: cada transferência resolve a chave Pix
+ * do recebedor no {@link PixKeyDirectory} e é entregue ao {@link TransferEngine} configurado,
+ * com a estratégia de concorrência, o diário, os créditos pendentes e os totais diários reais.
+ *
+ * Desabilitado por padrão. Para executar:
+ * {@code mvn test -Dtest=TransferContentionBenchmark -Dvbank.benchmark=true -Dvbank.transfer.engine=sequencer -Dvbank.transfer.concurrency.strategy=optimistic}
+ *
+ * Mede vazão e p50/p99 em três cenários: um pagador concentrando todas as transferências
+ * (hot payer), um recebedor concentrando todos os créditos (hot payee) e pares sorteados
+ * uniformemente. No motor {@code async} a latência é a do aceite; a vazão inclui a espera
+ * até a última transação sair de {@code PENDING}.
+ */
+@SpringBootTest
+@ActiveProfiles("dev")
+@EnabledIfSystemProperty(named = "vbank.benchmark", matches = "true")
+@TestPropertySource(properties = {
+        "api.security.token.secret=test-secret-key-12345678901234567890123456789012",
+        "spring.datasource.url=jdbc:h2:mem:benchmark;LOCK_TIMEOUT=10000",
+        "spring.datasource.driverClassName=org.h2.Driver"
+})
+class TransferContentionBenchmark {
+
+    private static final int ACCOUNTS = 100;
+    private static final int THREADS = 16;
+    private static final int TRANSFERS = 4_000;
+    private static final Money AMOUNT = Money.ofCents(100);
+
+    private static final AtomicInteger SEEDED = new AtomicInteger();
+
+    @Autowired
+    private TransferEngine engine;
+
+    @Autowired
+    private TransferConcurrencyStrategy strategy;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private PixKeyService pixKeyService;
+
+    @Autowired
+    private PixKeyDirectory pixKeyDirectory;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private BankAccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private record Customer(UserResponse user, BankAccount account, String pixKey) {}
+
+    @Test
+    void hotPayer() throws Exception {
+        List<Customer> customers = seedCustomers();
+        run("hot-payer", customers, () -> 0, () -> random(customers));
+    }
+
+    @Test
+    void hotPayee() throws Exception {
+        List<Customer> customers = seedCustomers();
+        run("hot-payee", customers, () -> random(customers), () -> 0);
+    }
+
+    @Test
+    void uniform() throws Exception {
+        List<Customer> customers = seedCustomers();
+        run("uniform", customers, () -> random(customers), () -> random(customers));
+    }
+
+    private void run(String workload, List<Customer> customers, IntSupplier payerPicker, IntSupplier payeePicker) throws Exception {
+        Money totalBefore = totalAvailable(customers);
+        long[] latencies = new long[TRANSFERS];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < TRANSFERS) {
+                    int payerIndex;
+                    int payeeIndex;
+                    do {
+                        payerIndex = payerPicker.getAsInt();
+                        payeeIndex = payeePicker.getAsInt();
+                    } while (payerIndex == payeeIndex);
+                    Customer payer = customers.get(payerIndex);
+                    Customer payee = customers.get(payeeIndex);
+
+                    long begin = System.nanoTime();
+                    try {
+                        // Mesmo caminho de TransferService depois do PIN: chave resolvida, comando ao motor
+                        PixKeyDirectory.ResolvedPixKey target = pixKeyDirectory.resolve(payee.pixKey()).orElseThrow();
+                        engine.submit(new TransferCommand(
+                                payer.user().id(),
+                                payer.account().getId(),
+                                target.accountId(),
+                                new PixTransferRequest(payee.pixKey(), AMOUNT, null, null, "benchmark"),
+                                null,
+                                null
+                        ));
+                    } catch (TransferConflictException e) {
+                        conflicts.incrementAndGet();
+                    }
+                    latencies[i] = System.nanoTime() - begin;
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        awaitSettlement();
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+
+        Arrays.sort(latencies);
+        System.out.printf("[%s/%s] %s: %.0f transfers/s, p50=%.2fms, p99=%.2fms, conflitos=%d%n",
+                engine.getClass().getSimpleName(),
+                strategy.getClass().getSimpleName(),
+                workload,
+                (TRANSFERS - conflicts.get()) / (elapsed / 1e9),
+                latencies[TRANSFERS / 2] / 1e6,
+                latencies[(int) (TRANSFERS * 0.99)] / 1e6,
+                conflicts.get());
+
+        assertEquals(0, totalBefore.compareTo(totalAvailable(customers)), "O saldo total deve ser conservado");
+    }
+
+    // O motor async devolve no aceite: espera os workers esvaziarem a fila
+    private void awaitSettlement() throws InterruptedException {
+        while (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_transactions WHERE status = 'PENDING'", Long.class) > 0) {
+            Thread.sleep(50);
+        }
+    }
+
+    private List<Customer> seedCustomers() {
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            int n = SEEDED.incrementAndGet();
+            UserResponse user = authService.register(new UserRegistrationRequest(
+                    "Cliente " + n, cpf(n), "cliente" + n + "@benchmark.com", "password1", "1234"));
+            BankAccount account = accountRepository.findByUserId(user.id()).orElseThrow();
+            account.setBalance(Money.ofCents(100_000_000));
+            account = accountRepository.save(account);
+            String key = pixKeyService.createKey(new PixKeyRequest(PixKeyType.EMAIL, null), account.getId()).keyValue();
+            customers.add(new Customer(user, account, key));
+        }
+        return customers;
+    }
+
+    // Saldo projetado mais créditos pendentes: não depende de a projeção já ter rodado
+    private Money totalAvailable(List<Customer> customers) {
+        return accountRepository.findAllById(customers.stream().map(c -> c.account().getId()).toList()).stream()
+                .map(ledgerService::availableBalance)
+                .reduce(Money.ZERO, Money::plus);
+    }
+
+    private static int random(List<Customer> customers) {
+        return ThreadLocalRandom.current().nextInt(customers.size());
+    }
+
+    private static String cpf(int n) {
+        StringBuilder digits = new StringBuilder(String.format("%09d", 100_000_000 + n));
+        for (int length = 9; length <= 10; length++) {
+            int sum = 0;
+            for (int i = 0; i < length; i++) {
+                sum += (digits.charAt(i) - '0') * (length + 1 - i);
+            }
+            int remainder = sum % 11;
+            digits.append(remainder < 2 ? 0 : 11 - remainder);
+        }
+        return digits.toString();
+    }
+}
@@ -0,0 +1,145 @@
+package com.vitorsaucedo.vbank.services.transfer;
+
+import com.vitorsaucedo.vbank.dtos.PixTransferRequest;
+import com.vitorsaucedo.vbank.dtos.TransactionResponse;
+import com.vitorsaucedo.vbank.entities.enums.TransactionStatus;
+import com.vitorsaucedo.vbank.exceptions.DuplicateResourceException;
+import com.vitorsaucedo.vbank.exceptions.IdempotencyKeyMismatchException;
+import com.vitorsaucedo.vbank.exceptions.InsufficientBalanceException;
+import com.vitorsaucedo.vbank.mappers.TransactionMapper;
+import com.vitorsaucedo.vbank.money.Money;
+import com.vitorsaucedo.vbank.repositories.TransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class TransferReplayCacheTest {
+
+    private static final PixTransferRequest REQUEST =
+            new PixTransferRequest("maria@vbank.com", Money.parse("10.00"), "1234", null, "aluguel");
+
+    private final TransferReplayCache cache = new TransferReplayCache(
+            mock(TransactionRepository.class), new TransactionMapper(), 100, Duration.ofMinutes(5), 5_000);
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final ExecutorService waiters = Executors.newSingleThreadExecutor();
+
+    private final UUID key = UUID.randomUUID();
+    private final UUID owner = UUID.randomUUID();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        executor.shutdownNow();
+        waiters.shutdownNow();
+    }
+
+    @Test
+    void duplicateReturnsOriginalResponse() {
+        AtomicInteger runs = new AtomicInteger();
+        TransactionResponse first = cache.execute(key, owner, REQUEST, () -> response(runs.incrementAndGet()));
+        TransactionResponse second = cache.execute(key, owner, REQUEST, () -> response(runs.incrementAndGet()));
+
+        assertSame(first, second);
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void otherOwnerIsRejectedWithoutWaiting() throws Exception {
+        Future<TransactionResponse> original = startBlocked(() -> response(1));
+
+        assertThrows(DuplicateResourceException.class,
+                () -> cache.execute(key, UUID.randomUUID(), REQUEST, () -> response(2)));
+
+        release.countDown();
+        original.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void otherPayloadIsRejectedWithoutWaiting() throws Exception {
+        Future<TransactionResponse> original = startBlocked(() -> response(1));
+        PixTransferRequest changed = new PixTransferRequest(
+                REQUEST.targetKey(), Money.parse("99.00"), "1234", null, REQUEST.description());
+
+        assertThrows(IdempotencyKeyMismatchException.class,
+                () -> cache.execute(key, owner, changed, () -> response(2)));
+
+        release.countDown();
+        original.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void waiterRetriesWhenOriginalFails() throws Exception {
+        // A mensagem leva o saldo do pagador original e não pode chegar a outra requisição
+        InsufficientBalanceException failure = new InsufficientBalanceException(Money.parse("1.00"), Money.parse("10.00"));
+        Future<TransactionResponse> original = startBlocked(() -> {
+            throw failure;
+        });
+        Future<TransactionResponse> waiter = waiters.submit(() -> cache.execute(key, owner, REQUEST, () -> response(2)));
+        Thread.sleep(100);
+        release.countDown();
+
+        assertEquals(2, waiter.get(5, TimeUnit.SECONDS).transactionId().getLeastSignificantBits());
+        ExecutionException originalFailure = assertThrows(ExecutionException.class, () -> original.get(5, TimeUnit.SECONDS));
+        assertSame(failure, originalFailure.getCause());
+    }
+
+    @Test
+    void waiterGetsItsOwnFailure() throws Exception {
+        RuntimeException failure = new IllegalStateException("original");
+        startBlocked(() -> {
+            throw failure;
+        });
+        Future<TransactionResponse> waiter = waiters.submit(() -> cache.execute(key, owner, REQUEST, () -> {
+            throw new IllegalStateException("retry");
+        }));
+        Thread.sleep(100);
+        release.countDown();
+
+        ExecutionException seen = assertThrows(ExecutionException.class, () -> waiter.get(5, TimeUnit.SECONDS));
+        assertNotSame(failure, seen.getCause());
+        assertEquals("retry", seen.getCause().getMessage());
+    }
+
+    private Future<TransactionResponse> startBlocked(Supplier<TransactionResponse> transfer) throws InterruptedException {
+        Future<TransactionResponse> future = executor.submit(() -> cache.execute(key, owner, REQUEST, () -> {
+            started.countDown();
+            awaitQuietly(release);
+            return transfer.get();
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return future;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static TransactionResponse response(long id) {
+        return new TransactionResponse(new UUID(0, id), REQUEST.amount(), LocalDateTime.now(), REQUEST.description(),
+                TransactionStatus.COMPLETED, null, null, null);
+    }
+}